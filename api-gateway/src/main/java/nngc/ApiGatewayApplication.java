@@ -4,7 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"nngc", "org.nngc.apigateway"})
 @EnableDiscoveryClient
 public class ApiGatewayApplication {
     public static void main(String[] args) {
@@ -0,0 +1,49 @@
+package nngc.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fully buffered copy of a downstream response that can be replayed to other clients.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Instant capturedAt) {
+
+    /**
+     * Headers that describe the original caller's exchange rather than the resource: its rate limit
+     * state and the CORS answer to its Origin. The replaying exchange keeps its own.
+     */
+    private static final List<String> PER_REQUEST_HEADER_PREFIXES = List.of("X-RateLimit-", "Access-Control-");
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        return writeTo(response, new HttpHeaders());
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response, HttpHeaders extraHeaders) {
+        response.setStatusCode(status);
+        headers.forEach((name, values) -> {
+            if (!isPerRequest(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        response.getHeaders().putAll(extraHeaders);
+        // The body is replayed in one piece
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(body.length);
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static boolean isPerRequest(String name) {
+        return PER_REQUEST_HEADER_PREFIXES.stream()
+                .anyMatch(prefix -> name.regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+}
@@ -0,0 +1,64 @@
+package nngc.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Passes the response through unchanged while keeping a copy of status, headers and body so
+ * it can be handed to {@link CachedResponse} consumers once the exchange completes. The body is
+ * aggregated before it is written, so only use this on routes with small (JSON) payloads.
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private volatile byte[] body = EMPTY;
+
+    private volatile HttpHeaders headers;
+
+    public CapturingResponseDecorator(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        // Headers as the handler left them, before commit actions (e.g. security headers) add to them
+        this.headers = copy(getHeaders());
+        return DataBufferUtils.join(Flux.from(body))
+                .flatMap(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    this.body = bytes;
+                    return getDelegate().writeWith(Mono.just(getDelegate().bufferFactory().wrap(bytes)));
+                })
+                .switchIfEmpty(Mono.defer(() -> getDelegate().writeWith(Flux.empty())));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).flatMapSequential(publisher -> publisher));
+    }
+
+    public CachedResponse snapshot() {
+        HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+        HttpHeaders headers = this.headers != null ? this.headers : copy(getHeaders());
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, Instant.now());
+    }
+
+    private static HttpHeaders copy(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(source);
+        return headers;
+    }
+}
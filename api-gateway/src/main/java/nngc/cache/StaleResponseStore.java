@@ -0,0 +1,78 @@
+package nngc.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU of the last good response per request key, used to answer with a stale copy
+ * when the upstream call fails instead of a bare 503.
+ */
+public class StaleResponseStore {
+
+    private final int maxBodyBytes;
+    private final Duration maxAge;
+    private final Map<String, CachedResponse> entries;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public StaleResponseStore(int maxEntries, int maxBodyBytes, Duration maxAge, MeterRegistry meterRegistry) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxAge = maxAge;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.stale.entries", this, StaleResponseStore::size)
+                .description("Responses kept for stale serving")
+                .register(meterRegistry);
+    }
+
+    public void put(String key, CachedResponse response) {
+        if (response.body().length > maxBodyBytes) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+    }
+
+    /**
+     * Returns the stored response if it is not older than the configured max age, counting the
+     * outcome under {@code gateway.stale.requests}.
+     */
+    public CachedResponse getStale(String routeId, String key) {
+        CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+        }
+        if (response != null && response.capturedAt().plus(maxAge).isBefore(Instant.now())) {
+            response = null;
+        }
+        counter(routeId, response != null ? "served" : "miss").increment();
+        return response;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return counters.computeIfAbsent(routeId + "|" + outcome, k -> Counter.builder("gateway.stale.requests")
+                .description("Fallbacks answered from (or missing in) the stale response store")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
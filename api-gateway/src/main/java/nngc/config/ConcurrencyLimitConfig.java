@@ -0,0 +1,21 @@
+package nngc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nngc.limit.ConcurrencyLimiterRegistry;
+import nngc.limit.ConcurrencyLimitsEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimiterRegistry concurrencyLimiterRegistry(MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiterRegistry(meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimitsEndpoint concurrencyLimitsEndpoint(ConcurrencyLimiterRegistry registry) {
+        return new ConcurrencyLimitsEndpoint(registry);
+    }
+}
@@ -0,0 +1,63 @@
+package nngc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nngc.ratelimit.InMemoryRateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public InMemoryRateLimiter inMemoryRateLimiter(RateLimitProperties properties,
+                                                   ConfigurationService configurationService,
+                                                   MeterRegistry meterRegistry) {
+        return new InMemoryRateLimiter(properties, configurationService, meterRegistry);
+    }
+
+    /**
+     * Authenticated callers are limited per principal, anonymous callers per client IP.
+     */
+    @Bean
+    @Primary
+    public KeyResolver clientKeyResolver(RemoteAddressResolver clientAddressResolver) {
+        return exchange -> exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(name -> "user:" + name)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + clientIp(clientAddressResolver.resolve(exchange))));
+    }
+
+    @Bean
+    public KeyResolver ipKeyResolver(RemoteAddressResolver clientAddressResolver) {
+        return exchange -> Mono.just(clientIp(clientAddressResolver.resolve(exchange)));
+    }
+
+    /**
+     * Only trusts X-Forwarded-For when the gateway runs behind a known number of proxies,
+     * otherwise clients could pick their own rate limit key.
+     */
+    @Bean
+    public RemoteAddressResolver clientAddressResolver(RateLimitProperties properties) {
+        return properties.getTrustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxies())
+                : new RemoteAddressResolver() { };
+    }
+
+    private static String clientIp(InetSocketAddress address) {
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,50 @@
+package nngc.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory gateway rate limiter. {@code replenishRate} and
+ * {@code burstCapacity} are the defaults for routes that don't set their own. Clients beyond
+ * {@code maxKeys} tracked at once are not limited (see {@link nngc.ratelimit.TokenBucketStore});
+ * watch {@code gateway.ratelimit.overflow}.
+ */
+@Validated
+@ConfigurationProperties(prefix = "nngc.gateway.rate-limit")
+public class RateLimitProperties {
+
+    @Min(1)
+    private int replenishRate = 20;
+    @Min(1)
+    private int burstCapacity = 40;
+    @Min(1)
+    private int maxKeys = 100_000;
+    private int stripes = 64;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private int trustedProxies = 0;
+
+    public int getReplenishRate() { return replenishRate; }
+    public void setReplenishRate(int replenishRate) { this.replenishRate = replenishRate; }
+
+    public int getBurstCapacity() { return burstCapacity; }
+    public void setBurstCapacity(int burstCapacity) { this.burstCapacity = burstCapacity; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public int getStripes() { return stripes; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+
+    public int getTrustedProxies() { return trustedProxies; }
+    public void setTrustedProxies(int trustedProxies) { this.trustedProxies = trustedProxies; }
+}
@@ -1,9 +1,11 @@
 package nngc.config;
 
+import org.nngc.common.profiling.JfrEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
@@ -16,16 +18,17 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveJwtDecoder jwtDecoder) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .oauth2ResourceServer(oauth2 -> oauth2
-                    .jwt(jwt -> jwt
-                        .jwkSetUri("http://localhost:8080/realms/nngc-realm/protocol/openid-connect/certs")
-                    )
+                    // Caching verifier from nngc-common, keyed on spring.security.oauth2.resourceserver.jwt.jwk-set-uri
+                    .jwt(jwt -> jwt.jwtDecoder(jwtDecoder))
                 )
                 .authorizeExchange(exchanges -> exchanges
+                    .pathMatchers("/actuator/jfr/**").hasAuthority(JfrEndpoint.OPERATOR_AUTHORITY)
+
                     // Public endpoints - no authentication required
                     .pathMatchers(
                         "/auth/nngc/registration",
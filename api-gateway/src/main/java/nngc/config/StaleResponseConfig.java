@@ -0,0 +1,18 @@
+package nngc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nngc.cache.StaleResponseStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StaleResponseProperties.class)
+public class StaleResponseConfig {
+
+    @Bean
+    public StaleResponseStore staleResponseStore(StaleResponseProperties properties, MeterRegistry meterRegistry) {
+        return new StaleResponseStore(properties.getMaxEntries(), properties.getMaxBodyBytes(),
+                properties.getMaxAge(), meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package nngc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the stale response store used by the gateway fallback.
+ */
+@ConfigurationProperties(prefix = "nngc.gateway.stale-response")
+public class StaleResponseProperties {
+
+    private int maxEntries = 1_000;
+    private int maxBodyBytes = 256 * 1024;
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    public int getMaxBodyBytes() { return maxBodyBytes; }
+    public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+
+    public Duration getMaxAge() { return maxAge; }
+    public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+}
@@ -0,0 +1,51 @@
+package nngc.filter;
+
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineProperties;
+import org.nngc.common.deadline.DeadlineWebFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replaces whatever deadline header the client sent with the gateway's own remaining budget
+ * (the client's value capped by {@code nngc.deadline.max-timeout}, or the default when absent),
+ * so every proxied request tells the service how long the gateway is still willing to wait.
+ * Runs just before the routing filter, so time spent rate limiting, coalescing, queueing for
+ * the concurrency limit and in the circuit breaker is already off the budget. Hedged requests
+ * never get this far; {@link HedgingGatewayFilterFactory} stamps each attempt itself.
+ */
+@Component
+public class DeadlineHeaderFilter implements GlobalFilter, Ordered {
+
+    private final DeadlineProperties properties;
+
+    public DeadlineHeaderFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Deadline deadline = exchange.getAttribute(DeadlineWebFilter.DEADLINE_ATTR);
+        String headerName = properties.getHeaderName();
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    if (deadline != null) {
+                        headers.set(headerName, deadline.toHeader());
+                    } else {
+                        headers.remove(headerName);
+                    }
+                }))
+                .build();
+        return chain.filter(forwarded);
+    }
+
+    @Override
+    public int getOrder() {
+        // NettyRoutingFilter runs at LOWEST_PRECEDENCE
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
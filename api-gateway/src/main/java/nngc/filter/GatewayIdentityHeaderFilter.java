@@ -0,0 +1,85 @@
+package nngc.filter;
+
+import org.nngc.common.security.identity.IdentityHeaderCodec;
+import org.nngc.common.security.identity.IdentityHeaderProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Forwards the identity of the already verified caller as a signed header so downstream
+ * services don't have to verify the JWT again. Any incoming copy of the header is dropped.
+ * Client-credentials (service account) tokens are forwarded as-is and keep the full check.
+ */
+@Component
+public class GatewayIdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    private final IdentityHeaderCodec codec;
+    private final IdentityHeaderProperties properties;
+
+    public GatewayIdentityHeaderFilter(ObjectProvider<IdentityHeaderCodec> codec, IdentityHeaderProperties properties) {
+        this.codec = codec.getIfAvailable();
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String headerName = properties.getHeaderName();
+        if (codec == null) {
+            return chain.filter(stripHeader(exchange, headerName));
+        }
+
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .cast(JwtAuthenticationToken.class)
+                .filter(authentication -> !isServiceAccount(authentication.getToken()))
+                .map(authentication -> exchange.mutate()
+                        .request(request -> request.headers(headers -> headers.set(headerName, encode(authentication))))
+                        .build())
+                .defaultIfEmpty(stripHeader(exchange, headerName))
+                .flatMap(chain::filter);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private String encode(JwtAuthenticationToken authentication) {
+        Instant expiresAt = Instant.now().plus(properties.getTtl());
+        Instant tokenExpiry = authentication.getToken().getExpiresAt();
+        if (tokenExpiry != null && tokenExpiry.isBefore(expiresAt)) {
+            expiresAt = tokenExpiry;
+        }
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return codec.encode(authentication.getName(), roles, expiresAt);
+    }
+
+    private static boolean isServiceAccount(Jwt jwt) {
+        String username = jwt.getClaimAsString("preferred_username");
+        return jwt.hasClaim("client_id")
+                || jwt.hasClaim("clientId")
+                || (username != null && username.startsWith("service-account-"));
+    }
+
+    private static ServerWebExchange stripHeader(ServerWebExchange exchange, String headerName) {
+        if (!exchange.getRequest().getHeaders().containsKey(headerName)) {
+            return exchange;
+        }
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(headerName)))
+                .build();
+    }
+}
@@ -0,0 +1,415 @@
+package nngc.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import nngc.cache.CachedResponse;
+import nngc.hedge.HedgeBudget;
+import nngc.hedge.HedgeDelayPolicy;
+import nngc.hedge.Hedger;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineProperties;
+import org.nngc.common.deadline.DeadlineWebFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+
+/**
+ * {@code Hedging} route filter for idempotent {@code lb://} routes. GET requests are sent to the
+ * instance picked by the load balancer; if no response arrived after the hedge delay (a
+ * percentile of recent latencies) or it failed or answered 5xx, the same request goes to a
+ * different instance and the first successful response wins. Must be the last filter of the route because it performs the upstream
+ * call itself. Request headers go through the same {@link HttpHeadersFilter}s as for the regular
+ * routing filters (X-Forwarded-*, hop-by-hop removal). Response bodies are buffered so that the
+ * losing attempt can be dropped, up to {@code maxBodyBytes}; a larger one ends in 502. Other
+ * methods pass through to the regular routing filters.
+ * <pre>
+ * filters[n].name=Hedging
+ * filters[n].args.percentile=0.95
+ * filters[n].args.budgetRatio=0.1
+ * filters[n].args.maxBodyBytes=16777216
+ * </pre>
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    // Header names are case-insensitive, and always lower case over HTTP/2
+    private static final Set<String> EXCLUDED_HEADERS = caseInsensitive(
+            HttpHeaders.HOST, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive", HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE,
+            // Replaced by the hedged call's own span context
+            "traceparent", "tracestate");
+
+    private final LoadBalancerClientFactory clientFactory;
+    private final HttpClientProperties httpClientProperties;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final DeadlineProperties deadlineProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgingGatewayFilterFactory(LoadBalancerClientFactory clientFactory, HttpClient httpClient,
+                                       HttpClientProperties httpClientProperties, MeterRegistry meterRegistry,
+                                       DeadlineProperties deadlineProperties,
+                                       ObjectProvider<ObservationRegistry> observationRegistry,
+                                       ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
+        super(Config.class);
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.clientFactory = clientFactory;
+        this.httpClientProperties = httpClientProperties;
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.deadlineProperties = deadlineProperties;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Hedger hedger = new Hedger(
+                new HedgeDelayPolicy(config.getPercentile(), config.getMinDelay(), config.getMaxDelay()),
+                new HedgeBudget(config.getBudgetRatio(), config.getMaxBurst()),
+                meterRegistry, config.getRouteId());
+
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                    || route == null || !"lb".equals(route.getUri().getScheme())) {
+                return chain.filter(exchange);
+            }
+
+            String serviceId = route.getUri().getHost();
+            Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                    clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                    RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+            Duration timeout = responseTimeout(route);
+            HttpHeaders headers = upstreamHeaders(exchange);
+            Deadline deadline = exchange.getAttribute(DeadlineWebFilter.DEADLINE_ATTR);
+            int maxBodyBytes = config.getMaxBodyBytes();
+            DefaultRequest<RequestDataContext> primaryRequest = loadBalancerRequest(exchange.getRequest(), serviceId);
+            lifecycles.forEach(lifecycle -> lifecycle.onStart(primaryRequest));
+
+            return chooseInstances(serviceId, primaryRequest)
+                    .flatMap(instances -> {
+                        if (instances.isEmpty()) {
+                            // No instances: let the regular load balancer filter produce the 503
+                            lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                                    new CompletionContext<>(CompletionContext.Status.DISCARD, primaryRequest)));
+                            return chain.filter(exchange);
+                        }
+                        Mono<ResponseEntity<byte[]>> primary = attempt(instances.get(0), primaryRequest,
+                                lifecycles, exchange.getRequest(), headers, maxBodyBytes, timeout, deadline);
+                        Mono<ResponseEntity<byte[]>> responses = instances.size() < 2
+                                ? primary
+                                : hedger.execute(() -> primary, () -> attempt(instances.get(1),
+                                        loadBalancerRequest(exchange.getRequest(), serviceId), lifecycles,
+                                        exchange.getRequest(), headers, maxBodyBytes, timeout, deadline));
+                        return responses
+                                // Both attempts answered 5xx (or there was only one): pass the error response on
+                                .onErrorResume(error -> cause(error, ServerErrorResponse.class)
+                                        .map(e -> Mono.just(e.response))
+                                        .orElseGet(() -> Mono.error(error)))
+                                .onErrorMap(HedgingGatewayFilterFactory::responseStatus)
+                                .flatMap(response -> write(response, exchange));
+                    });
+        };
+    }
+
+    /**
+     * The load balancer's choice first, followed by a different random instance if there is one;
+     * an empty list if the load balancer has nothing.
+     */
+    private Mono<List<ServiceInstance>> chooseInstances(String serviceId, Request<RequestDataContext> request) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        ServiceInstanceListSupplier supplier = clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class)
+                .getIfAvailable();
+        if (loadBalancer == null || supplier == null) {
+            return Mono.just(List.of());
+        }
+        return Mono.from(loadBalancer.choose(request))
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .zipWith(supplier.get().next().defaultIfEmpty(List.of()))
+                .map(tuple -> {
+                    ServiceInstance primary = tuple.getT1();
+                    List<ServiceInstance> others = tuple.getT2().stream()
+                            .filter(instance -> !sameInstance(instance, primary))
+                            .toList();
+                    if (others.isEmpty()) {
+                        return List.of(primary);
+                    }
+                    return List.of(primary, others.get(ThreadLocalRandom.current().nextInt(others.size())));
+                })
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * One upstream call, reported to the load balancer lifecycle (latency-aware balancing and
+     * load balancer metrics) like the regular routing filters do. A cancelled attempt (the other
+     * one won) is reported as discarded. 5xx responses are signalled as {@link ServerErrorResponse}
+     * so the hedger treats them as failures.
+     */
+    private Mono<ResponseEntity<byte[]>> attempt(ServiceInstance instance, Request<RequestDataContext> lbRequest,
+                                                 Set<LoadBalancerLifecycle> lifecycles, ServerHttpRequest request,
+                                                 HttpHeaders headers, int maxBodyBytes, Duration timeout,
+                                                 Deadline deadline) {
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        return Mono.defer(() -> {
+            lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+            // Exactly one completion per attempt: operators may still cancel after the response arrived
+            AtomicBoolean completed = new AtomicBoolean();
+            Consumer<CompletionContext<ResponseData, ServiceInstance, RequestDataContext>> complete = context -> {
+                if (completed.compareAndSet(false, true)) {
+                    lifecycles.forEach(lifecycle -> lifecycle.onComplete(context));
+                }
+            };
+            Mono<UpstreamResponse> response = send(instance, request, headers, maxBodyBytes, deadline);
+            if (timeout != null) {
+                response = response.timeout(timeout,
+                        Mono.error(() -> new TimeoutException("Response took longer than timeout: " + timeout)));
+            }
+            return response
+                    .doOnSuccess(upstream -> complete.accept(new CompletionContext<>(
+                            CompletionContext.Status.SUCCESS, lbRequest, lbResponse, upstream.data())))
+                    .doOnError(e -> complete.accept(new CompletionContext<>(
+                            CompletionContext.Status.FAILED, e, lbRequest, lbResponse)))
+                    .doOnCancel(() -> complete.accept(new CompletionContext<>(
+                            CompletionContext.Status.DISCARD, lbRequest, lbResponse)))
+                    .flatMap(upstream -> upstream.entity().getStatusCode().is5xxServerError()
+                            ? Mono.error(new ServerErrorResponse(upstream.entity()))
+                            : Mono.just(upstream.entity()));
+        });
+    }
+
+    /**
+     * Sends one attempt with the deadline's budget as it stands now, so a backup attempt forwards
+     * less than the primary did; fails with a timeout instead once the deadline has passed.
+     */
+    private Mono<UpstreamResponse> send(ServiceInstance instance, ServerHttpRequest request, HttpHeaders headers,
+                                        int maxBodyBytes, Deadline deadline) {
+        if (deadline != null && deadline.isExpired()) {
+            return Mono.error(new TimeoutException("Deadline passed before calling " + instance.getUri()));
+        }
+        String deadlineHeader = deadlineProperties.getHeaderName();
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .path(request.getURI().getRawPath())
+                .query(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        return webClient.get()
+                .uri(uri)
+                .headers(upstream -> {
+                    upstream.addAll(headers);
+                    if (deadline != null) {
+                        upstream.set(deadlineHeader, deadline.toHeader());
+                    } else {
+                        upstream.remove(deadlineHeader);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    ResponseData data = new ResponseData(response, new RequestData(request));
+                    // Joined here rather than by a codec, whose limit is fixed per WebClient
+                    return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), maxBodyBytes)
+                            .map(HedgingGatewayFilterFactory::bytes)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> new UpstreamResponse(ResponseEntity.status(response.statusCode())
+                                    .headers(response.headers().asHttpHeaders())
+                                    .body(body), data));
+                });
+    }
+
+    /**
+     * The request headers after the gateway's {@link HttpHeadersFilter}s, without the ones that
+     * describe the incoming connection or trace; Host stays if the route preserves it.
+     */
+    private HttpHeaders upstreamHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+        boolean preserveHost = exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false);
+        HttpHeaders headers = new HttpHeaders();
+        filtered.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name) || (preserveHost && HttpHeaders.HOST.equalsIgnoreCase(name))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    private static byte[] bytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(Arrays.asList(names));
+        return set;
+    }
+
+    private static Mono<Void> write(ResponseEntity<byte[]> response, ServerWebExchange exchange) {
+        return new CachedResponse(response.getStatusCode(), response.getHeaders(),
+                response.getBody() != null ? response.getBody() : new byte[0], Instant.now())
+                .writeTo(exchange.getResponse());
+    }
+
+    /**
+     * The first error of the given type behind a failed attempt. When both hedged attempts failed
+     * it is one of several, wrapped by {@code Mono.firstWithValue}.
+     */
+    private static <T extends Throwable> Optional<T> cause(Throwable error, Class<T> type) {
+        return Stream.iterate(error, e -> e != null, Throwable::getCause)
+                .flatMap(e -> Stream.concat(Exceptions.unwrapMultiple(e).stream(), Arrays.stream(e.getSuppressed())))
+                .filter(type::isInstance)
+                .map(type::cast)
+                .findFirst();
+    }
+
+    /** 504 when an attempt timed out, 502 when a response body was too large; otherwise as is. */
+    private static Throwable responseStatus(Throwable error) {
+        Optional<TimeoutException> timeout = cause(error, TimeoutException.class);
+        if (timeout.isPresent()) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, timeout.get().getMessage(), error);
+        }
+        return cause(error, DataBufferLimitException.class)
+                .<Throwable>map(e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getMessage(), error))
+                .orElse(error);
+    }
+
+    private DefaultRequest<RequestDataContext> loadBalancerRequest(ServerHttpRequest request, String serviceId) {
+        Map<String, String> hints = clientFactory.getProperties(serviceId).getHint();
+        String hint = hints.getOrDefault(serviceId, hints.getOrDefault("default", "default"));
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(request), hint));
+    }
+
+    /**
+     * The route's {@code response-timeout} metadata (milliseconds, negative for none), otherwise
+     * {@code spring.cloud.gateway.httpclient.response-timeout}, as for regular routes.
+     */
+    private Duration responseTimeout(Route route) {
+        Object timeout = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+        if (timeout != null) {
+            long millis = timeout instanceof Number number ? number.longValue() : Long.parseLong(timeout.toString());
+            return millis < 0 ? null : Duration.ofMillis(millis);
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private record UpstreamResponse(ResponseEntity<byte[]> entity, ResponseData data) {
+    }
+
+    /**
+     * A 5xx answer, turned into an error so it doesn't win the hedge.
+     */
+    private static final class ServerErrorResponse extends RuntimeException {
+
+        private final transient ResponseEntity<byte[]> response;
+
+        private ServerErrorResponse(ResponseEntity<byte[]> response) {
+            super("Upstream answered " + response.getStatusCode(), null, false, false);
+            this.response = response;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+        private double budgetRatio = 0.1;
+        private int maxBurst = 10;
+        private int maxBodyBytes = 16 * 1024 * 1024;
+
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+        @Override
+        public String getRouteId() { return routeId; }
+
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+
+        public Duration getMinDelay() { return minDelay; }
+        public void setMinDelay(Duration minDelay) { this.minDelay = minDelay; }
+
+        public Duration getMaxDelay() { return maxDelay; }
+        public void setMaxDelay(Duration maxDelay) { this.maxDelay = maxDelay; }
+
+        public double getBudgetRatio() { return budgetRatio; }
+        public void setBudgetRatio(double budgetRatio) { this.budgetRatio = budgetRatio; }
+
+        public int getMaxBurst() { return maxBurst; }
+        public void setMaxBurst(int maxBurst) { this.maxBurst = maxBurst; }
+
+        public int getMaxBodyBytes() { return maxBodyBytes; }
+        public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+    }
+}
@@ -0,0 +1,36 @@
+package nngc.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code RequestRateLimiter} route filter, ordered ahead of the filters that run outside
+ * the response write ({@link RequestCoalescingGatewayFilterFactory#ORDER} and
+ * {@link StaleResponseGatewayFilterFactory#ORDER}). Every request is counted against its own
+ * key, including those that coalescing would otherwise answer from another client's call.
+ * Replaces Spring Cloud Gateway's own factory, which is switched off with
+ * {@code spring.cloud.gateway.filter.request-rate-limiter.enabled=false}.
+ */
+@Component
+public class OrderedRequestRateLimiterGatewayFilterFactory extends RequestRateLimiterGatewayFilterFactory {
+
+    public static final int ORDER = RequestCoalescingGatewayFilterFactory.ORDER - 1;
+
+    public OrderedRequestRateLimiterGatewayFilterFactory(RateLimiter<?> rateLimiter, KeyResolver keyResolver) {
+        super(rateLimiter, keyResolver);
+    }
+
+    @Override
+    public String name() {
+        return "RequestRateLimiter";
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter(super.apply(config), ORDER);
+    }
+}
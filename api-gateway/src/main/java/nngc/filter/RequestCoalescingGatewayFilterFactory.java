@@ -0,0 +1,160 @@
+package nngc.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import nngc.cache.CachedResponse;
+import nngc.cache.CapturingResponseDecorator;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code RequestCoalescing} route filter: identical concurrent GETs (same path, query and
+ * principal) share one upstream call. The first request goes downstream; requests arriving
+ * while it is in flight wait for it and receive a copy of its response. If the shared call
+ * fails, waiters fall back to their own upstream call. GETs with side effects (e.g. confirming
+ * a token) are listed in {@code excludedPaths} and always get their own call:
+ * <pre>
+ * filters[n].name=RequestCoalescing
+ * filters[n].args.excludedPaths=/auth/nngc/confirm
+ * </pre>
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    /**
+     * Outside the response write for the same reason as {@link StaleResponseGatewayFilterFactory#ORDER},
+     * and outside that filter too: the stale store has no use for copies replayed to waiters. Inside
+     * {@link OrderedRequestRateLimiterGatewayFilterFactory#ORDER}, so waiters are rate limited too.
+     */
+    public static final int ORDER = StaleResponseGatewayFilterFactory.ORDER - 1;
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteMetrics metrics = routeMetrics.computeIfAbsent(config.getRouteId(), RouteMetrics::new);
+        List<PathPattern> excludedPaths = config.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())
+                    || excludedPaths.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+            return exchange.getPrincipal()
+                    .map(Principal::getName)
+                    .defaultIfEmpty("anonymous")
+                    .flatMap(principal -> coalesce(key(config.getRouteId(), request, principal),
+                            exchange, chain, metrics));
+        }, ORDER);
+    }
+
+    private Mono<Void> coalesce(String key, ServerWebExchange exchange, GatewayFilterChain chain, RouteMetrics metrics) {
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.waiters.incrementAndGet();
+            metrics.waiters.increment();
+            return existing.result.asMono()
+                    .flatMap(response -> response.writeTo(exchange.getResponse()))
+                    .onErrorResume(e -> chain.filter(exchange));
+        }
+
+        metrics.leaders.increment();
+        CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(v -> flight.result.tryEmitValue(response.snapshot()))
+                .doOnError(flight.result::tryEmitError)
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.result.tryEmitError(new IllegalStateException("Coalesced request was cancelled"));
+                    metrics.waitersPerFlight.record(flight.waiters.get());
+                });
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, String principal) {
+        String query = request.getURI().getRawQuery();
+        return routeId + " " + request.getURI().getRawPath() + (query != null ? "?" + query : "") + " " + principal;
+    }
+
+    private static final class Flight {
+        private final Sinks.One<CachedResponse> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    private final class RouteMetrics {
+
+        private final Counter leaders;
+        private final Counter waiters;
+        private final DistributionSummary waitersPerFlight;
+
+        private RouteMetrics(String routeId) {
+            leaders = Counter.builder("gateway.coalescing.requests")
+                    .description("GET requests seen by the coalescing filter")
+                    .tag("route", routeId)
+                    .tag("role", "leader")
+                    .register(meterRegistry);
+            waiters = Counter.builder("gateway.coalescing.requests")
+                    .description("GET requests seen by the coalescing filter")
+                    .tag("route", routeId)
+                    .tag("role", "waiter")
+                    .register(meterRegistry);
+            waitersPerFlight = DistributionSummary.builder("gateway.coalescing.waiters")
+                    .description("Requests that joined a single upstream call")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.coalescing.collapse.ratio", this, RouteMetrics::collapseRatio)
+                    .description("Share of GET requests served from another request's upstream call")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private double collapseRatio() {
+            double total = leaders.count() + waiters.count();
+            return total == 0 ? 0 : waiters.count() / total;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private List<String> excludedPaths = new ArrayList<>();
+
+        public List<String> getExcludedPaths() { return excludedPaths; }
+        public void setExcludedPaths(List<String> excludedPaths) { this.excludedPaths = excludedPaths; }
+
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+        @Override
+        public String getRouteId() { return routeId; }
+    }
+}
@@ -0,0 +1,101 @@
+package nngc.filter;
+
+import nngc.cache.CachedResponse;
+import nngc.cache.CapturingResponseDecorator;
+import nngc.cache.StaleResponseStore;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * {@code StaleResponse} route filter: remembers the last successful GET response per path,
+ * query and principal so {@code FallbackController} can serve it when the circuit breaker
+ * is open or the call times out. Runs ahead of the route's other filters but
+ * {@code RequestRateLimiter} and {@code RequestCoalescing} (so also ahead of
+ * {@code CircuitBreaker}) wherever it is listed.
+ */
+@Component
+public class StaleResponseGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<StaleResponseGatewayFilterFactory.Config> {
+
+    /**
+     * Exchange attribute holding the stale store key of the current request.
+     */
+    public static final String STALE_KEY_ATTR = StaleResponseGatewayFilterFactory.class.getName() + ".key";
+
+    /**
+     * Set by the fallback when it answered from the store, so the stale copy isn't stored again.
+     */
+    public static final String STALE_SERVED_ATTR = StaleResponseGatewayFilterFactory.class.getName() + ".served";
+
+    /**
+     * Runs outside {@link NettyWriteResponseFilter}, so the upstream body is written through (and
+     * captured by) the decorated response rather than straight to the client.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final StaleResponseStore store;
+
+    public StaleResponseGatewayFilterFactory(StaleResponseStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            return exchange.getPrincipal()
+                    .map(Principal::getName)
+                    .defaultIfEmpty("anonymous")
+                    .flatMap(principal -> {
+                        String key = key(config.getRouteId(), exchange.getRequest(), principal);
+                        exchange.getAttributes().put(STALE_KEY_ATTR, key);
+                        CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse());
+                        return chain.filter(exchange.mutate().response(response).build())
+                                .doOnSuccess(v -> {
+                                    if (response.getStatusCode() == null
+                                            || !response.getStatusCode().is2xxSuccessful()
+                                            || exchange.getAttributes().containsKey(STALE_SERVED_ATTR)) {
+                                        return;
+                                    }
+                                    // The upstream's headers, not the no-store that gateway security adds on commit
+                                    CachedResponse snapshot = response.snapshot();
+                                    if (!isNoStore(snapshot.headers())) {
+                                        store.put(key, snapshot);
+                                    }
+                                });
+                    });
+        }, ORDER);
+    }
+
+    private static boolean isNoStore(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-store");
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, String principal) {
+        String query = request.getURI().getRawQuery();
+        return routeId + " " + request.getURI().getRawPath() + (query != null ? "?" + query : "") + " " + principal;
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        @Override
+        public void setRouteId(String routeId) { this.routeId = routeId; }
+        @Override
+        public String getRouteId() { return routeId; }
+    }
+}
@@ -0,0 +1,63 @@
+package nngc.hedge;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Works out how long to wait for the primary attempt before hedging: the configured percentile
+ * of recent primary latencies, clamped to {@code [minDelay, maxDelay]}. Until enough samples
+ * have been seen {@code maxDelay} is used.
+ */
+public class HedgeDelayPolicy {
+
+    private static final long MIN_SAMPLES = 20;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Timer latencies;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private volatile long delayNanos;
+    private volatile long refreshedAt;
+
+    public HedgeDelayPolicy(double percentile, Duration minDelay, Duration maxDelay) {
+        // Private registry: this timer only feeds the delay, it is not exported
+        this.latencies = Timer.builder("hedge.primary.latency")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(new SimpleMeterRegistry());
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.delayNanos = maxDelayNanos;
+        this.refreshedAt = System.nanoTime();
+    }
+
+    public void record(long latencyNanos) {
+        latencies.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Duration currentDelay() {
+        long now = System.nanoTime();
+        if (now - refreshedAt > REFRESH_NANOS) {
+            refreshedAt = now;
+            delayNanos = computeDelay();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private long computeDelay() {
+        if (latencies.count() < MIN_SAMPLES) {
+            return maxDelayNanos;
+        }
+        ValueAtPercentile[] values = latencies.takeSnapshot().percentileValues();
+        if (values.length == 0) {
+            return maxDelayNanos;
+        }
+        long percentileNanos = (long) values[0].value(TimeUnit.NANOSECONDS);
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, percentileNanos));
+    }
+}
@@ -0,0 +1,63 @@
+package nngc.hedge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a primary attempt and, if it hasn't produced a value after the current hedge delay
+ * (or failed before that), a backup attempt. Whichever emits first wins and the other one is
+ * cancelled. Backups are only sent while the {@link HedgeBudget} allows it.
+ */
+public class Hedger {
+
+    private final HedgeDelayPolicy delayPolicy;
+    private final HedgeBudget budget;
+    private final Counter hedged;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    public Hedger(HedgeDelayPolicy delayPolicy, HedgeBudget budget, MeterRegistry meterRegistry, String name) {
+        this.delayPolicy = delayPolicy;
+        this.budget = budget;
+        this.hedged = counter(meterRegistry, name, "hedged");
+        this.hedgeWins = counter(meterRegistry, name, "hedge_won");
+        this.budgetExhausted = counter(meterRegistry, name, "budget_exhausted");
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> primary, Supplier<Mono<T>> backup) {
+        return Mono.defer(() -> {
+            budget.onRequest();
+            long start = System.nanoTime();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<T> first = primary.get()
+                    .doOnSuccess(value -> delayPolicy.record(System.nanoTime() - start))
+                    .doOnError(e -> primaryFailed.tryEmitEmpty())
+                    // A cancelled primary was at least this slow
+                    .doOnCancel(() -> delayPolicy.record(System.nanoTime() - start));
+
+            Mono<T> second = Mono.firstWithSignal(Mono.delay(delayPolicy.currentDelay()).then(), primaryFailed.asMono())
+                    .then(Mono.defer(() -> {
+                        if (!budget.tryAcquire()) {
+                            budgetExhausted.increment();
+                            return Mono.<T>empty();
+                        }
+                        hedged.increment();
+                        return backup.get().doOnSuccess(value -> hedgeWins.increment());
+                    }));
+
+            return Mono.firstWithValue(first, second);
+        });
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("gateway.hedge.requests")
+                .description("Hedged request outcomes")
+                .tag("route", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
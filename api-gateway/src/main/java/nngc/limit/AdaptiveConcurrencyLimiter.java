@@ -0,0 +1,58 @@
+package nngc.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-flight request limiter for a single route. Requests over the current
+ * {@link GradientLimit} are rejected immediately instead of queueing.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit.getLimit()) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()}.
+     *
+     * @param rttNanos time the request spent downstream, or a negative value to release
+     *                 without feeding the limit (e.g. the client cancelled)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        if (rttNanos >= 0) {
+            limit.onSample(rttNanos, current, dropped);
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public GradientLimit getGradientLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,65 @@
+package nngc.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Holds one {@link AdaptiveConcurrencyLimiter} per route and publishes its state as
+ * {@code gateway.concurrency.*} meters. A route refresh that changes the route's limit settings
+ * gets a fresh limiter; one that leaves them alone keeps the limiter and what it has learned.
+ */
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<String, Registered> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimiterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AdaptiveConcurrencyLimiter limiterFor(String routeId, GradientLimit.Settings settings) {
+        return limiters.compute(routeId, (id, current) -> {
+            if (current != null) {
+                if (current.settings().equals(settings)) {
+                    return current;
+                }
+                // The gauges hold on to the old limiter; re-registering them would just return those
+                current.meters().forEach(meterRegistry::remove);
+            }
+            return register(id, settings);
+        }).limiter();
+    }
+
+    public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        return limiters.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().limiter()));
+    }
+
+    private Registered register(String routeId, GradientLimit.Settings settings) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings.newLimit());
+        List<Meter> meters = List.of(
+                Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .description("Current adaptive concurrency limit")
+                        .tag("route", routeId)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                        .description("Requests currently in flight")
+                        .tag("route", routeId)
+                        .register(meterRegistry),
+                FunctionCounter.builder("gateway.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                        .description("Requests shed because the concurrency limit was reached")
+                        .tag("route", routeId)
+                        .register(meterRegistry));
+        return new Registered(settings, limiter, meters);
+    }
+
+    private record Registered(GradientLimit.Settings settings, AdaptiveConcurrencyLimiter limiter, List<Meter> meters) {
+    }
+}
@@ -0,0 +1,41 @@
+package nngc.limit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/concurrencylimits}: current adaptive limit per route.
+ */
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitsEndpoint(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> limits() {
+        Map<String, Map<String, Object>> routes = new TreeMap<>();
+        registry.getLimiters().forEach((routeId, limiter) -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("limit", limiter.getLimit());
+            state.put("inFlight", limiter.getInFlight());
+            state.put("rejected", limiter.getRejected());
+            state.put("shortRttMs", toMillis(limiter.getGradientLimit().getShortRttNanos()));
+            state.put("longRttMs", toMillis(limiter.getGradientLimit().getLongRttNanos()));
+            routes.put(routeId, state);
+        });
+        return routes;
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+    }
+}
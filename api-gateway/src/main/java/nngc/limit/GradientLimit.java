@@ -0,0 +1,96 @@
+package nngc.limit;
+
+/**
+ * Concurrency limit that follows the gradient between a long-term (baseline) and a short-term
+ * RTT average, in the spirit of Netflix concurrency-limits' Gradient2:
+ * <pre>
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ * newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * While latency stays near the baseline the limit grows by roughly {@code sqrt(limit)} per
+ * sample; as latency rises the gradient drops below 1 and the limit shrinks. A dropped request
+ * (error, timeout) applies a multiplicative decrease. Samples without a positive RTT carry no
+ * latency information and are ignored; a zero short-term RTT would make the gradient NaN.
+ */
+public class GradientLimit {
+
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1);
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public synchronized double getLongRttNanos() {
+        return longRtt;
+    }
+
+    public synchronized double getShortRttNanos() {
+        return shortRtt;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = clamp(estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * SHORT_RTT_WEIGHT;
+            longRtt += (rttNanos - longRtt) * LONG_RTT_WEIGHT;
+        }
+
+        // Let the baseline recover quickly once a latency spike is over
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Don't grow the limit while it isn't being used
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /** What a route configures; a limit is rebuilt when these change. */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+
+        GradientLimit newLimit() {
+            return new GradientLimit(initialLimit, minLimit, maxLimit, rttTolerance);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package nngc.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import nngc.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} backed by
+ * {@link TokenBucketStore}, so the gateway can throttle without Redis. Limits are per gateway
+ * instance. Per-route limits are set through the RequestRateLimiter filter arguments:
+ * <pre>
+ * filters[n].args.in-memory-rate-limiter.replenish-rate=5
+ * filters[n].args.in-memory-rate-limiter.burst-capacity=10
+ * </pre>
+ */
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> implements DisposableBean {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimiter.class);
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final TokenBucketStore store;
+    private final Config defaultConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Disposable sweeper;
+    private long reportedOverflows;
+
+    public InMemoryRateLimiter(RateLimitProperties properties, ConfigurationService configurationService,
+                               MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = new TokenBucketStore(properties.getStripes(), properties.getMaxKeys());
+        this.defaultConfig = new Config()
+                .setReplenishRate(properties.getReplenishRate())
+                .setBurstCapacity(properties.getBurstCapacity());
+        this.meterRegistry = meterRegistry;
+
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        long sweepMillis = properties.getSweepInterval().toMillis();
+        this.sweeper = Schedulers.parallel().schedulePeriodically(
+                () -> sweep(idleNanos), sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("gateway.ratelimit.keys", store, TokenBucketStore::size)
+                .description("Client keys currently tracked by the in-memory rate limiter")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.ratelimit.overflow", store, TokenBucketStore::overflowCount)
+                .description("Requests admitted untracked because the rate limiter store was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate();
+
+        TokenBucketStore.Decision decision = store.tryAcquire(routeId + ":" + id, System.nanoTime(),
+                emissionIntervalNanos, config.getBurstCapacity(), config.getRequestedTokens());
+
+        counter(routeId, decision.allowed()).increment();
+        return Mono.just(new Response(decision.allowed(), headers(config, decision)));
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.dispose();
+    }
+
+    /**
+     * Drops idle buckets, then warns (once per sweep, not per request) if new clients went
+     * unlimited since the last one because the store was full.
+     */
+    private void sweep(long idleNanos) {
+        store.evictIdle(System.nanoTime(), idleNanos);
+        long overflows = store.overflowCount();
+        if (overflows > reportedOverflows) {
+            logger.warn("Rate limiter store full: {} requests from untracked clients were not limited since the last sweep; "
+                    + "raise nngc.gateway.rate-limit.max-keys if this is not a flood of distinct keys",
+                    overflows - reportedOverflows);
+            reportedOverflows = overflows;
+        }
+    }
+
+    private Map<String, String> headers(Config config, TokenBucketStore.Decision decision) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(decision.remainingTokens()));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        if (!decision.allowed()) {
+            // Whole seconds, rounded up
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(seconds));
+        }
+        return headers;
+    }
+
+    private Counter counter(String routeId, boolean allowed) {
+        String outcome = allowed ? "allowed" : "throttled";
+        return counters.computeIfAbsent(routeId + "|" + outcome, key -> Counter.builder("gateway.ratelimit.requests")
+                .description("Requests checked by the in-memory rate limiter")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate = 1;
+        @Min(1)
+        private int burstCapacity = 1;
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() { return replenishRate; }
+        public Config setReplenishRate(int replenishRate) { this.replenishRate = replenishRate; return this; }
+
+        public int getBurstCapacity() { return burstCapacity; }
+        public Config setBurstCapacity(int burstCapacity) { this.burstCapacity = burstCapacity; return this; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public Config setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; return this; }
+    }
+}
@@ -0,0 +1,109 @@
+package nngc.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token buckets kept in memory, one {@link AtomicLong} per key.
+ * <p>
+ * Each bucket is stored as a GCRA "theoretical arrival time" (TAT): the instant at which the
+ * bucket would be full again. Acquiring tokens is a single CAS on that value, so there is no
+ * refill bookkeeping and no locking. Keys are spread over independent stripes that are each
+ * bounded in size; a bucket whose TAT is in the past is indistinguishable from a new one and
+ * can be dropped at any time.
+ * <p>
+ * A key that arrives when its stripe is full and has no replenished bucket to evict is admitted
+ * without limiting (fail open) and counted in {@link #overflowCount()}. A caller that fills the
+ * store with distinct keys therefore disables limiting for new keys until the idle sweep frees
+ * room; size {@code maxKeys} well above the expected number of clients and alert on the count.
+ */
+public class TokenBucketStore {
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int mask;
+    private final int maxKeysPerStripe;
+    private final LongAdder overflows = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketStore(int stripeCount, int maxKeys) {
+        // Power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / size);
+    }
+
+    /**
+     * Tries to take {@code tokens} from the bucket for {@code key}.
+     *
+     * @param emissionIntervalNanos time to replenish one token
+     * @param capacity              bucket size (maximum burst)
+     */
+    public Decision tryAcquire(String key, long nowNanos, long emissionIntervalNanos, int capacity, int tokens) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripeFor(key);
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                evictReplenished(stripe, nowNanos);
+                if (stripe.size() >= maxKeysPerStripe) {
+                    // Fail open rather than throttle callers we cannot track
+                    overflows.increment();
+                    return new Decision(true, capacity - tokens, 0);
+                }
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        long burstTolerance = emissionIntervalNanos * capacity;
+        long increment = emissionIntervalNanos * tokens;
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, nowNanos) + increment;
+            long allowAt = newTat - burstTolerance;
+            if (allowAt - nowNanos > 0) {
+                long remaining = Math.max(0, (burstTolerance - (Math.max(tat, nowNanos) - nowNanos)) / emissionIntervalNanos);
+                return new Decision(false, remaining, allowAt - nowNanos);
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return new Decision(true, (burstTolerance - (newTat - nowNanos)) / emissionIntervalNanos, 0);
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have been full for longer than {@code idleNanos}.
+     */
+    public void evictIdle(long nowNanos, long idleNanos) {
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> nowNanos - bucket.get() > idleNanos);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long overflowCount() {
+        return overflows.sum();
+    }
+
+    private static void evictReplenished(ConcurrentHashMap<String, AtomicLong> stripe, long nowNanos) {
+        stripe.values().removeIf(bucket -> nowNanos - bucket.get() >= 0);
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    public record Decision(boolean allowed, long remainingTokens, long retryAfterNanos) {
+    }
+}
@@ -1,19 +1,49 @@
 package org.nngc.apigateway.controller;
 
+import nngc.cache.CachedResponse;
+import nngc.cache.StaleResponseStore;
+import nngc.filter.StaleResponseGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
 @RestController
 public class FallbackController {
 
-    @GetMapping("/fallback")
-    public Mono<ResponseEntity<Map<String, Object>>> fallback() {
+    private final StaleResponseStore staleResponseStore;
+
+    public FallbackController(StaleResponseStore staleResponseStore) {
+        this.staleResponseStore = staleResponseStore;
+    }
+
+    @RequestMapping("/fallback")
+    public Mono<ResponseEntity<Map<String, Object>>> fallback(ServerWebExchange exchange) {
+        // Serve the last good response for cacheable routes (StaleResponse filter) if we have one
+        String key = exchange.getAttribute(StaleResponseGatewayFilterFactory.STALE_KEY_ATTR);
+        if (key != null) {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            CachedResponse stale = staleResponseStore.getStale(route != null ? route.getId() : "unknown", key);
+            if (stale != null) {
+                exchange.getAttributes().put(StaleResponseGatewayFilterFactory.STALE_SERVED_ATTR, true);
+                HttpHeaders headers = new HttpHeaders();
+                headers.set("Warning", "110 api-gateway \"Response is Stale\"");
+                headers.set(HttpHeaders.AGE, String.valueOf(Duration.between(stale.capturedAt(), Instant.now()).toSeconds()));
+                return stale.writeTo(exchange.getResponse(), headers).then(Mono.empty());
+            }
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("status", "error");
         response.put("message", "Service temporarily unavailable. Please try again later.");
@@ -22,4 +52,4 @@ public class FallbackController {
         
         return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
     }
-}
\ No newline at end of file
+}
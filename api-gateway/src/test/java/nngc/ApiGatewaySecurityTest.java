@@ -1,9 +1,11 @@
 package nngc;
 
 import org.junit.jupiter.api.Test;
+import org.nngc.common.profiling.JfrEndpoint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -29,7 +31,7 @@ class ApiGatewaySecurityTest {
             .post()
             .uri("/auth/nngc/registration")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
     @Test
@@ -38,7 +40,7 @@ class ApiGatewaySecurityTest {
             .get()
             .uri("/auth/nngc/confirm?token=test")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
     @Test
@@ -47,7 +49,7 @@ class ApiGatewaySecurityTest {
             .get()
             .uri("/auth/nngc/token_status?token=test")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
     @Test
@@ -56,7 +58,7 @@ class ApiGatewaySecurityTest {
             .get()
             .uri("/auth/nngc/health")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
     @Test
@@ -88,7 +90,7 @@ class ApiGatewaySecurityTest {
             .get()
             .uri("/auth/nngc/resend-token/test@example.com")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
     @Test
@@ -99,7 +101,7 @@ class ApiGatewaySecurityTest {
             .get()
             .uri("/api/customers/1")
             .exchange()
-            .expectStatus().isNotFound(); // Route not found when services are down
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE); // Gateway fallback when services are down
     }
 
 
@@ -111,4 +113,26 @@ class ApiGatewaySecurityTest {
             .exchange()
             .expectStatus().isOk();
     }
+
+    @Test
+    void shouldRejectFlightRecordingsWithoutOperatorScope() {
+        webTestClient
+            .mutateWith(SecurityMockServerConfigurers.mockJwt()
+                .authorities(Collections.singletonList(() -> "SCOPE_openid")))
+            .get()
+            .uri("/actuator/jfr")
+            .exchange()
+            .expectStatus().isForbidden();
+    }
+
+    @Test
+    void shouldAllowFlightRecordingsWithOperatorScope() {
+        webTestClient
+            .mutateWith(SecurityMockServerConfigurers.mockJwt()
+                .authorities(Collections.singletonList(() -> JfrEndpoint.OPERATOR_AUTHORITY)))
+            .get()
+            .uri("/actuator/jfr")
+            .exchange()
+            .expectStatus().isOk();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package nngc.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StaleResponseStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleResponseStore store = new StaleResponseStore(2, 16, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    void shouldServeStoredResponseAndCountOutcomes() {
+        CachedResponse response = response("{\"id\":1}", Instant.now());
+        store.put("a", response);
+
+        assertSame(response, store.getStale("customer-service", "a"));
+        assertNull(store.getStale("customer-service", "b"));
+        assertEquals(1, count("served"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void shouldNotServeResponsesOlderThanMaxAge() {
+        store.put("a", response("{}", Instant.now().minus(Duration.ofMinutes(2))));
+
+        assertNull(store.getStale("customer-service", "a"));
+    }
+
+    @Test
+    void shouldSkipLargeBodies() {
+        store.put("a", response("x".repeat(17), Instant.now()));
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        store.put("a", response("a", Instant.now()));
+        store.put("b", response("b", Instant.now()));
+        store.getStale("customer-service", "a");
+        store.put("c", response("c", Instant.now()));
+
+        assertEquals(2, store.size());
+        assertNotNull(store.getStale("customer-service", "a"));
+        assertNull(store.getStale("customer-service", "b"));
+        assertEquals(2.0, meterRegistry.get("gateway.stale.entries").gauge().value());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("gateway.stale.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static CachedResponse response(String body, Instant capturedAt) {
+        return new CachedResponse(HttpStatus.OK, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8), capturedAt);
+    }
+}
@@ -0,0 +1,247 @@
+package nngc.filter;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway with {@code lb://} routes to two stub instances, one of which always answers
+ * 500; the load balancer alternates between them for the primary attempt.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.discovery.locator.enabled=false",
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.oauth2.client.reactive.ReactiveOAuth2ClientAutoConfiguration",
+        "management.tracing.enabled=false"
+})
+class HedgingGatewayFilterFactoryTest {
+
+    private static final int REQUESTS = 6;
+    private static final String LARGE_BODY = "x".repeat(1024 * 1024);
+
+    private static final AtomicInteger healthyCalls = new AtomicInteger();
+    private static final AtomicInteger brokenCalls = new AtomicInteger();
+    private static final AtomicReference<HttpHeaders> healthyHeaders = new AtomicReference<>();
+    private static final DisposableServer healthy = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                healthyCalls.incrementAndGet();
+                healthyHeaders.set(request.requestHeaders().copy());
+                String body = request.uri().endsWith("/large") ? LARGE_BODY : "healthy";
+                return response.sendString(Mono.delay(Duration.ofMillis(20)).thenReturn(body));
+            })
+            .bindNow();
+    private static final DisposableServer broken = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                brokenCalls.incrementAndGet();
+                return response.status(500).sendString(Mono.just("broken"));
+            })
+            .bindNow();
+    private static final List<DisposableServer> slow = List.of(slowServer(), slowServer());
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RecordingLifecycle lifecycle;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.stub-service[0].uri",
+                () -> "http://127.0.0.1:" + healthy.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.stub-service[1].uri",
+                () -> "http://127.0.0.1:" + broken.port());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "hedged");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://stub-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/auth/nngc/token_status,/auth/nngc/large");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "Hedging");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "hedged-without-budget");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "lb://stub-service");
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/auth/nngc/health");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].name", () -> "Hedging");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].args.budgetRatio", () -> "0");
+        registry.add("spring.cloud.gateway.routes[1].filters[0].args.maxBurst", () -> "0");
+        for (int i = 0; i < slow.size(); i++) {
+            int slowPort = slow.get(i).port();
+            registry.add("spring.cloud.discovery.client.simple.instances.slow-service[" + i + "].uri",
+                    () -> "http://127.0.0.1:" + slowPort);
+        }
+        registry.add("spring.cloud.gateway.routes[2].id", () -> "hedged-slow");
+        registry.add("spring.cloud.gateway.routes[2].uri", () -> "lb://slow-service");
+        registry.add("spring.cloud.gateway.routes[2].predicates[0]", () -> "Path=/slow/hedged");
+        registry.add("spring.cloud.gateway.routes[2].metadata.response-timeout", () -> "300");
+        registry.add("spring.cloud.gateway.routes[2].filters[0].name", () -> "Hedging");
+        registry.add("spring.cloud.gateway.routes[3].id", () -> "slow-without-budget");
+        registry.add("spring.cloud.gateway.routes[3].uri", () -> "lb://slow-service");
+        registry.add("spring.cloud.gateway.routes[3].predicates[0]", () -> "Path=/slow/unhedged");
+        registry.add("spring.cloud.gateway.routes[3].metadata.response-timeout", () -> "300");
+        registry.add("spring.cloud.gateway.routes[3].filters[0].name", () -> "Hedging");
+        registry.add("spring.cloud.gateway.routes[3].filters[0].args.budgetRatio", () -> "0");
+        registry.add("spring.cloud.gateway.routes[3].filters[0].args.maxBurst", () -> "0");
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        healthy.disposeNow();
+        broken.disposeNow();
+        slow.forEach(DisposableServer::disposeNow);
+    }
+
+    private static DisposableServer slowServer() {
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.sendString(Mono.delay(Duration.ofSeconds(5)).thenReturn("late")))
+                .bindNow();
+    }
+
+    @BeforeEach
+    void reset() {
+        healthyCalls.set(0);
+        brokenCalls.set(0);
+        lifecycle.started.set(0);
+        lifecycle.completions.clear();
+    }
+
+    @Test
+    void serverErrorsDontWinAndEveryAttemptIsReported() {
+        List<ResponseEntity<String>> responses = get("/auth/nngc/token_status");
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.getBody()).isEqualTo("healthy"));
+        // Each request reached the healthy instance once: no second trip through the routing filters
+        assertThat(healthyCalls).hasValue(REQUESTS);
+        assertThat(brokenCalls.get()).isPositive();
+        assertThat(lifecycle.started).hasValue(REQUESTS + brokenCalls.get());
+        assertThat(lifecycle.completions).hasSize(REQUESTS + brokenCalls.get());
+        assertThat(lifecycle.completions).filteredOn(RecordingLifecycle::isServerError).hasSize(brokenCalls.get());
+    }
+
+    @Test
+    void requestHeadersGoThroughTheGatewaysHeaderFilters() {
+        WebClient.create("http://127.0.0.1:" + port).get()
+                .uri("/auth/nngc/token_status")
+                .header("proxy-authorization", "Basic dropped")
+                .header("x-kept", "kept")
+                .retrieve()
+                .toBodilessEntity()
+                .block(Duration.ofSeconds(10));
+
+        HttpHeaders headers = healthyHeaders.get();
+        assertThat(headers.get("x-kept")).isEqualTo("kept");
+        // Removed by the gateway's RemoveHopByHopHeadersFilter, not by the hedging filter itself
+        assertThat(headers.contains("proxy-authorization")).isFalse();
+        assertThat(headers.get("host")).isEqualTo("127.0.0.1:" + healthy.port());
+        assertThat(headers.contains("x-forwarded-for")).isTrue();
+    }
+
+    @Test
+    void bodiesLargerThanTheDefaultCodecLimitArePassedOn() {
+        List<ResponseEntity<String>> responses = get("/auth/nngc/large");
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.getBody()).hasSize(LARGE_BODY.length()));
+    }
+
+    @Test
+    void serverErrorIsPassedOnWhenNoHedgeIsAllowed() {
+        List<ResponseEntity<String>> responses = get("/auth/nngc/health");
+
+        assertThat(brokenCalls.get()).isPositive();
+        assertThat(responses).filteredOn(response -> response.getStatusCode().is5xxServerError())
+                .hasSize(brokenCalls.get())
+                .allSatisfy(response -> assertThat(response.getBody()).isEqualTo("broken"));
+    }
+
+    @Test
+    void bothAttemptsTimingOutIsAGatewayTimeout() {
+        List<ResponseEntity<String>> responses = get("/slow/hedged");
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+    }
+
+    @Test
+    void primaryTimingOutWithoutHedgeBudgetIsAGatewayTimeout() {
+        List<ResponseEntity<String>> responses = get("/slow/unhedged");
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+    }
+
+    private List<ResponseEntity<String>> get(String uri) {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+        List<ResponseEntity<String>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.get().uri(uri)
+                    .exchangeToMono(response -> response.toEntity(String.class))
+                    .block(Duration.ofSeconds(10)));
+        }
+        return responses;
+    }
+
+    @TestConfiguration
+    static class LifecycleConfiguration {
+
+        @Bean
+        RecordingLifecycle recordingLifecycle() {
+            return new RecordingLifecycle();
+        }
+    }
+
+    static class RecordingLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+        private final AtomicInteger started = new AtomicInteger();
+        private final List<CompletionContext<Object, ServiceInstance, Object>> completions = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onStart(Request<Object> request) {
+        }
+
+        @Override
+        public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+            started.incrementAndGet();
+        }
+
+        @Override
+        public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+            completions.add(completionContext);
+        }
+
+        private static boolean isServerError(CompletionContext<Object, ServiceInstance, Object> completion) {
+            return completion.getClientResponse() instanceof ResponseData response
+                    && response.getHttpStatus().is5xxServerError();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package nngc.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway with a single proxied route to a stub backend that answers slowly enough for
+ * concurrent requests to pile up behind the first one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.discovery.locator.enabled=false",
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.oauth2.client.reactive.ReactiveOAuth2ClientAutoConfiguration",
+        "management.tracing.enabled=false"
+})
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private static final Duration BACKEND_DELAY = Duration.ofMillis(500);
+    private static final int CONCURRENCY = 5;
+
+    private static final Map<String, AtomicInteger> backendCalls = new ConcurrentHashMap<>();
+    private static final DisposableServer backend = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                String path = request.uri().substring(0, request.uri().indexOf('?'));
+                int call = backendCalls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                return response.header("Content-Type", "application/json")
+                        .sendString(Mono.delay(BACKEND_DELAY).thenReturn("{\"call\":" + call + "}"));
+            })
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void route(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "registration-public");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://127.0.0.1:" + backend.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/auth/nngc/confirm,/auth/nngc/token_status");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "RequestRateLimiter");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].name", () -> "RequestCoalescing");
+        registry.add("spring.cloud.gateway.routes[0].filters[1].args.excludedPaths", () -> "/auth/nngc/confirm");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void waitersGetTheLeadersResponse() {
+        List<ResponseEntity<String>> responses = concurrentGets("/auth/nngc/token_status?token=abc");
+
+        assertThat(backendCalls.get("/auth/nngc/token_status")).hasValue(1);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat(response.getBody()).isEqualTo("{\"call\":1}");
+        });
+        // Every request went through the rate limiter and got its own remaining count, not the leader's
+        assertThat(responses).allSatisfy(response ->
+                assertThat(response.getHeaders().containsKey("X-RateLimit-Remaining")).isTrue());
+        assertThat(responses).extracting(response -> response.getHeaders().getFirst("X-RateLimit-Remaining"))
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void excludedPathsAreNotCoalesced() {
+        List<ResponseEntity<String>> responses = concurrentGets("/auth/nngc/confirm?token=abc");
+
+        assertThat(backendCalls.get("/auth/nngc/confirm")).hasValue(CONCURRENCY);
+        assertThat(responses).extracting(ResponseEntity::getBody).doesNotHaveDuplicates();
+    }
+
+    private List<ResponseEntity<String>> concurrentGets(String uri) {
+        WebClient client = WebClient.create("http://127.0.0.1:" + port);
+        return Flux.range(0, CONCURRENCY)
+                .flatMap(i -> client.get().uri(uri).retrieve().toEntity(String.class), CONCURRENCY)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,112 @@
+package nngc.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway with a {@code StaleResponse} + {@code CircuitBreaker} route to a stub backend
+ * that can be switched to dropping connections.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.gateway.discovery.locator.enabled=false",
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.oauth2.client.reactive.ReactiveOAuth2ClientAutoConfiguration",
+        "management.tracing.enabled=false"
+})
+class StaleResponseGatewayFilterFactoryTest {
+
+    private static final AtomicBoolean down = new AtomicBoolean();
+    private static final AtomicInteger version = new AtomicInteger();
+    private static final DisposableServer backend = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> {
+                if (down.get()) {
+                    return response.withConnection(Connection::dispose).then();
+                }
+                if (request.uri().contains("private")) {
+                    response.header(HttpHeaders.CACHE_CONTROL, "no-store");
+                }
+                return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just("{\"version\":" + version.incrementAndGet() + "}"));
+            })
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void route(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "stale");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://127.0.0.1:" + backend.port());
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/auth/nngc/token_status");
+        // Listed after the circuit breaker on purpose: the filter's own order puts it in front
+        registry.add("spring.cloud.gateway.routes[0].filters[0].name", () -> "CircuitBreaker");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.name", () -> "stale-test");
+        registry.add("spring.cloud.gateway.routes[0].filters[0].args.fallbackUri", () -> "forward:/fallback");
+        registry.add("spring.cloud.gateway.routes[0].filters[1]", () -> "StaleResponse");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @BeforeEach
+    void up() {
+        down.set(false);
+    }
+
+    @Test
+    void servesPreviousBodyWhenUpstreamFails() {
+        ResponseEntity<String> fresh = get("/auth/nngc/token_status?token=served");
+        down.set(true);
+        ResponseEntity<String> stale = get("/auth/nngc/token_status?token=served");
+
+        assertThat(fresh.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getBody()).isEqualTo(fresh.getBody());
+        assertThat(stale.getHeaders().getFirst("Warning")).contains("Response is Stale");
+        assertThat(stale.getHeaders().getFirst(HttpHeaders.AGE)).isNotNull();
+    }
+
+    @Test
+    void answersUnavailableWithoutPreviousResponse() {
+        down.set(true);
+
+        assertThat(get("/auth/nngc/token_status?token=unseen").getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void doesNotKeepNoStoreResponses() {
+        assertThat(get("/auth/nngc/token_status?token=private").getStatusCode()).isEqualTo(HttpStatus.OK);
+        down.set(true);
+
+        assertThat(get("/auth/nngc/token_status?token=private").getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private ResponseEntity<String> get(String uri) {
+        return WebClient.create("http://127.0.0.1:" + port).get().uri(uri)
+                .exchangeToMono(response -> response.toEntity(String.class))
+                .block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,32 @@
+package nngc.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConcurrencyLimiterRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimiterRegistry registry = new ConcurrencyLimiterRegistry(meterRegistry);
+
+    @Test
+    void shouldKeepTheLimiterWhileTheSettingsStayTheSame() {
+        AdaptiveConcurrencyLimiter first = registry.limiterFor("customer-service", new GradientLimit.Settings(20, 5, 200, 1.5));
+
+        assertSame(first, registry.limiterFor("customer-service", new GradientLimit.Settings(20, 5, 200, 1.5)));
+    }
+
+    @Test
+    void shouldReplaceTheLimiterAndItsMetersWhenTheSettingsChange() {
+        AdaptiveConcurrencyLimiter first = registry.limiterFor("customer-service", new GradientLimit.Settings(20, 5, 200, 1.5));
+
+        AdaptiveConcurrencyLimiter second = registry.limiterFor("customer-service", new GradientLimit.Settings(50, 5, 200, 1.5));
+
+        assertNotSame(first, second);
+        assertSame(second, registry.getLimiters().get("customer-service"));
+        assertEquals(50.0, meterRegistry.get("gateway.concurrency.limit").tag("route", "customer-service").gauge().value());
+    }
+}
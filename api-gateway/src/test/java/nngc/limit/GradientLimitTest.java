@@ -0,0 +1,68 @@
+package nngc.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long TEN_MS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void shouldGrowWhileLatencyIsStableAndShrinkWhenItRises() {
+        GradientLimit limit = new GradientLimit(20, 5, 200, 1.5);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(TEN_MS, limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 20);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(TEN_MS * 10, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < grown);
+    }
+
+    @Test
+    void shouldNotGrowWhenLimitIsUnused() {
+        GradientLimit limit = new GradientLimit(20, 5, 200, 1.5);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(TEN_MS, 1, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void shouldIgnoreSamplesWithoutAPositiveRtt() {
+        GradientLimit limit = new GradientLimit(20, 5, 200, 1.5);
+        limit.onSample(TEN_MS, 20, false);
+
+        limit.onSample(0, 20, false);
+        limit.onSample(-1, 20, false);
+
+        assertEquals(TEN_MS, limit.getShortRttNanos());
+        assertEquals(TEN_MS, limit.getLongRttNanos());
+        assertTrue(limit.getLimit() >= 20);
+    }
+
+    @Test
+    void shouldBackOffOnDropsAndShedOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new GradientLimit(2, 1, 10, 1.5));
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(TEN_MS, true);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,57 @@
+package nngc.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketStoreTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstThenThrottleWithRetryAfter() {
+        TokenBucketStore store = new TokenBucketStore(4, 100);
+        long now = 1_000 * ONE_SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            TokenBucketStore.Decision decision = store.tryAcquire("client", now, ONE_SECOND, 5, 1);
+            assertTrue(decision.allowed());
+            assertEquals(4 - i, decision.remainingTokens());
+        }
+
+        TokenBucketStore.Decision throttled = store.tryAcquire("client", now, ONE_SECOND, 5, 1);
+        assertFalse(throttled.allowed());
+        assertEquals(ONE_SECOND, throttled.retryAfterNanos());
+
+        assertTrue(store.tryAcquire("client", now + ONE_SECOND, ONE_SECOND, 5, 1).allowed());
+        assertTrue(store.tryAcquire("other", now, ONE_SECOND, 5, 1).allowed());
+    }
+
+    @Test
+    void shouldEvictIdleBuckets() {
+        TokenBucketStore store = new TokenBucketStore(4, 100);
+        long now = 1_000 * ONE_SECOND;
+        store.tryAcquire("a", now, ONE_SECOND, 5, 1);
+        store.tryAcquire("b", now, ONE_SECOND, 5, 1);
+
+        store.evictIdle(now + 30 * ONE_SECOND, 10 * ONE_SECOND);
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldFailOpenWhenFull() {
+        TokenBucketStore store = new TokenBucketStore(1, 2);
+        long now = 1_000 * ONE_SECOND;
+        store.tryAcquire("a", now, ONE_SECOND, 1, 1);
+        store.tryAcquire("b", now, ONE_SECOND, 1, 1);
+
+        assertTrue(store.tryAcquire("c", now, ONE_SECOND, 1, 1).allowed());
+        assertEquals(2, store.size());
+        assertEquals(1, store.overflowCount());
+    }
+}
@@ -0,0 +1,95 @@
+package org.nngc.benchmarks.gateway;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nngc.hedge.HedgeBudget;
+import nngc.hedge.HedgeDelayPolicy;
+import nngc.hedge.Hedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gateway's {@link Hedger} against two stub backends that usually answer in 5 ms but stall for
+ * 250 ms on 3% of requests, 16 at a time, next to a plain call to either backend; the p50 and p99 in
+ * the sample-time results are the comparison. Warmup also fills the hedge delay histogram. A failed
+ * call is sampled like any other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class HedgingBenchmark {
+
+    private static final Duration FAST = Duration.ofMillis(5);
+    private static final Duration SLOW = Duration.ofMillis(250);
+    private static final double SLOW_RATIO = 0.03;
+
+    @Param({"false", "true"})
+    public boolean hedged;
+
+    private DisposableServer backendA;
+    private DisposableServer backendB;
+    private WebClient webClient;
+    private Hedger hedger;
+
+    @Setup
+    public void setUp() {
+        // Netty's DEBUG logs (there is no Spring logging config here) would dominate
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        backendA = stubBackend();
+        backendB = stubBackend();
+        webClient = WebClient.create();
+        hedger = new Hedger(new HedgeDelayPolicy(0.95, Duration.ofMillis(5), Duration.ofMillis(200)),
+                new HedgeBudget(0.1, 10), new SimpleMeterRegistry(), "benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        backendA.disposeNow();
+        backendB.disposeNow();
+    }
+
+    @Benchmark
+    public String call() {
+        boolean aFirst = ThreadLocalRandom.current().nextBoolean();
+        DisposableServer primary = aFirst ? backendA : backendB;
+        DisposableServer backup = aFirst ? backendB : backendA;
+        Mono<String> call = hedged ? hedger.execute(() -> call(primary), () -> call(backup)) : call(primary);
+        return call.onErrorResume(e -> Mono.empty()).block();
+    }
+
+    private Mono<String> call(DisposableServer backend) {
+        return webClient.get()
+                .uri("http://localhost:" + backend.port() + "/customers/1")
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    private static DisposableServer stubBackend() {
+        return HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/customers/{id}", (request, response) -> {
+                    Duration delay = ThreadLocalRandom.current().nextDouble() < SLOW_RATIO ? SLOW : FAST;
+                    return response.sendString(Mono.delay(delay).thenReturn("{\"id\":1}"));
+                }))
+                .bindNow();
+    }
+}
@@ -0,0 +1,68 @@
+package org.nngc.benchmarks.customer;
+
+import org.nngc.dto.CustomerDTO;
+import org.nngc.dto.CustomerRouteInfoDTO;
+import org.nngc.entity.Customer;
+import org.nngc.roles.AppUserRoles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion done for every customer lookup ({@code toCustomerDTO}) and for every
+ * stop on the route list ({@code toCustomerRouteInfoDTO}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CustomerMappingBenchmark {
+
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        customer = customer();
+    }
+
+    @Benchmark
+    public CustomerDTO toCustomerDTO() {
+        return customer.toCustomerDTO();
+    }
+
+    @Benchmark
+    public CustomerRouteInfoDTO toCustomerRouteInfoDTO() {
+        return customer.toCustomerRouteInfoDTO();
+    }
+
+    static Customer customer() {
+        Customer customer = Customer.builder()
+                .firstName("Ada")
+                .lastName("Lovelace")
+                .email("ada.lovelace@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoO5lY6q8q4u0cZ0b2Jx6mQ8a1QeQz3x1C")
+                .phone("804-555-0142")
+                .houseNumber("1205")
+                .streetName("Rappahannock Dr")
+                .city("Kilmarnock")
+                .state("VA")
+                .zipCode("22482")
+                .service("weekly")
+                .appUserRoles(AppUserRoles.STRIPE_CUSTOMER)
+                .enabled(true)
+                .keycloakUserId("0b8f4d2e-5c6a-4e1b-9f3d-7a2c8e6b1d40")
+                .build();
+        customer.setId(48213L);
+        customer.setCounty("Lancaster");
+        customer.setLatitude(37.7104);
+        customer.setLongitude(-76.3797);
+        customer.setGeoLocation("37.7104,-76.3797");
+        customer.setStripeCustomerId("cus_Q2b7XkLm9PzR4t");
+        return customer;
+    }
+}
@@ -0,0 +1,53 @@
+package org.nngc.benchmarks.customer;
+
+import org.nngc.service.RegistrationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The private {@code isValidEmail} that {@link RegistrationService} runs on every registration.
+ * {@code precompiledPattern} is the same expression compiled once, as a reference for what
+ * {@code String.matches} costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailRegexBenchmark {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    @Param({"ada.lovelace@example.com", "not-an-email", "ada.lovelace+route-17.weekly@mail.northern-neck-garbage.example"})
+    public String email;
+
+    private RegistrationService registration;
+    private MethodHandle isValidEmail;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        registration = new RegistrationService(null, null, null, null, null, null, null, null);
+        isValidEmail = MethodHandles.privateLookupIn(RegistrationService.class, MethodHandles.lookup())
+                .findVirtual(RegistrationService.class, "isValidEmail", MethodType.methodType(boolean.class, String.class));
+    }
+
+    @Benchmark
+    public boolean isValidEmail() throws Throwable {
+        return (boolean) isValidEmail.invoke(registration, email);
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EMAIL.matcher(email).matches();
+    }
+}
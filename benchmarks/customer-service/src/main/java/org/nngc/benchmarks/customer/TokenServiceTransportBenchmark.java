@@ -0,0 +1,179 @@
+package org.nngc.benchmarks.customer;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.grpc.BindableService;
+import io.grpc.stub.StreamObserver;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.nngc.client.GrpcTokenServiceClient;
+import org.nngc.client.HttpTokenServiceClient;
+import org.nngc.client.TokenServiceClient;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.grpc.GrpcChannels;
+import org.nngc.grpc.GrpcProperties;
+import org.nngc.grpc.GrpcServerLifecycle;
+import org.nngc.grpc.api.ConfirmTokenReply;
+import org.nngc.grpc.api.ConfirmTokenRequest;
+import org.nngc.grpc.api.Customer;
+import org.nngc.grpc.api.GenerateTokenRequest;
+import org.nngc.grpc.api.SaveTokenRequest;
+import org.nngc.grpc.api.SaveTokensReply;
+import org.nngc.grpc.api.TokenReply;
+import org.nngc.grpc.api.TokenServiceGrpc;
+import org.nngc.http.client.HttpClientProperties;
+import org.nngc.http.client.NngcHttpClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token-service leg of a registration (generate, save, confirm) through customer-service's
+ * REST and gRPC clients, 64 at a time, against in-process stubs that answer at once, so the numbers
+ * are transport cost only. Both stubs speak their production wire format except that the REST stub
+ * answers in JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class TokenServiceTransportBenchmark {
+
+    public enum Transport { REST, GRPC }
+
+    private static final String SAVED = "{\"message\":\"Token saved\",\"status\":\"SUCCESS\"}";
+    private static final String CONFIRMED = "{\"message\":\"Token confirmed\",\"status\":\"SUCCESS\","
+            + "\"customerDTO\":{\"id\":42,\"fullName\":\"Ada Lovelace\",\"email\":\"ada@example.com\",\"enabled\":true}}";
+
+    @Param({"REST", "GRPC"})
+    public Transport transport;
+
+    private DisposableServer restStub;
+    private ConnectionProvider connections;
+    private GrpcServerLifecycle grpcStub;
+    private GrpcChannels channels;
+    private TokenServiceClient client;
+
+    @Setup
+    public void setUp() {
+        // Per-call INFO logs in the clients would dominate
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        client = switch (transport) {
+            case REST -> restClient();
+            case GRPC -> grpcClient();
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (restStub != null) {
+            connections.disposeLater().block();
+            restStub.disposeNow();
+        }
+        if (grpcStub != null) {
+            channels.destroy();
+            grpcStub.stop();
+        }
+    }
+
+    @Benchmark
+    public Long registration() {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(42L);
+        customer.setEmail("ada@example.com");
+        return client.generateToken(customer)
+                .flatMap(token -> client.saveUserToken(customer, token).thenReturn(token))
+                .flatMap(client::confirmToken)
+                .map(response -> response.getCustomerDTO().getId())
+                .block();
+    }
+
+    private TokenServiceClient restClient() {
+        restStub = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/token/generate", (request, response) -> request.receive().then()
+                                .then(response.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+                                        .sendString(Mono.fromSupplier(() -> UUID.randomUUID().toString())).then()))
+                        .post("/token/save", (request, response) -> request.receive().then()
+                                .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .sendString(Mono.just(SAVED)).then()))
+                        .get("/token/confirm", (request, response) ->
+                                response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .sendString(Mono.just(CONFIRMED))))
+                .bindNow();
+        HttpClientProperties properties = new HttpClientProperties();
+        connections = NngcHttpClients.connectionProvider(properties);
+        URI base = URI.create("http://127.0.0.1:" + restStub.port());
+        return new HttpTokenServiceClient(WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(NngcHttpClients.httpClient(properties, connections)))
+                // Stands in for the load balancer resolving http://token-service
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(UriComponentsBuilder.fromUri(request.url()).uri(base).build(true).toUri())
+                        .build()))
+                .build());
+    }
+
+    private TokenServiceClient grpcClient() {
+        GrpcProperties.Server server = new GrpcProperties.Server();
+        server.setPort(0);
+        server.setShutdownGracePeriod(Duration.ofSeconds(1));
+        grpcStub = new GrpcServerLifecycle(server, List.<BindableService>of(new StubTokenService()), List.of());
+        grpcStub.start();
+        GrpcProperties.Client properties = new GrpcProperties.Client();
+        GrpcProperties.Service tokenService = new GrpcProperties.Service();
+        tokenService.setAddress("127.0.0.1:" + grpcStub.getPort());
+        properties.getServices().put("token-service", tokenService);
+        channels = new GrpcChannels(properties, null, null, List.of());
+        return new GrpcTokenServiceClient(channels);
+    }
+
+    private static class StubTokenService extends TokenServiceGrpc.TokenServiceImplBase {
+
+        @Override
+        public void generateToken(GenerateTokenRequest request, StreamObserver<TokenReply> responseObserver) {
+            responseObserver.onNext(TokenReply.newBuilder().setToken(UUID.randomUUID().toString()).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void saveToken(SaveTokenRequest request, StreamObserver<SaveTokensReply> responseObserver) {
+            responseObserver.onNext(SaveTokensReply.newBuilder().setSaved(1).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void confirmToken(ConfirmTokenRequest request, StreamObserver<ConfirmTokenReply> responseObserver) {
+            responseObserver.onNext(ConfirmTokenReply.newBuilder()
+                    .setCustomer(Customer.newBuilder()
+                            .setId(42)
+                            .setFullName("Ada Lovelace")
+                            .setEmail("ada@example.com")
+                            .setEnabled(true))
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+}
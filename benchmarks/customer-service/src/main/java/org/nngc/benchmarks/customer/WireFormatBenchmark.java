@@ -0,0 +1,134 @@
+package org.nngc.benchmarks.customer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.nngc.dto.AddressDTO;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.dto.EmailRequest;
+import org.nngc.dto.TokenRequest;
+import org.nngc.response.ApiResponse;
+import org.nngc.roles.AppUserRoles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of the payloads customer-service exchanges with token-service,
+ * email-service and its callers, in the old indented JSON, compact JSON and CBOR.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    public enum Format { INDENTED_JSON, JSON, CBOR }
+
+    @Param({"INDENTED_JSON", "JSON", "CBOR"})
+    public Format format;
+
+    private ObjectMapper mapper;
+    private ApiResponse apiResponse;
+    private EmailRequest emailRequest;
+    private TokenRequest tokenRequest;
+    private CustomerDTO customer;
+    private byte[] apiResponseBytes;
+    private byte[] customerBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        apiResponse = apiResponse();
+        emailRequest = emailRequest();
+        tokenRequest = tokenRequest();
+        customer = apiResponse.getCustomerDTO();
+        apiResponseBytes = mapper.writeValueAsBytes(apiResponse);
+        customerBytes = mapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public byte[] writeApiResponse() throws IOException {
+        return mapper.writeValueAsBytes(apiResponse);
+    }
+
+    @Benchmark
+    public ApiResponse readApiResponse() throws IOException {
+        return mapper.readValue(apiResponseBytes, ApiResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeCustomer() throws IOException {
+        return mapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public CustomerDTO readCustomer() throws IOException {
+        return mapper.readValue(customerBytes, CustomerDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeEmailRequest() throws IOException {
+        return mapper.writeValueAsBytes(emailRequest);
+    }
+
+    @Benchmark
+    public byte[] writeTokenRequest() throws IOException {
+        return mapper.writeValueAsBytes(tokenRequest);
+    }
+
+    /** Configured the way Boot builds the services' mappers. */
+    static ObjectMapper mapper(Format format) {
+        return switch (format) {
+            case INDENTED_JSON -> Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+            case JSON -> Jackson2ObjectMapperBuilder.json().build();
+            case CBOR -> Jackson2ObjectMapperBuilder.cbor().factory(new CBORFactory()).build();
+        };
+    }
+
+    static ApiResponse apiResponse() {
+        AddressDTO address = new AddressDTO();
+        address.setLine1("1205 Rappahannock Dr");
+        address.setCity("Kilmarnock");
+        address.setState("VA");
+        address.setZipCode("22482");
+        address.setLatitude(37.7104);
+        address.setLongitude(-76.3797);
+
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(48213L);
+        customer.setFullName("Ada Lovelace");
+        customer.setEmail("ada.lovelace@example.com");
+        customer.setPhoneNumber("804-555-0142");
+        customer.setAddress(address);
+        customer.setRole(AppUserRoles.STRIPE_CUSTOMER);
+        customer.setStripeCustomerId("cus_Q2b7XkLm9PzR4t");
+        customer.setGeoLocation("37.7104,-76.3797");
+        customer.setEnabled(true);
+        customer.setService("weekly");
+
+        return ApiResponse.builder()
+                .message("Customer registered")
+                .status("SUCCESS")
+                .token(List.of("5f0c1d7e-9a3b-4f62-8c1e-2b7d9e4a6f13"))
+                .customerDTO(customer)
+                .build();
+    }
+
+    static EmailRequest emailRequest() {
+        return new EmailRequest("ada.lovelace@example.com", "Ada",
+                "https://northernneckgarbage.com/auth/nngc/confirm?token=5f0c1d7e-9a3b-4f62-8c1e-2b7d9e4a6f13");
+    }
+
+    static TokenRequest tokenRequest() {
+        return new TokenRequest(48213L, "5f0c1d7e-9a3b-4f62-8c1e-2b7d9e4a6f13");
+    }
+}
@@ -0,0 +1,38 @@
+package org.nngc.benchmarks.email;
+
+import org.nngc.EmailValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * email-service's {@link EmailValidator#test}. {@code precompiledPattern} is the same expression
+ * compiled once, as a reference for what {@code String.matches} costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailRegexBenchmark {
+
+    private static final Pattern EMAIL = Pattern.compile("^(.+)@(.+)$");
+
+    @Param({"ada.lovelace@example.com", "not-an-email", "ada.lovelace+route-17.weekly@mail.northern-neck-garbage.example"})
+    public String email;
+
+    @Benchmark
+    public boolean emailValidator() {
+        return EmailValidator.test(email);
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EMAIL.matcher(email).matches();
+    }
+}
@@ -0,0 +1,40 @@
+package org.nngc.benchmarks.email;
+
+import com.sendgrid.Content;
+import org.nngc.service.EmailTemplateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Rendering the HTML bodies email-service sends through SendGrid. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailTemplateBenchmark {
+
+    private static final String NAME = "Ada";
+    private static final String LINK =
+            "https://northernneckgarbage.com/auth/nngc/confirm?token=5f0c1d7e-9a3b-4f62-8c1e-2b7d9e4a6f13";
+
+    private final EmailTemplateService templates = new EmailTemplateService();
+
+    @Benchmark
+    public Content registrationEmail() {
+        return templates.buildRegistrationEmail(NAME, LINK);
+    }
+
+    @Benchmark
+    public Content passwordResetEmail() {
+        return templates.buildPasswordResetEmail(NAME, LINK);
+    }
+
+    @Benchmark
+    public Content welcomeEmail() {
+        return templates.buildWelcomeEmail(NAME);
+    }
+}
@@ -0,0 +1,56 @@
+package org.nngc.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs the JMH suites of one benchmark module and writes the results to {@code target/jmh-results.json}.
+ * Each service has its own module, so the suites see that service's classes and no other's.
+ * <ul>
+ *   <li>{@code mvn test -pl benchmarks/customer-service -am -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false -Dtest=BenchmarksTest}
+ *       runs customer-service's suites; likewise for the other modules under {@code benchmarks}.</li>
+ *   <li>{@code -Djmh.include=EmailRegex} narrows it down (a regex over benchmark names).</li>
+ *   <li>{@code -Djmh.baseline=/path/to/jmh-results.json}, a copy kept from an earlier commit, prints
+ *       both side by side and fails on regressions beyond {@code -Djmh.threshold} percent (default 10).</li>
+ * </ul>
+ */
+public final class JmhSuite {
+
+    private static final Path RESULTS = Path.of("target", "jmh-results.json");
+
+    private JmhSuite() {
+    }
+
+    /** Runs the benchmarks in {@code packageName} and returns the comparison with the baseline, if one is given. */
+    public static List<ResultComparison.Row> run(String packageName) throws RunnerException, IOException {
+        new Runner(new OptionsBuilder()
+                .include(System.getProperty("jmh.include", packageName + "\\."))
+                .forks(1)
+                // Rather than inheriting the test JVM's arguments, which carry the JaCoCo agent
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS.toString())
+                .build())
+                .run();
+
+        String baseline = System.getProperty("jmh.baseline");
+        if (baseline == null) {
+            return List.of();
+        }
+        List<ResultComparison.Row> rows = ResultComparison.compare(Path.of(baseline), RESULTS,
+                Double.parseDouble(System.getProperty("jmh.threshold", "10")));
+        System.out.print(ResultComparison.format(rows));
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package org.nngc.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lines up two JMH JSON result files (say, from the previous commit and this one) benchmark by
+ * benchmark. A result counts as a regression when it is worse by more than the threshold and by
+ * more than the two error margins together, so run-to-run noise alone does not trip it.
+ */
+public final class ResultComparison {
+
+    private ResultComparison() {
+    }
+
+    public static List<Row> compare(Path baseline, Path current, double thresholdPercent) throws IOException {
+        Map<String, JsonNode> before = read(baseline);
+        List<Row> rows = new ArrayList<>();
+        read(current).forEach((key, result) -> {
+            JsonNode old = before.get(key);
+            if (old == null) {
+                return;
+            }
+            JsonNode metric = result.get("primaryMetric");
+            JsonNode oldMetric = old.get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            double oldScore = oldMetric.get("score").asDouble();
+            double error = finite(metric.get("scoreError").asDouble()) + finite(oldMetric.get("scoreError").asDouble());
+            // Throughput: higher is better; every other mode measures time per operation
+            boolean higherIsBetter = "thrpt".equals(result.get("mode").asText());
+            double worseBy = higherIsBetter ? oldScore - score : score - oldScore;
+            double changePercent = oldScore == 0 ? 0 : (score - oldScore) / oldScore * 100;
+            boolean regression = worseBy > error && Math.abs(changePercent) > thresholdPercent;
+            rows.add(new Row(key, oldScore, score, metric.get("scoreUnit").asText(), changePercent, regression));
+        });
+        return rows;
+    }
+
+    public static String format(List<Row> rows) {
+        StringBuilder table = new StringBuilder();
+        for (Row row : rows) {
+            table.append(String.format("%-90s %12.2f -> %12.2f %-7s %+7.1f%%%s%n", row.benchmark(), row.baseline(),
+                    row.current(), row.unit(), row.changePercent(), row.regression() ? "  REGRESSION" : ""));
+        }
+        return table.toString();
+    }
+
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        String name = result.get("benchmark").asText().replaceFirst("^org\\.nngc\\.benchmarks\\.", "");
+        JsonNode params = result.get("params");
+        if (params == null) {
+            return name;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> param = it.next();
+            sorted.put(param.getKey(), param.getValue().asText());
+        }
+        return name + sorted;
+    }
+
+    private static double finite(double error) {
+        return Double.isFinite(error) ? error : 0;
+    }
+
+    public record Row(String benchmark, double baseline, double current, String unit, double changePercent,
+                      boolean regression) {
+    }
+}
@@ -0,0 +1,54 @@
+package org.nngc.benchmarks.token;
+
+import org.nngc.token.TokenRepository;
+import org.nngc.token.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenService#generateEmailVerificationToken} minus the database: the repository hands
+ * back whatever it is given. {@code randomUuid} is the share of that spent in
+ * {@link UUID#randomUUID()}, which draws from {@code SecureRandom}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenGenerationBenchmark {
+
+    private TokenService tokenService;
+    private long customerId;
+
+    @Setup
+    public void setUp() {
+        TokenRepository repository = (TokenRepository) Proxy.newProxyInstance(
+                TokenRepository.class.getClassLoader(),
+                new Class<?>[]{TokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "TokenRepository(no-op)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        tokenService = new TokenService(repository, null);
+    }
+
+    @Benchmark
+    public String generateEmailVerificationToken() {
+        return tokenService.generateEmailVerificationToken(++customerId);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+}
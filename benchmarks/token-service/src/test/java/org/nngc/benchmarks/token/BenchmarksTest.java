@@ -0,0 +1,20 @@
+package org.nngc.benchmarks.token;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.benchmarks.JmhSuite;
+import org.nngc.benchmarks.ResultComparison;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs the token-service suites in this module; {@link JmhSuite} lists the switches. */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BenchmarksTest {
+
+    @Test
+    void runBenchmarks() throws Exception {
+        assertThat(JmhSuite.run(BenchmarksTest.class.getPackageName()))
+                .filteredOn(ResultComparison.Row::regression)
+                .isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package org.nngc.client;
+
+import io.grpc.stub.StreamObserver;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.dto.TokenRequest;
+import org.nngc.grpc.GrpcChannels;
+import org.nngc.grpc.ReactiveGrpc;
+import org.nngc.grpc.api.ConfirmTokenReply;
+import org.nngc.grpc.api.ConfirmTokenRequest;
+import org.nngc.grpc.api.GenerateTokenRequest;
+import org.nngc.grpc.api.RevokeAllTokensReply;
+import org.nngc.grpc.api.RevokeAllTokensRequest;
+import org.nngc.grpc.api.SaveTokenRequest;
+import org.nngc.grpc.api.SaveTokensReply;
+import org.nngc.grpc.api.TokenReply;
+import org.nngc.grpc.api.TokenServiceGrpc;
+import org.nngc.response.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * token-service over its internal gRPC API: one multiplexed HTTP/2 channel per instance,
+ * authenticated with this service's client-credentials token.
+ */
+@Service
+@ConditionalOnProperty(prefix = "nngc.grpc.client", name = "enabled", matchIfMissing = true)
+public class GrpcTokenServiceClient implements TokenServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcTokenServiceClient.class);
+
+    private final TokenServiceGrpc.TokenServiceStub stub;
+
+    public GrpcTokenServiceClient(GrpcChannels channels) {
+        // Saving a token twice or revoking twice leaves the same state, so those calls may be retried
+        this.stub = TokenServiceGrpc.newStub(channels.channel("token-service",
+                List.of(TokenServiceGrpc.getSaveTokenMethod(), TokenServiceGrpc.getRevokeAllTokensMethod())));
+    }
+
+    @Override
+    public Mono<ApiResponse> saveUserToken(CustomerDTO customer, String token) {
+        SaveTokenRequest request = SaveTokenRequest.newBuilder()
+                .setCustomerId(customer.getId())
+                .setToken(token)
+                .build();
+        return ReactiveGrpc.<SaveTokensReply>unary(observer -> stub.saveToken(request, observer))
+                .map(reply -> new ApiResponse("Token saved", "SUCCESS"))
+                .doOnSuccess(response -> logger.info("Token saved successfully for customer: {}", customer.getEmail()))
+                .doOnError(error -> logger.error("Error saving token: ", error));
+    }
+
+    /**
+     * Saves many tokens on a single client stream instead of one call each.
+     */
+    public Mono<Integer> saveUserTokens(Flux<TokenRequest> tokens) {
+        return ReactiveGrpc.<SaveTokensReply>unary(observer -> {
+                    StreamObserver<SaveTokenRequest> requests = stub.saveTokens(observer);
+                    tokens.subscribe(
+                            token -> requests.onNext(SaveTokenRequest.newBuilder()
+                                    .setCustomerId(token.getCustomerId())
+                                    .setToken(token.getToken())
+                                    .build()),
+                            requests::onError,
+                            requests::onCompleted);
+                })
+                .map(SaveTokensReply::getSaved)
+                .doOnError(error -> logger.error("Error saving tokens: ", error));
+    }
+
+    @Override
+    public Mono<ApiResponse> revokeAllUserTokens(Long customerId) {
+        RevokeAllTokensRequest request = RevokeAllTokensRequest.newBuilder().setCustomerId(customerId).build();
+        return ReactiveGrpc.<RevokeAllTokensReply>unary(observer -> stub.revokeAllTokens(request, observer))
+                .map(reply -> new ApiResponse("Revoked " + reply.getRevoked() + " tokens", "SUCCESS"))
+                .doOnSuccess(response -> logger.info("Tokens revoked for customer ID: {}", customerId))
+                .doOnError(error -> logger.error("Error revoking tokens: ", error));
+    }
+
+    @Override
+    public Mono<String> generateToken(CustomerDTO customer) {
+        GenerateTokenRequest request = GenerateTokenRequest.newBuilder()
+                .setCustomerId(customer.getId())
+                .setEmail(customer.getEmail())
+                .build();
+        return ReactiveGrpc.<TokenReply>unary(observer -> stub.generateToken(request, observer))
+                .map(TokenReply::getToken)
+                .doOnSuccess(token -> logger.info("Token generated for customer: {}", customer.getEmail()))
+                .doOnError(error -> logger.error("Error generating token: ", error));
+    }
+
+    @Override
+    public Mono<ApiResponse> confirmToken(String token) {
+        ConfirmTokenRequest request = ConfirmTokenRequest.newBuilder().setToken(token).build();
+        return ReactiveGrpc.<ConfirmTokenReply>unary(observer -> stub.confirmToken(request, observer))
+                .map(reply -> {
+                    CustomerDTO customer = new CustomerDTO();
+                    customer.setId(reply.getCustomer().getId());
+                    customer.setEmail(reply.getCustomer().getEmail());
+                    customer.setFullName(reply.getCustomer().getFullName());
+                    customer.setEnabled(reply.getCustomer().getEnabled());
+                    return ApiResponse.builder()
+                            .message("Token confirmed")
+                            .status("SUCCESS")
+                            .customerDTO(customer)
+                            .build();
+                })
+                .doOnSuccess(response -> logger.info("Token confirmed successfully"))
+                .doOnError(error -> logger.error("Error confirming token: ", error));
+    }
+}
@@ -0,0 +1,77 @@
+package org.nngc.client;
+
+import org.nngc.common.retry.RetryExchangeFilterFunction;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.dto.TokenRequest;
+import org.nngc.response.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * The token-service REST API; used instead of gRPC when {@code nngc.grpc.client.enabled=false}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "nngc.grpc.client", name = "enabled", havingValue = "false")
+public class HttpTokenServiceClient implements TokenServiceClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HttpTokenServiceClient.class);
+    
+    private final WebClient webClient;
+
+    public HttpTokenServiceClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+    
+    @Override
+    public Mono<ApiResponse> saveUserToken(CustomerDTO customer, String token) {
+        return webClient.post()
+                .uri("http://token-service/token/save")
+                .bodyValue(new TokenRequest(customer.getId(), token))
+                .retrieve()
+                .bodyToMono(ApiResponse.class)
+                .doOnSuccess(response -> logger.info("Token saved successfully for customer: {}", customer.getEmail()))
+                .doOnError(error -> logger.error("Error saving token: ", error));
+    }
+    
+    @Override
+    public Mono<ApiResponse> revokeAllUserTokens(Long customerId) {
+        return webClient.post()
+                .uri("http://token-service/token/revoke-all/{customerId}", customerId)
+                // Revoking twice leaves the same state, so this POST may be retried
+                .attribute(RetryExchangeFilterFunction.IDEMPOTENT, true)
+                .retrieve()
+                .bodyToMono(ApiResponse.class)
+                .doOnSuccess(response -> logger.info("Tokens revoked for customer ID: {}", customerId))
+                .doOnError(error -> logger.error("Error revoking tokens: ", error));
+    }
+    
+    @Override
+    public Mono<String> generateToken(CustomerDTO customer) {
+        return webClient.post()
+                .uri("http://token-service/token/generate")
+                // A bare string, not a CBOR document
+                .accept(MediaType.TEXT_PLAIN)
+                .bodyValue(customer)
+                .retrieve()
+                .bodyToMono(String.class)
+                .doOnSuccess(token -> logger.info("Token generated for customer: {}", customer.getEmail()))
+                .doOnError(error -> logger.error("Error generating token: ", error));
+    }
+    
+    @Override
+    public Mono<ApiResponse> confirmToken(String token) {
+        return webClient.get()
+                .uri("http://token-service/token/confirm?token={token}", token)
+                // Confirms the token: a repeat would find it already confirmed
+                .attribute(RetryExchangeFilterFunction.NON_IDEMPOTENT, true)
+                .retrieve()
+                .bodyToMono(ApiResponse.class)
+                .doOnSuccess(response -> logger.info("Token confirmed successfully"))
+                .doOnError(error -> logger.error("Error confirming token: ", error));
+    }
+}
\ No newline at end of file
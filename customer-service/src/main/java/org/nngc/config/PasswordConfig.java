@@ -1,15 +1,27 @@
 package org.nngc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.nngc.service.PasswordHasher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class PasswordConfig {
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.getStrength());
     }
-}
\ No newline at end of file
+
+    @Bean
+    public PasswordHasher passwordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PasswordHasher(passwordEncoder, properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,29 @@
+package org.nngc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Local BCrypt hashing of customer passwords. Hashes run on a dedicated pool of {@code threads}
+ * with at most {@code queueCapacity} waiting; beyond that registrations are refused rather than
+ * queued. With {@code localHash=false} no hash is computed and Keycloak holds the only credential.
+ */
+@ConfigurationProperties(prefix = "nngc.password-hashing")
+public class PasswordHashingProperties {
+
+    private boolean localHash = true;
+    private int strength = 10;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 64;
+
+    public boolean isLocalHash() { return localHash; }
+    public void setLocalHash(boolean localHash) { this.localHash = localHash; }
+
+    public int getStrength() { return strength; }
+    public void setStrength(int strength) { this.strength = strength; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+}
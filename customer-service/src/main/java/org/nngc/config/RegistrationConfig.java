@@ -0,0 +1,27 @@
+package org.nngc.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class RegistrationConfig {
+
+    /**
+     * Runs the blocking registration steps (JPA, Keycloak admin client): a virtual thread per
+     * step when virtual threads are enabled, otherwise a bounded elastic pool of its own.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler registrationScheduler(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "registration");
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "registration");
+    }
+}
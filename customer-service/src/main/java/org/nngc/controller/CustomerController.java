@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.nngc.dto.CustomerDTO;
 import org.nngc.entity.Customer;
+import org.nngc.exception.PasswordHashingRejectedException;
 import org.nngc.response.ApiResponse;
 import org.nngc.response.RegistrationRequest;
 import org.nngc.service.CustomerService;
@@ -76,6 +77,14 @@ public class CustomerController {
                     .status("SUCCESS")
                     .build()
             );
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Customer creation refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                ApiResponse.builder()
+                    .message(e.getMessage())
+                    .status(FAILED)
+                    .build()
+            );
         } catch (IllegalStateException | IllegalArgumentException e) {
             logger.error("Failed to create customer", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
@@ -133,7 +142,9 @@ public class CustomerController {
                             .message("Registration failed: " + error.getMessage())
                             .status(FAILED)
                             .build();
-                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+                    HttpStatus status = error instanceof PasswordHashingRejectedException
+                            ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+                    return Mono.just(ResponseEntity.status(status).body(errorResponse));
                 });
     }
     
@@ -0,0 +1,10 @@
+package org.nngc.exception;
+
+/**
+ * The password hashing pool is saturated; the caller should retry later.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
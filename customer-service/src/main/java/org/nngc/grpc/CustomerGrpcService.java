@@ -0,0 +1,116 @@
+package org.nngc.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.nngc.entity.Customer;
+import org.nngc.grpc.api.Address;
+import org.nngc.grpc.api.CustomerId;
+import org.nngc.grpc.api.CustomerServiceGrpc;
+import org.nngc.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Internal gRPC face of customer lookups, served by nngc-grpc-api next to the REST API.
+ */
+@Service
+public class CustomerGrpcService extends CustomerServiceGrpc.CustomerServiceImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerGrpcService.class);
+
+    private final CustomerRepository customerRepository;
+
+    public CustomerGrpcService(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @Override
+    public void getCustomer(CustomerId request, StreamObserver<org.nngc.grpc.api.Customer> responseObserver) {
+        customerRepository.findById(request.getId()).ifPresentOrElse(customer -> {
+            responseObserver.onNext(toMessage(customer));
+            responseObserver.onCompleted();
+        }, () -> responseObserver.onError(notFound(request.getId())));
+    }
+
+    @Override
+    public void enableCustomer(CustomerId request, StreamObserver<org.nngc.grpc.api.Customer> responseObserver) {
+        customerRepository.findById(request.getId()).ifPresentOrElse(customer -> {
+            customer.setEnabled(true);
+            Customer saved = customerRepository.save(customer);
+            logger.info("Customer enabled over gRPC: {}", saved.getId());
+            responseObserver.onNext(toMessage(saved));
+            responseObserver.onCompleted();
+        }, () -> responseObserver.onError(notFound(request.getId())));
+    }
+
+    @Override
+    public StreamObserver<CustomerId> getCustomers(StreamObserver<org.nngc.grpc.api.Customer> responseObserver) {
+        return new StreamObserver<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(CustomerId id) {
+                if (failed) {
+                    return;
+                }
+                var customer = customerRepository.findById(id.getId());
+                if (customer.isPresent()) {
+                    responseObserver.onNext(toMessage(customer.get()));
+                } else {
+                    failed = true;
+                    responseObserver.onError(notFound(id.getId()));
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                logger.warn("Customer lookup stream cancelled by the caller: {}", error.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+
+    static org.nngc.grpc.api.Customer toMessage(Customer customer) {
+        var dto = customer.toCustomerDTO();
+        var address = Address.newBuilder()
+                .setLine1(dto.getAddress().getLine1())
+                .setCity(orEmpty(dto.getAddress().getCity()))
+                .setState(orEmpty(dto.getAddress().getState()))
+                .setZipCode(orEmpty(dto.getAddress().getZipCode()));
+        if (dto.getAddress().getLatitude() != null) {
+            address.setLatitude(dto.getAddress().getLatitude());
+        }
+        if (dto.getAddress().getLongitude() != null) {
+            address.setLongitude(dto.getAddress().getLongitude());
+        }
+        return org.nngc.grpc.api.Customer.newBuilder()
+                .setId(dto.getId())
+                .setFirstName(orEmpty(customer.getFirstName()))
+                .setLastName(orEmpty(customer.getLastName()))
+                .setFullName(dto.getFullName())
+                .setEmail(orEmpty(dto.getEmail()))
+                .setPhoneNumber(orEmpty(dto.getPhoneNumber()))
+                .setAddress(address)
+                .setRole(dto.getRole() != null ? dto.getRole().name() : "")
+                .setStripeCustomerId(orEmpty(dto.getStripeCustomerId()))
+                .setGeoLocation(orEmpty(dto.getGeoLocation()))
+                .setEnabled(dto.isEnabled())
+                .setService(orEmpty(dto.getService()))
+                .build();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static RuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("Customer not found with id: " + id).asRuntimeException();
+    }
+}
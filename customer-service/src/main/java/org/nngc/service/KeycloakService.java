@@ -14,6 +14,7 @@ import org.nngc.exception.KeycloakException;
 import org.nngc.response.RegistrationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -21,12 +22,21 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Service
-public class KeycloakService {
+public class KeycloakService implements DisposableBean {
     
     private static final Logger logger = LoggerFactory.getLogger(KeycloakService.class);
     
+    /** The admin client's connection pool size (its default). */
+    private static final int ADMIN_CONNECTIONS = 10;
+    
     @Value("${keycloak.auth-server-url:http://localhost:8080}")
     private String authServerUrl;
     
@@ -44,6 +54,14 @@ public class KeycloakService {
     
     private Keycloak keycloakAdmin;
     
+    /**
+     * Admin calls from virtual threads run here, on platform threads: the admin client waits for a
+     * pooled connection and refreshes its token inside synchronized blocks, which pin a virtual
+     * thread to its carrier, and with every carrier pinned the calls holding the connections can't
+     * resume to give them back. Platform callers (spring.threads.virtual.enabled=false) call directly.
+     */
+    private final ExecutorService adminThreads = newAdminThreads();
+    
     private Keycloak getKeycloakAdmin() {
         if (keycloakAdmin == null) {
             keycloakAdmin = KeycloakBuilder.builder()
@@ -58,17 +76,71 @@ public class KeycloakService {
         return keycloakAdmin;
     }
     
+    private static ExecutorService newAdminThreads() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(ADMIN_CONNECTIONS, runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-admin-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private <T> T admin(Supplier<T> call) {
+        if (!Thread.currentThread().isVirtual()) {
+            return call.get();
+        }
+        Future<T> result = adminThreads.submit(call::get);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new KeycloakException("Interrupted waiting for Keycloak", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new KeycloakException("Keycloak call failed", e.getCause());
+        }
+    }
+    
+    private void admin(Runnable call) {
+        admin(() -> {
+            call.run();
+            return null;
+        });
+    }
+    
+    @Override
+    public void destroy() {
+        adminThreads.shutdownNow();
+    }
+    
     public String createUser(RegistrationRequest request) {
+        UserAccount account = createUserAccount(request);
+        if (account.created()) {
+            setPassword(account.id(), request.getPassword());
+            assignUserRole(account.id(), "user");
+        }
+        return account.id();
+    }
+    
+    /**
+     * Creates the disabled account without credentials or roles. An account already registered
+     * under the email is returned as not created: it belongs to someone else, so its password and
+     * roles must not be set and it must not be deleted on rollback.
+     */
+    public UserAccount createUserAccount(RegistrationRequest request) {
         try {
             Keycloak keycloak = getKeycloakAdmin();
             RealmResource realmResource = keycloak.realm(realm);
             UsersResource usersResource = realmResource.users();
             
             // Check if user already exists
-            List<UserRepresentation> existingUsers = usersResource.search(request.getEmail());
+            List<UserRepresentation> existingUsers = admin(() -> usersResource.search(request.getEmail()));
             if (!existingUsers.isEmpty()) {
                 logger.warn("User with email {} already exists in Keycloak", request.getEmail());
-                return existingUsers.get(0).getId();
+                return new UserAccount(existingUsers.get(0).getId(), false);
             }
             
             // Create new user representation
@@ -92,26 +164,13 @@ public class KeycloakService {
             user.setAttributes(attributes);
             
             // Create user
-            Response response = usersResource.create(user);
+            Response response = admin(() -> usersResource.create(user));
             
             if (response.getStatus() == 201) {
                 String userId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
                 logger.info("Successfully created user in Keycloak with ID: {}", userId);
-                
-                // Set password
-                CredentialRepresentation passwordCred = new CredentialRepresentation();
-                passwordCred.setTemporary(false);
-                passwordCred.setType(CredentialRepresentation.PASSWORD);
-                passwordCred.setValue(request.getPassword());
-                
-                UserResource userResource = usersResource.get(userId);
-                userResource.resetPassword(passwordCred);
-                
-                // Assign default role
-                assignUserRole(userId, "user");
-                
                 response.close();
-                return userId;
+                return new UserAccount(userId, true);
             } else {
                 logger.error("Failed to create user in Keycloak. Status: {}", response.getStatus());
                 response.close();
@@ -125,18 +184,32 @@ public class KeycloakService {
         }
     }
     
+    public void setPassword(String userId, String password) {
+        try {
+            CredentialRepresentation passwordCred = new CredentialRepresentation();
+            passwordCred.setTemporary(false);
+            passwordCred.setType(CredentialRepresentation.PASSWORD);
+            passwordCred.setValue(password);
+            
+            admin(() -> getKeycloakAdmin().realm(realm).users().get(userId).resetPassword(passwordCred));
+        } catch (RuntimeException e) {
+            logger.error("Error setting password in Keycloak: ", e);
+            throw new KeycloakException("Failed to set password in Keycloak: " + e.getMessage(), e);
+        }
+    }
+    
     public void enableUser(String email) {
         try {
             Keycloak keycloak = getKeycloakAdmin();
             RealmResource realmResource = keycloak.realm(realm);
             UsersResource usersResource = realmResource.users();
             
-            List<UserRepresentation> users = usersResource.search(email);
+            List<UserRepresentation> users = admin(() -> usersResource.search(email));
             if (!users.isEmpty()) {
                 UserRepresentation user = users.get(0);
                 user.setEnabled(true);
                 user.setEmailVerified(true);
-                usersResource.get(user.getId()).update(user);
+                admin(() -> usersResource.get(user.getId()).update(user));
                 logger.info("Enabled user in Keycloak: {}", email);
             } else {
                 logger.warn("User not found in Keycloak: {}", email);
@@ -154,10 +227,10 @@ public class KeycloakService {
             UserResource userResource = realmResource.users().get(userId);
             
             // Get realm role
-            RoleRepresentation role = realmResource.roles().get(roleName).toRepresentation();
+            RoleRepresentation role = admin(() -> realmResource.roles().get(roleName).toRepresentation());
             
             // Assign role to user
-            userResource.roles().realmLevel().add(Collections.singletonList(role));
+            admin(() -> userResource.roles().realmLevel().add(Collections.singletonList(role)));
             logger.info("Assigned role {} to user {}", roleName, userId);
         } catch (RuntimeException e) {
             logger.error("Error assigning role to user: ", e);
@@ -170,16 +243,44 @@ public class KeycloakService {
             RealmResource realmResource = keycloak.realm(realm);
             UsersResource usersResource = realmResource.users();
             
-            List<UserRepresentation> users = usersResource.search(email);
+            List<UserRepresentation> users = admin(() -> usersResource.search(email));
             if (!users.isEmpty()) {
-                usersResource.delete(users.get(0).getId());
+                delete(usersResource, users.get(0).getId());
                 logger.info("Deleted user from Keycloak: {}", email);
             }
+        } catch (KeycloakException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Error deleting user from Keycloak: ", e);
+            throw new KeycloakException("Failed to delete user from Keycloak: " + e.getMessage(), e);
+        }
+    }
+    
+    public void deleteUserById(String userId) {
+        try {
+            delete(getKeycloakAdmin().realm(realm).users(), userId);
+            logger.info("Deleted user from Keycloak: {}", userId);
+        } catch (KeycloakException e) {
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Error deleting user from Keycloak: ", e);
             throw new KeycloakException("Failed to delete user from Keycloak: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Deletes the user and releases the admin client connection. A user that is already gone
+     * counts as deleted.
+     */
+    private void delete(UsersResource usersResource, String userId) {
+        try (Response response = admin(() -> usersResource.delete(userId))) {
+            int status = response.getStatus();
+            if (status != 204 && status != 404) {
+                logger.error("Failed to delete user {} from Keycloak. Status: {}", userId, status);
+                throw new KeycloakException("Failed to delete user from Keycloak. Status: " + status);
+            }
+        }
+    }
     
     public UserRepresentation getUserByEmail(String email) {
         try {
@@ -187,7 +288,7 @@ public class KeycloakService {
             RealmResource realmResource = keycloak.realm(realm);
             UsersResource usersResource = realmResource.users();
             
-            List<UserRepresentation> users = usersResource.search(email);
+            List<UserRepresentation> users = admin(() -> usersResource.search(email));
             if (!users.isEmpty()) {
                 return users.get(0);
             }
@@ -197,4 +298,8 @@ public class KeycloakService {
             return null;
         }
     }
-}
\ No newline at end of file
+    
+    /** A Keycloak account's ID, and whether this call created it. */
+    public record UserAccount(String id, boolean created) {
+    }
+}
@@ -0,0 +1,108 @@
+package org.nngc.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.nngc.config.PasswordHashingProperties;
+import org.nngc.exception.PasswordHashingRejectedException;
+import org.nngc.exception.RegistrationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small fixed pool with a bounded queue, so a registration burst costs at most
+ * {@code threads} cores and anything past the queue is refused instead of piling up. Callers wait
+ * for the hash on their own (virtual) thread. Hash time, queue wait and the pool itself are
+ * exported as {@code password.hash}, {@code password.hash.wait} and
+ * {@code executor.*{name=password-hashing}}.
+ */
+public class PasswordHasher implements DisposableBean {
+
+    /** Stored instead of a hash when Keycloak holds the only credential; matches no password. */
+    public static final String KEYCLOAK_ONLY = "{keycloak}";
+
+    private final PasswordEncoder passwordEncoder;
+    private final boolean localHash;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Timer hashTime;
+    private final Timer waitTime;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.localHash = properties.isLocalHash();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password-hashing");
+        this.hashTime = Timer.builder("password.hash")
+                .description("Time spent computing a password hash")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("password.hash.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+    }
+
+    public String hash(CharSequence rawPassword) {
+        CompletableFuture<String> hash = hashAsync(rawPassword);
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegistrationException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RegistrationException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues the hash and returns at once; a full queue is refused here, before the caller has
+     * started anything else.
+     */
+    public CompletableFuture<String> hashAsync(CharSequence rawPassword) {
+        if (!localHash) {
+            return CompletableFuture.completedFuture(KEYCLOAK_ONLY);
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTime.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTime.record(() -> passwordEncoder.encode(rawPassword));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many registrations in progress, please try again shortly");
+        }
+    }
+
+    int queueDepth() {
+        return pool.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package org.nngc.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.nngc.response.ApiResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Registration and email confirmation funnel metrics. Each step is timed as
+ * {@code registration.stage{flow, stage, outcome}} and each whole request as
+ * {@code registration.duration{flow, outcome}}, both with SLO buckets; requests are counted as
+ * {@code registration.requests{flow, outcome}}. Outcomes are {@code success}, {@code failure},
+ * {@code cancelled}, and {@code rejected} for a request answered with a non-success status.
+ */
+@Component
+public class RegistrationMetrics {
+
+    public static final String REGISTER = "register";
+    public static final String CONFIRM = "confirm";
+
+    private static final Duration[] SLO_BUCKETS = {
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+            Duration.ofSeconds(5), Duration.ofSeconds(10)
+    };
+
+    private final MeterRegistry meterRegistry;
+
+    public RegistrationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> timed(String flow, String stage, Mono<T> step) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return step
+                    .doOnSuccess(value -> sample.stop(stageTimer(flow, stage, "success")))
+                    .doOnError(error -> sample.stop(stageTimer(flow, stage, "failure")))
+                    .doOnCancel(() -> sample.stop(stageTimer(flow, stage, "cancelled")));
+        });
+    }
+
+    public Mono<ApiResponse> request(String flow, Mono<ApiResponse> pipeline) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return pipeline
+                    .doOnSuccess(response -> finished(sample, flow,
+                            response != null && "SUCCESS".equals(response.getStatus()) ? "success" : "rejected"))
+                    .doOnError(error -> finished(sample, flow, "failure"))
+                    .doOnCancel(() -> finished(sample, flow, "cancelled"));
+        });
+    }
+
+    private void finished(Timer.Sample sample, String flow, String outcome) {
+        sample.stop(Timer.builder("registration.duration")
+                .description("End-to-end time of a registration or email confirmation")
+                .tag("flow", flow)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(SLO_BUCKETS)
+                .register(meterRegistry));
+        Counter.builder("registration.requests")
+                .description("Registrations and email confirmations by outcome")
+                .tag("flow", flow)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer stageTimer(String flow, String stage, String outcome) {
+        return Timer.builder("registration.stage")
+                .description("Time spent in one step of registration or email confirmation")
+                .tag("flow", flow)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(SLO_BUCKETS)
+                .register(meterRegistry);
+    }
+}
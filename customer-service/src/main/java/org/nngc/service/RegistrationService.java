@@ -2,6 +2,8 @@ package org.nngc.service;
 
 import org.nngc.client.EmailServiceClient;
 import org.nngc.client.TokenServiceClient;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineExceededException;
 import org.nngc.dto.CustomerDTO;
 import org.nngc.entity.Customer;
 import org.nngc.exception.RegistrationException;
@@ -12,13 +14,19 @@ import org.nngc.roles.AppUserRoles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.nngc.service.RegistrationMetrics.CONFIRM;
+import static org.nngc.service.RegistrationMetrics.REGISTER;
 
 @Service
 @Transactional
@@ -27,112 +35,196 @@ public class RegistrationService {
     private static final Logger logger = LoggerFactory.getLogger(RegistrationService.class);
     
     private final CustomerRepository customerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final KeycloakService keycloakService;
     private final TokenServiceClient tokenServiceClient;
     private final EmailServiceClient emailServiceClient;
+    private final RegistrationMetrics metrics;
+    private final Scheduler registrationScheduler;
     private final String baseUrl;
 
     public RegistrationService(
             CustomerRepository customerRepository,
-            PasswordEncoder passwordEncoder,
+            PasswordHasher passwordHasher,
             KeycloakService keycloakService,
             TokenServiceClient tokenServiceClient,
             EmailServiceClient emailServiceClient,
+            RegistrationMetrics metrics,
+            Scheduler registrationScheduler,
             @Value("${application.base-url:https://api.northernneckgarbage.com}") String baseUrl) {
         this.customerRepository = customerRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.keycloakService = keycloakService;
         this.tokenServiceClient = tokenServiceClient;
         this.emailServiceClient = emailServiceClient;
+        this.metrics = metrics;
+        this.registrationScheduler = registrationScheduler;
         this.baseUrl = baseUrl;
     }
     
+    /**
+     * Registers a customer as a pipeline of blocking and remote steps on the registration
+     * scheduler. The password hash runs alongside the Keycloak account creation, and the Keycloak
+     * password and role alongside token issuance; the verification email goes out after the
+     * response. A Keycloak account that already existed under the email is linked but otherwise
+     * left alone. If a step fails, the Keycloak account, customer row and tokens created so far
+     * are removed again.
+     * <p>
+     * Not transactional: each step commits on its own, and a transaction here would pin a JDBC
+     * connection to the request thread for the whole pipeline while the steps wait for theirs.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<ApiResponse> register(RegistrationRequest request) {
         logger.info("Processing registration for: {}", request.getEmail());
-        
+        return metrics.request(REGISTER, Mono.defer(() -> pipeline(request)));
+    }
+    
+    private Mono<ApiResponse> pipeline(RegistrationRequest request) {
         // Validate email
         if (!isValidEmail(request.getEmail())) {
             return Mono.error(new IllegalArgumentException("Invalid email format"));
         }
         
-        // Check if user already exists
-        Optional<Customer> existingCustomer = customerRepository.findByEmail(request.getEmail().toLowerCase());
-        if (existingCustomer.isPresent()) {
-            return Mono.error(new IllegalStateException("User with this email already exists"));
-        }
-        
         // Validate password
         if (request.getPassword() == null || request.getPassword().length() < 8) {
             return Mono.error(new IllegalArgumentException("Password must be at least 8 characters long"));
         }
         
-        try {
-            // Create user in Keycloak first
-            String keycloakUserId = keycloakService.createUser(request);
-            
-            // Create customer in database
-            Customer customer = Customer.builder()
-                    .firstName(request.getFirstName())
-                    .lastName(request.getLastName())
-                    .email(request.getEmail().toLowerCase())
-                    .password(passwordEncoder.encode(request.getPassword()))
-                    .phone(request.getPhone())
-                    .houseNumber(request.getHouseNumber())
-                    .streetName(request.getStreetName())
-                    .city(request.getCity())
-                    .state(request.getState())
-                    .zipCode(request.getZipCode())
-                    .service(request.getService())
-                    .appUserRoles(AppUserRoles.USER)
-                    .enabled(false) // Will be enabled after email verification
-                    .keycloakUserId(keycloakUserId)
-                    .build();
-            
-            Customer savedCustomer = customerRepository.save(customer);
-            logger.info("Customer saved with ID: {}", savedCustomer.getId());
-            
-            // Generate JWT token for email verification
-            CustomerDTO customerDTO = savedCustomer.toCustomerDTO();
-            
-            return tokenServiceClient.generateToken(customerDTO)
-                    .flatMap(token -> {
-                        // Save token
-                        return tokenServiceClient.saveUserToken(customerDTO, token)
-                                .then(Mono.just(token));
-                    })
-                    .flatMap(token -> {
-                        // Send verification email
-                        String confirmationLink = baseUrl + "/auth/nngc/confirm?token=" + token;
-                        return emailServiceClient.sendRegistrationEmail(
-                                request.getEmail(),
-                                request.getFirstName(),
-                                confirmationLink
-                        ).then(Mono.just(token));
-                    })
-                    .map(token -> ApiResponse.builder()
-                            .message("Registration successful. Please check your email for verification.")
-                            .token(Collections.singletonList(token))
-                            .customerDTO(customerDTO)
-                            .status("SUCCESS")
-                            .build())
-                    .onErrorResume(error -> {
-                        logger.error("Error during registration: ", error);
-                        // Rollback Keycloak user if database save failed
-                        if (keycloakUserId != null) {
-                            try {
-                                keycloakService.deleteUser(request.getEmail());
-                            } catch (RuntimeException e) {
-                                logger.error("Failed to rollback Keycloak user: ", e);
-                            }
-                        }
-                        return Mono.error(error);
-                    });
-            
-        } catch (RuntimeException e) {
-            logger.error("Registration failed: ", e);
-            return Mono.error(new RegistrationException("Registration failed: " + e.getMessage(), e));
+        String email = request.getEmail().toLowerCase();
+        Registration registration = new Registration();
+        
+        return metrics.timed(REGISTER, "email_lookup", callBeforeDeadline(() -> customerRepository.findByEmail(email).isPresent()))
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.error(new IllegalStateException("User with this email already exists"));
+                    }
+                    // Queued before any side effect, so a saturated hashing pool refuses cleanly
+                    CompletableFuture<String> passwordHash = passwordHasher.hashAsync(request.getPassword());
+                    return Mono.zipDelayError(
+                            metrics.timed(REGISTER, "password_hash", Mono.fromFuture(passwordHash)),
+                            metrics.timed(REGISTER, "keycloak_create", callBeforeDeadline(() -> keycloakService.createUserAccount(request)))
+                                    .doOnNext(account -> registration.keycloakAccount = account));
+                })
+                .flatMap(hashAndAccount -> metrics.timed(REGISTER, "db_save",
+                        callBeforeDeadline(() -> customerRepository.save(newCustomer(request, hashAndAccount.getT1(), hashAndAccount.getT2().id())))))
+                .flatMap(savedCustomer -> {
+                    registration.customer = savedCustomer;
+                    logger.info("Customer saved with ID: {}", savedCustomer.getId());
+                    CustomerDTO customerDTO = savedCustomer.toCustomerDTO();
+                    KeycloakService.UserAccount account = registration.keycloakAccount;
+                    
+                    Mono<String> token = metrics.timed(REGISTER, "token_generate", tokenServiceClient.generateToken(customerDTO))
+                            .flatMap(generated -> metrics.timed(REGISTER, "token_save", tokenServiceClient.saveUserToken(customerDTO, generated))
+                                    .thenReturn(generated));
+                    // An account that was already in Keycloak keeps its own password and roles
+                    Mono<Void> keycloakSetup = !account.created() ? Mono.empty() : Mono.whenDelayError(
+                            metrics.timed(REGISTER, "password_reset", runBeforeDeadline(() -> keycloakService.setPassword(account.id(), request.getPassword()))),
+                            metrics.timed(REGISTER, "role_assignment", runBeforeDeadline(() -> keycloakService.assignUserRole(account.id(), "user"))));
+                    
+                    return Mono.zipDelayError(token, keycloakSetup.thenReturn(Boolean.TRUE))
+                            .map(tokenAndSetup -> ApiResponse.builder()
+                                    .message("Registration successful. Please check your email for verification.")
+                                    .token(Collections.singletonList(tokenAndSetup.getT1()))
+                                    .customerDTO(customerDTO)
+                                    .status("SUCCESS")
+                                    .build());
+                })
+                .doOnNext(response -> sendVerificationEmail(request, response.getToken().get(0)))
+                .onErrorResume(error -> compensate(registration, request.getEmail(), error));
+    }
+    
+    private Customer newCustomer(RegistrationRequest request, String passwordHash, String keycloakUserId) {
+        return Customer.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .email(request.getEmail().toLowerCase())
+                .password(passwordHash)
+                .phone(request.getPhone())
+                .houseNumber(request.getHouseNumber())
+                .streetName(request.getStreetName())
+                .city(request.getCity())
+                .state(request.getState())
+                .zipCode(request.getZipCode())
+                .service(request.getService())
+                .appUserRoles(AppUserRoles.USER)
+                .enabled(false) // Will be enabled after email verification
+                .keycloakUserId(keycloakUserId)
+                .build();
+    }
+    
+    private void sendVerificationEmail(RegistrationRequest request, String token) {
+        String confirmationLink = baseUrl + "/auth/nngc/confirm?token=" + token;
+        // Not part of the response; the customer can ask for a resend if it never arrives
+        metrics.timed(REGISTER, "email_dispatch", emailServiceClient.sendRegistrationEmail(
+                        request.getEmail(),
+                        request.getFirstName(),
+                        confirmationLink))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+    
+    private Mono<ApiResponse> compensate(Registration registration, String email, Throwable error) {
+        KeycloakService.UserAccount account = registration.keycloakAccount;
+        boolean keycloakCreated = account != null && account.created();
+        if (!keycloakCreated && registration.customer == null) {
+            return Mono.error(error);
+        }
+        logger.error("Error during registration of {}, rolling back: ", email, error);
+        Mono<Void> customerRollback = Mono.empty();
+        if (registration.customer != null) {
+            Long customerId = registration.customer.getId();
+            customerRollback = tokenServiceClient.revokeAllUserTokens(customerId).then()
+                    .onErrorResume(e -> rollbackFailed("tokens", e))
+                    .then(run(() -> customerRepository.deleteById(customerId))
+                            .onErrorResume(e -> rollbackFailed("customer", e)));
         }
+        Mono<Void> keycloakRollback = Mono.empty();
+        if (keycloakCreated) {
+            keycloakRollback = run(() -> keycloakService.deleteUserById(account.id()))
+                    .onErrorResume(e -> rollbackFailed("Keycloak user", e));
+        }
+        return Mono.when(customerRollback, keycloakRollback).then(Mono.error(error));
+    }
+    
+    private Mono<Void> rollbackFailed(String what, Throwable error) {
+        logger.error("Failed to rollback {}: ", what, error);
+        return Mono.empty();
+    }
+    
+    private <T> Mono<T> call(Callable<T> step) {
+        return Mono.fromCallable(step).subscribeOn(registrationScheduler);
+    }
+    
+    private Mono<Void> run(Runnable step) {
+        return Mono.<Void>fromRunnable(step).subscribeOn(registrationScheduler);
+    }
+    
+    /**
+     * Like {@link #call}, but fails instead of starting the step once the caller's deadline has
+     * passed, checked on the registration scheduler right before the step runs. Only for forward
+     * steps of the registration pipeline; rollback and confirmation steps always run.
+     */
+    private <T> Mono<T> callBeforeDeadline(Callable<T> step) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            if (deadline != null && deadline.isExpired()) {
+                return Mono.<T>error(new DeadlineExceededException("Deadline passed during registration"));
+            }
+            return Mono.fromCallable(step);
+        }).subscribeOn(registrationScheduler);
+    }
+    
+    private Mono<Void> runBeforeDeadline(Runnable step) {
+        return callBeforeDeadline(() -> {
+            step.run();
+            return Boolean.TRUE;
+        }).then();
+    }
+    
+    /** What registration has created so far, for compensation. */
+    private static final class Registration {
+        volatile KeycloakService.UserAccount keycloakAccount;
+        volatile Customer customer;
     }
     
     public Mono<ApiResponse> resendVerificationEmail(String email) {
@@ -182,37 +274,28 @@ public class RegistrationService {
                 });
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Mono<ApiResponse> confirmEmail(String token) {
         logger.info("Confirming email with token");
         
-        return tokenServiceClient.confirmToken(token)
-                .map(response -> {
-                    if ("SUCCESS".equals(response.getStatus())) {
-                        // Get customer from token response
-                        CustomerDTO customerDTO = response.getCustomerDTO();
-                        if (customerDTO != null) {
-                            // Enable user in database
-                            Optional<Customer> customerOpt = customerRepository.findById(customerDTO.getId());
-                            if (customerOpt.isPresent()) {
-                                Customer customer = customerOpt.get();
-                                customer.setEnabled(true);
-                                customerRepository.save(customer);
-                                
-                                // Enable user in Keycloak
-                                keycloakService.enableUser(customer.getEmail());
-                                
-                                // Send welcome email
-                                emailServiceClient.sendWelcomeEmail(
-                                        customer.getEmail(),
-                                        customer.getFirstName()
-                                ).subscribe();
-                                
-                                logger.info("Email confirmed for customer: {}", customer.getEmail());
+        return metrics.request(CONFIRM, metrics.timed(CONFIRM, "token_confirm", tokenServiceClient.confirmToken(token))
+                        .flatMap(response -> {
+                            // Get customer from token response
+                            CustomerDTO customerDTO = response.getCustomerDTO();
+                            if (!"SUCCESS".equals(response.getStatus()) || customerDTO == null) {
+                                return Mono.just(response);
                             }
-                        }
-                    }
-                    return response;
-                })
+                            return metrics.timed(CONFIRM, "db_enable", call(() -> enableCustomer(customerDTO.getId())))
+                                    .flatMap(enabled -> enabled
+                                            .map(customer -> metrics.timed(CONFIRM, "keycloak_enable",
+                                                            run(() -> keycloakService.enableUser(customer.getEmail())))
+                                                    .doOnSuccess(done -> {
+                                                        sendWelcomeEmail(customer);
+                                                        logger.info("Email confirmed for customer: {}", customer.getEmail());
+                                                    })
+                                                    .thenReturn(response))
+                                            .orElseGet(() -> Mono.just(response)));
+                        }))
                 .onErrorResume(error -> {
                     logger.error("Error confirming email: ", error);
                     return Mono.just(ApiResponse.builder()
@@ -222,6 +305,23 @@ public class RegistrationService {
                 });
     }
     
+    private Optional<Customer> enableCustomer(Long customerId) {
+        Optional<Customer> customerOpt = customerRepository.findById(customerId);
+        customerOpt.ifPresent(customer -> {
+            customer.setEnabled(true);
+            customerRepository.save(customer);
+        });
+        return customerOpt;
+    }
+    
+    private void sendWelcomeEmail(Customer customer) {
+        metrics.timed(CONFIRM, "welcome_email", emailServiceClient.sendWelcomeEmail(
+                        customer.getEmail(),
+                        customer.getFirstName()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+    
     public Mono<ApiResponse> getTokenStatus(String token) {
         logger.info("Checking token status");
         
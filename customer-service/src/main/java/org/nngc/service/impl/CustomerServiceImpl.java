@@ -7,9 +7,9 @@ import org.nngc.repository.CustomerRepository;
 import org.nngc.response.ApiResponse;
 import org.nngc.roles.AppUserRoles;
 import org.nngc.service.CustomerService;
+import org.nngc.service.PasswordHasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
 
@@ -25,11 +25,11 @@ public class CustomerServiceImpl implements CustomerService {
     private static final Logger log = LoggerFactory.getLogger(CustomerServiceImpl.class);
     
     private final CustomerRepository customerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository, PasswordEncoder passwordEncoder) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, PasswordHasher passwordHasher) {
         this.customerRepository = customerRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
@@ -53,7 +53,7 @@ public class CustomerServiceImpl implements CustomerService {
         String password = (String) customerData.get("password");
         String encodedPassword = null;
         if (password != null && !password.trim().isEmpty()) {
-            encodedPassword = passwordEncoder.encode(password);
+            encodedPassword = passwordHasher.hash(password);
         }
         
         // Create new customer
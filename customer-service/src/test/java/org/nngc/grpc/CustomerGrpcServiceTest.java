@@ -0,0 +1,136 @@
+package org.nngc.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Test;
+import org.nngc.entity.Customer;
+import org.nngc.grpc.api.CustomerId;
+import org.nngc.repository.CustomerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerGrpcServiceTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerGrpcService grpcService = new CustomerGrpcService(customerRepository);
+
+    @Test
+    void shouldReturnTheCustomer() {
+        when(customerRepository.findById(42L)).thenReturn(Optional.of(customer(42L)));
+        Recorder<org.nngc.grpc.api.Customer> reply = new Recorder<>();
+
+        grpcService.getCustomer(id(42L), reply);
+
+        assertTrue(reply.completed);
+        org.nngc.grpc.api.Customer customer = reply.values.get(0);
+        assertEquals(42L, customer.getId());
+        assertEquals("ada@example.com", customer.getEmail());
+        assertEquals("12 Main St", customer.getAddress().getLine1());
+        assertFalse(customer.getAddress().hasLatitude());
+        assertEquals("", customer.getStripeCustomerId());
+    }
+
+    @Test
+    void shouldAnswerNotFoundForAnUnknownCustomer() {
+        when(customerRepository.findById(42L)).thenReturn(Optional.empty());
+        Recorder<org.nngc.grpc.api.Customer> reply = new Recorder<>();
+
+        grpcService.getCustomer(id(42L), reply);
+
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(reply.error).getCode());
+    }
+
+    @Test
+    void shouldEnableAndSaveTheCustomer() {
+        Customer customer = customer(42L);
+        when(customerRepository.findById(42L)).thenReturn(Optional.of(customer));
+        when(customerRepository.save(customer)).thenReturn(customer);
+        Recorder<org.nngc.grpc.api.Customer> reply = new Recorder<>();
+
+        grpcService.enableCustomer(id(42L), reply);
+
+        assertTrue(customer.isEnabled());
+        assertTrue(reply.values.get(0).getEnabled());
+        verify(customerRepository).save(customer);
+    }
+
+    @Test
+    void shouldNotSaveWhenEnablingAnUnknownCustomer() {
+        when(customerRepository.findById(42L)).thenReturn(Optional.empty());
+        Recorder<org.nngc.grpc.api.Customer> reply = new Recorder<>();
+
+        grpcService.enableCustomer(id(42L), reply);
+
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(reply.error).getCode());
+        verify(customerRepository, never()).save(any(Customer.class));
+    }
+
+    @Test
+    void shouldStreamCustomersInOrderAndStopAtAnUnknownId() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer(1L)));
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(customer(2L)));
+        when(customerRepository.findById(3L)).thenReturn(Optional.empty());
+        Recorder<org.nngc.grpc.api.Customer> replies = new Recorder<>();
+
+        StreamObserver<CustomerId> ids = grpcService.getCustomers(replies);
+        ids.onNext(id(2L));
+        ids.onNext(id(1L));
+        ids.onNext(id(3L));
+        ids.onNext(id(1L));
+        ids.onCompleted();
+
+        assertEquals(List.of(2L, 1L), replies.values.stream().map(org.nngc.grpc.api.Customer::getId).toList());
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(replies.error).getCode());
+        assertFalse(replies.completed);
+    }
+
+    private static CustomerId id(long id) {
+        return CustomerId.newBuilder().setId(id).build();
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = Customer.builder()
+                .firstName("Ada")
+                .lastName("Lovelace")
+                .email("ada@example.com")
+                .houseNumber("12")
+                .streetName("Main St")
+                .city("Kilmarnock")
+                .build();
+        customer.setId(id);
+        return customer;
+    }
+
+    private static class Recorder<T> implements StreamObserver<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
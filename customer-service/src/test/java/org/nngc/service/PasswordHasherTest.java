@@ -0,0 +1,90 @@
+package org.nngc.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.nngc.config.PasswordHashingProperties;
+import org.nngc.exception.PasswordHashingRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldHashOnThePoolAndRecordTimings() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        PasswordHasher hasher = new PasswordHasher(encoder, new PasswordHashingProperties(), meterRegistry);
+        try {
+            String hash = hasher.hash("secret-password");
+
+            assertTrue(encoder.matches("secret-password", hash));
+            assertEquals(1, meterRegistry.get("password.hash").timer().count());
+            assertEquals(1, meterRegistry.get("password.hash.wait").timer().count());
+        } finally {
+            hasher.destroy();
+        }
+    }
+
+    @Test
+    void shouldRefuseWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        PasswordHasher hasher = new PasswordHasher(blocking, properties, meterRegistry);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.hash("first-password"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.hash("second-password"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (hasher.queueDepth() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(PasswordHashingRejectedException.class, () -> hasher.hash("third-password"));
+            assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            hasher.destroy();
+        }
+    }
+
+    @Test
+    void shouldSkipTheLocalHashWhenKeycloakHoldsTheCredential() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setLocalHash(false);
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(4), properties, meterRegistry);
+        try {
+            assertEquals(PasswordHasher.KEYCLOAK_ONLY, hasher.hash("secret-password"));
+            assertEquals(0, meterRegistry.get("password.hash").timer().count());
+        } finally {
+            hasher.destroy();
+        }
+    }
+}
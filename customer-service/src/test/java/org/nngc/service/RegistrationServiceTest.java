@@ -0,0 +1,218 @@
+package org.nngc.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nngc.client.EmailServiceClient;
+import org.nngc.client.TokenServiceClient;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineExceededException;
+import org.nngc.config.PasswordHashingProperties;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.entity.Customer;
+import org.nngc.exception.KeycloakException;
+import org.nngc.repository.CustomerRepository;
+import org.nngc.response.ApiResponse;
+import org.nngc.response.RegistrationRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistrationServiceTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final KeycloakService keycloakService = mock(KeycloakService.class);
+    private final TokenServiceClient tokenServiceClient = mock(TokenServiceClient.class);
+    private final EmailServiceClient emailServiceClient = mock(EmailServiceClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHasher passwordHasher =
+            new PasswordHasher(new BCryptPasswordEncoder(4), new PasswordHashingProperties(), meterRegistry);
+    private final Scheduler scheduler = Schedulers.newBoundedElastic(4, 100, "registration-test");
+    private final RegistrationService registrationService = new RegistrationService(customerRepository, passwordHasher,
+            keycloakService, tokenServiceClient, emailServiceClient, new RegistrationMetrics(meterRegistry), scheduler,
+            "https://example.test");
+
+    private final RegistrationRequest request = new RegistrationRequest("Ada", "Lovelace", "Ada@Example.com",
+            "secret-password", "5551234567", "12", "Main St", "Kilmarnock", "VA", "weekly", "22482");
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+        scheduler.dispose();
+    }
+
+    @Test
+    void shouldRegisterAndSendTheVerificationEmailAfterResponding() {
+        givenRegistrationSucceedsUpToTokens();
+        when(tokenServiceClient.saveUserToken(any(), eq("verify-token"))).thenReturn(Mono.just(new ApiResponse("Token saved", "SUCCESS")));
+        when(emailServiceClient.sendRegistrationEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+
+        ApiResponse response = registrationService.register(request).block(Duration.ofSeconds(5));
+
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(List.of("verify-token"), response.getToken());
+        verify(keycloakService).setPassword("kc-1", "secret-password");
+        verify(keycloakService).assignUserRole("kc-1", "user");
+        verify(emailServiceClient, timeout(5000))
+                .sendRegistrationEmail("Ada@Example.com", "Ada", "https://example.test/auth/nngc/confirm?token=verify-token");
+        for (String stage : List.of("email_lookup", "password_hash", "keycloak_create", "db_save", "password_reset",
+                "role_assignment", "token_generate", "token_save")) {
+            assertEquals(1, meterRegistry.get("registration.stage")
+                    .tags("flow", "register", "stage", stage, "outcome", "success").timer().count(), stage);
+        }
+        assertEquals(1.0, meterRegistry.get("registration.requests").tags("flow", "register", "outcome", "success").counter().count());
+    }
+
+    @Test
+    void shouldRollBackWhatWasCreatedWhenAStepFails() {
+        givenRegistrationSucceedsUpToTokens();
+        when(tokenServiceClient.saveUserToken(any(), eq("verify-token"))).thenReturn(Mono.error(new IllegalStateException("token-service down")));
+        when(tokenServiceClient.revokeAllUserTokens(42L)).thenReturn(Mono.just(new ApiResponse("Tokens revoked", "SUCCESS")));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> registrationService.register(request).block(Duration.ofSeconds(5)));
+
+        assertEquals("token-service down", error.getMessage());
+        verify(tokenServiceClient).revokeAllUserTokens(42L);
+        verify(customerRepository).deleteById(42L);
+        verify(keycloakService).deleteUserById("kc-1");
+        verify(emailServiceClient, never()).sendRegistrationEmail(anyString(), anyString(), anyString());
+        assertEquals(1, meterRegistry.get("registration.stage")
+                .tags("flow", "register", "stage", "token_save", "outcome", "failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("registration.requests").tags("flow", "register", "outcome", "failure").counter().count());
+    }
+
+    @Test
+    void shouldStillFailWithTheOriginalErrorWhenTheKeycloakRollbackFails() {
+        givenRegistrationSucceedsUpToTokens();
+        when(tokenServiceClient.saveUserToken(any(), eq("verify-token"))).thenReturn(Mono.error(new IllegalStateException("token-service down")));
+        when(tokenServiceClient.revokeAllUserTokens(42L)).thenReturn(Mono.just(new ApiResponse("Tokens revoked", "SUCCESS")));
+        doThrow(new KeycloakException("Failed to delete user from Keycloak. Status: 403"))
+                .when(keycloakService).deleteUserById("kc-1");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> registrationService.register(request).block(Duration.ofSeconds(5)));
+
+        assertEquals("token-service down", error.getMessage());
+        verify(keycloakService).deleteUserById("kc-1");
+        verify(customerRepository).deleteById(42L);
+    }
+
+    @Test
+    void shouldStopCreatingTheAccountOnceTheDeadlineHasPassed() {
+        givenRegistrationSucceedsUpToTokens();
+        when(keycloakService.createUserAccount(request)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new KeycloakService.UserAccount("kc-1", true);
+        });
+
+        assertThrows(DeadlineExceededException.class, () -> registrationService.register(request)
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofMillis(100))))
+                .block(Duration.ofSeconds(5)));
+
+        verify(customerRepository, never()).save(any(Customer.class));
+        verify(keycloakService).deleteUserById("kc-1");
+    }
+
+    @Test
+    void shouldOnlyRollBackKeycloakWhenTheCustomerWasNotSaved() {
+        when(customerRepository.findByEmail("ada@example.com")).thenReturn(Optional.empty());
+        when(keycloakService.createUserAccount(request)).thenReturn(new KeycloakService.UserAccount("kc-1", true));
+        when(customerRepository.save(any(Customer.class))).thenThrow(new IllegalStateException("duplicate phone"));
+
+        assertThrows(IllegalStateException.class, () -> registrationService.register(request).block(Duration.ofSeconds(5)));
+
+        verify(keycloakService).deleteUserById("kc-1");
+        verify(customerRepository, never()).deleteById(any());
+        verify(tokenServiceClient, never()).generateToken(any());
+    }
+
+    @Test
+    void shouldNotTouchKeycloakForAnExistingCustomer() {
+        when(customerRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(new Customer()));
+
+        assertThrows(IllegalStateException.class, () -> registrationService.register(request).block(Duration.ofSeconds(5)));
+
+        verify(keycloakService, never()).createUserAccount(any());
+    }
+
+    @Test
+    void shouldLeaveAnExistingKeycloakAccountsPasswordAndRolesAlone() {
+        givenRegistrationSucceedsUpToTokens();
+        when(keycloakService.createUserAccount(request)).thenReturn(new KeycloakService.UserAccount("kc-admin", false));
+        when(tokenServiceClient.saveUserToken(any(), eq("verify-token"))).thenReturn(Mono.just(new ApiResponse("Token saved", "SUCCESS")));
+        when(emailServiceClient.sendRegistrationEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+
+        ApiResponse response = registrationService.register(request).block(Duration.ofSeconds(5));
+
+        assertEquals("SUCCESS", response.getStatus());
+        verify(customerRepository).save(argThat((Customer customer) -> "kc-admin".equals(customer.getKeycloakUserId())));
+        verify(keycloakService, never()).setPassword(anyString(), anyString());
+        verify(keycloakService, never()).assignUserRole(anyString(), anyString());
+    }
+
+    @Test
+    void shouldNotDeleteAnExistingKeycloakAccountOnRollback() {
+        givenRegistrationSucceedsUpToTokens();
+        when(keycloakService.createUserAccount(request)).thenReturn(new KeycloakService.UserAccount("kc-admin", false));
+        when(tokenServiceClient.saveUserToken(any(), eq("verify-token"))).thenReturn(Mono.error(new IllegalStateException("token-service down")));
+        when(tokenServiceClient.revokeAllUserTokens(42L)).thenReturn(Mono.just(new ApiResponse("Tokens revoked", "SUCCESS")));
+
+        assertThrows(IllegalStateException.class, () -> registrationService.register(request).block(Duration.ofSeconds(5)));
+
+        verify(customerRepository).deleteById(42L);
+        verify(keycloakService, never()).deleteUserById(anyString());
+    }
+
+    @Test
+    void shouldTimeEachConfirmationStage() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(42L);
+        Customer customer = Customer.builder().email("ada@example.com").firstName("Ada").build();
+        when(tokenServiceClient.confirmToken("verify-token"))
+                .thenReturn(Mono.just(ApiResponse.builder().status("SUCCESS").customerDTO(customerDTO).build()));
+        when(customerRepository.findById(42L)).thenReturn(Optional.of(customer));
+        when(emailServiceClient.sendWelcomeEmail("ada@example.com", "Ada")).thenReturn(Mono.empty());
+
+        ApiResponse response = registrationService.confirmEmail("verify-token").block(Duration.ofSeconds(5));
+
+        assertEquals("SUCCESS", response.getStatus());
+        verify(customerRepository).save(customer);
+        verify(keycloakService).enableUser("ada@example.com");
+        verify(emailServiceClient, timeout(5000)).sendWelcomeEmail("ada@example.com", "Ada");
+        for (String stage : List.of("token_confirm", "db_enable", "keycloak_enable")) {
+            assertEquals(1, meterRegistry.get("registration.stage")
+                    .tags("flow", "confirm", "stage", stage, "outcome", "success").timer().count(), stage);
+        }
+        assertEquals(1.0, meterRegistry.get("registration.requests").tags("flow", "confirm", "outcome", "success").counter().count());
+    }
+
+    private void givenRegistrationSucceedsUpToTokens() {
+        when(customerRepository.findByEmail("ada@example.com")).thenReturn(Optional.empty());
+        when(keycloakService.createUserAccount(request)).thenReturn(new KeycloakService.UserAccount("kc-1", true));
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            customer.setId(42L);
+            return customer;
+        });
+        when(tokenServiceClient.generateToken(any())).thenReturn(Mono.just("verify-token"));
+    }
+}
@@ -0,0 +1,21 @@
+package org.nngc.config;
+
+import org.nngc.common.security.ServiceSecurity;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+@Configuration
+@EnableWebSecurity
+@EnableMethodSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, ServiceSecurity serviceSecurity) throws Exception {
+        // Shared resource-server and gateway identity setup from nngc-common; no service-specific matchers
+        return serviceSecurity.build(httpSecurity);
+    }
+}
@@ -0,0 +1,92 @@
+package org.nngc.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.loadtest.Scenario.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.nngc.loadtest.LoadTests.duration;
+
+/**
+ * Concurrent {@code POST /api/customers/register} on customer-service, once on Tomcat's
+ * platform-thread pool and once on virtual threads, each a wave of N registrations at once with the
+ * service's peak live threads and heap. Keycloak's admin API answers after
+ * {@code -Dload.keycloak-latency} (five calls per registration); token- and email-service are real;
+ * BCrypt runs at cost 4 so that hashing does not hide the thread model.
+ * <p>
+ * {@code mvn install -DskipTests} first, then
+ * {@code mvn test -pl load-tests -Dbenchmark=true -Dtest=CustomerRegistrationLoadTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CustomerRegistrationLoadTest {
+
+    private static final Path LOGS = Path.of("target", "load-test", "customer-registration");
+    private static final int[] CONCURRENCY = {200, 1000, 2000};
+
+    private final AtomicLong customers = new AtomicLong();
+
+    @Test
+    void compareThreadModels() throws Exception {
+        try (LocalDeployment deployment = new LocalDeployment(duration("load.keycloak-latency", "10ms"),
+                duration("load.sendgrid-latency", "0ms"));
+             ServiceProcesses services = LoadTests.services(LOGS)) {
+            services.start("token-service", deployment.tokenPort, deployment.tokenService(LocalDeployment.NO_TRACING));
+            services.start("email-service", deployment.emailPort, deployment.emailService(LocalDeployment.NO_TRACING));
+            String platform = run(deployment, services, false);
+            String virtual = run(deployment, services, true);
+            System.out.printf("{\"benchmark\":\"customer-registration-load\",\"serviceHeap\":\"%s\","
+                            + "\"keycloakCallLatencyMs\":%d,\"platform\":[%s],\"virtual\":[%s]}%n",
+                    System.getProperty("load.service-heap", "512m"),
+                    duration("load.keycloak-latency", "10ms").toMillis(), platform, virtual);
+        }
+    }
+
+    private String run(LocalDeployment deployment, ServiceProcesses services, boolean virtualThreads) throws Exception {
+        ServiceProcesses.Service customerService = services.start("customer-service", deployment.customerPort,
+                deployment.customerService(LocalDeployment.NO_TRACING,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--nngc.password-hashing.strength=4",
+                        // Measure the thread model, not hashing backpressure
+                        "--nngc.password-hashing.queue-capacity=4096",
+                        // Per-request INFO logging would be the bottleneck, not the thread model
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.nngc=WARN"));
+        services.awaitHealthy(LoadTests.STARTUP);
+        ConnectionProvider provider = LoadTests.connections("customer-registration", 4096);
+        try {
+            WebClient client = LoadTests.client(HttpClient.create(provider), customerService.baseUrl(),
+                    deployment.keycloak.accessToken());
+            Scenario register = new Scenario("register", () -> client.post()
+                    .uri("/api/customers/register")
+                    .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(Outcome.of(response.statusCode() == HttpStatus.CREATED))));
+            for (int i = 0; i < 3; i++) {
+                register.inFlight(200, 200);
+            }
+            List<String> results = new ArrayList<>();
+            for (int concurrency : CONCURRENCY) {
+                register.reset();
+                try (JvmPeaks peaks = JvmPeaks.sample(customerService.baseUrl())) {
+                    register.inFlight(concurrency, concurrency);
+                    results.add(String.format("{\"concurrency\":%d,\"peakLiveThreads\":%d,\"peakHeapMb\":%d,\"registrations\":%s}",
+                            concurrency, peaks.threads(), peaks.heapMb(), register.json()));
+                }
+                assertEquals(0, register.failed(), "registrations not created at concurrency " + concurrency);
+            }
+            return String.join(",", results);
+        } finally {
+            provider.disposeLater().block();
+            services.stop(customerService);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.loadtest.Scenario.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nngc.loadtest.LoadTests.duration;
+import static org.nngc.loadtest.LoadTests.rate;
+
+/**
+ * Starts customer-, token-, email- and registration-service from their executable jars against
+ * local stand-ins (WireMock for Keycloak and SendGrid, in-memory H2 in MySQL mode for the customer
+ * database) and drives four scenarios at fixed arrival rates:
+ * <ul>
+ *   <li>{@code register}: {@code POST /auth/nngc/registration} with a new customer each time;</li>
+ *   <li>{@code confirm}: {@code GET /auth/nngc/confirm} with a token from an email SendGrid "sent";</li>
+ *   <li>{@code token_status}: {@code GET /auth/nngc/token_status} for a token handed out earlier;</li>
+ *   <li>{@code customer}: {@code GET /api/customers/{id}} on customer-service for a registered customer.</li>
+ * </ul>
+ * Latency is measured from when a request was due rather than when it went out, so a backed-up
+ * service shows up in the percentiles instead of quietly lowering the rate. Confirm, token_status
+ * and customer skip a tick until registrations have given them something to work with. A status
+ * check confirms the token as a side effect (and a second look at it says "invalid"), so each
+ * registration's token goes to either token_status or confirm, never both: together they can't
+ * get ahead of the register rate.
+ * <p>
+ * {@code mvn install -DskipTests} first, then
+ * {@code mvn test -pl load-tests -Dbenchmark=true -Dtest=EndToEndLoadTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ * Rates are per second: {@code -Dload.register.rate=5}, {@code -Dload.confirm.rate=2},
+ * {@code -Dload.token-status.rate=2}, {@code -Dload.customer.rate=20}; {@code -Dload.warmup=20s} and
+ * {@code -Dload.duration=60s} are the unrecorded and recorded phases; {@code -Dload.keycloak-latency=20ms}
+ * and {@code -Dload.sendgrid-latency=100ms} slow the stand-ins down; {@code -Dload.service-heap=512m}.
+ * Results go to {@code target/load-test-results.json}, the services' output to {@code target/load-test/}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EndToEndLoadTest {
+
+    private static final Path RESULTS = Path.of("target", "load-test-results.json");
+    private static final Path LOGS = Path.of("target", "load-test");
+
+    private final AtomicLong customers = new AtomicLong();
+    private final Queue<String> unchecked = new ConcurrentLinkedQueue<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    private final List<Long> customerIds = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void endToEnd() throws Exception {
+        try (LocalDeployment deployment = new LocalDeployment(duration("load.keycloak-latency", "20ms"),
+                duration("load.sendgrid-latency", "100ms"));
+             ServiceProcesses services = LoadTests.services(LOGS)) {
+            services.start("token-service", deployment.tokenPort, deployment.tokenService(LocalDeployment.NO_TRACING));
+            services.start("email-service", deployment.emailPort, deployment.emailService(LocalDeployment.NO_TRACING));
+            services.start("customer-service", deployment.customerPort, deployment.customerService(LocalDeployment.NO_TRACING));
+            services.start("registration-service", deployment.registrationPort,
+                    deployment.registrationService(LocalDeployment.NO_TRACING));
+            services.awaitHealthy(LoadTests.STARTUP);
+
+            ConnectionProvider provider = LoadTests.connections("load-test", 1024);
+            try {
+                HttpClient http = HttpClient.create(provider);
+                String accessToken = deployment.keycloak.accessToken();
+                WebClient registration = LoadTests.client(http, "http://127.0.0.1:" + deployment.registrationPort, accessToken);
+                WebClient customer = LoadTests.client(http, "http://127.0.0.1:" + deployment.customerPort, accessToken);
+                Map<Scenario, Double> scenarios = new LinkedHashMap<>();
+                scenarios.put(new Scenario("register", () -> register(registration)), rate("load.register.rate", 5));
+                scenarios.put(new Scenario("confirm", () -> confirm(registration, deployment.sendGrid)),
+                        rate("load.confirm.rate", 2));
+                scenarios.put(new Scenario("token_status", () -> tokenStatus(registration)), rate("load.token-status.rate", 2));
+                scenarios.put(new Scenario("customer", () -> customer(customer)), rate("load.customer.rate", 20));
+
+                run(scenarios, duration("load.warmup", "20s"));
+                scenarios.keySet().forEach(Scenario::reset);
+                Duration measured = duration("load.duration", "60s");
+                run(scenarios, measured);
+
+                String results = String.format("{\"benchmark\":\"end-to-end-load\",\"durationSeconds\":%d,"
+                                + "\"keycloakAdminCalls\":%d,\"emailsSent\":%d,\"scenarios\":[%s]}",
+                        measured.toSeconds(), deployment.keycloak.adminCalls(), deployment.sendGrid.sent(),
+                        scenarios.keySet().stream().map(Scenario::json).collect(Collectors.joining(",")));
+                System.out.println(results);
+                Files.writeString(RESULTS, results + System.lineSeparator());
+
+                scenarios.keySet().forEach(scenario ->
+                        assertTrue(scenario.ok() > 0, scenario.name() + ": nothing succeeded"));
+            } finally {
+                provider.disposeLater().block();
+            }
+        }
+    }
+
+    private Mono<Outcome> register(WebClient client) {
+        Map<String, String> request = LoadTests.registration(customers.incrementAndGet());
+        return client.post()
+                .uri("/auth/nngc/registration")
+                .bodyValue(request)
+                .exchangeToMono(response -> response.bodyToMono(JsonNode.class)
+                        .defaultIfEmpty(NullNode.getInstance())
+                        .map(body -> {
+                            if (response.statusCode() != HttpStatus.CREATED || !"SUCCESS".equals(body.path("status").asText())) {
+                                return Outcome.FAILED;
+                            }
+                            unchecked.add(body.path("token").path(0).asText());
+                            customerIds.add(body.path("customerDTO").path("id").asLong());
+                            return Outcome.OK;
+                        }));
+    }
+
+    private Mono<Outcome> confirm(WebClient client, SendGridStub sendGrid) {
+        String token = sendGrid.nextConfirmationToken();
+        while (token != null && !used.add(token)) {
+            token = sendGrid.nextConfirmationToken();
+        }
+        if (token == null) {
+            return Mono.just(Outcome.SKIPPED);
+        }
+        return client.get()
+                .uri("/auth/nngc/confirm?token={token}", token)
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(Outcome.of(response.statusCode() == HttpStatus.FOUND
+                                && String.valueOf(response.headers().asHttpHeaders().getLocation())
+                                        .endsWith("/email-verification-success"))));
+    }
+
+    private Mono<Outcome> tokenStatus(WebClient client) {
+        String token = unchecked.poll();
+        while (token != null && !used.add(token)) {
+            token = unchecked.poll();
+        }
+        if (token == null) {
+            return Mono.just(Outcome.SKIPPED);
+        }
+        return client.get()
+                .uri("/auth/nngc/token_status?token={token}", token)
+                .exchangeToMono(response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(status -> Outcome.of(response.statusCode() == HttpStatus.OK && "good".equals(status))));
+    }
+
+    private Mono<Outcome> customer(WebClient client) {
+        Long id = pick(customerIds);
+        if (id == null) {
+            return Mono.just(Outcome.SKIPPED);
+        }
+        return client.get()
+                .uri("/api/customers/{id}", id)
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(Outcome.of(response.statusCode().is2xxSuccessful())));
+    }
+
+    private static <T> T pick(List<T> pool) {
+        synchronized (pool) {
+            return pool.isEmpty() ? null : pool.get(ThreadLocalRandom.current().nextInt(pool.size()));
+        }
+    }
+
+    /** Every scenario at its own arrival rate for {@code duration}, all at once. */
+    private static void run(Map<Scenario, Double> scenarios, Duration duration) {
+        Flux.fromIterable(scenarios.entrySet())
+                .flatMap(scenario -> scenario.getKey().atRate(scenario.getValue(), duration))
+                .blockLast();
+    }
+}
@@ -0,0 +1,67 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live threads and used heap of a service, read from its {@code /actuator/metrics} every
+ * {@code interval} until closed, keeping the highest of each.
+ */
+final class JvmPeaks implements AutoCloseable {
+
+    private final AtomicLong threads = new AtomicLong();
+    private final AtomicLong heap = new AtomicLong();
+    private final Disposable sampler;
+
+    private JvmPeaks(WebClient actuator, Duration interval) {
+        sampler = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.zip(threads(actuator), heap(actuator)))
+                .subscribe(sample -> {
+                    threads.accumulateAndGet(sample.getT1(), Math::max);
+                    heap.accumulateAndGet(sample.getT2(), Math::max);
+                });
+    }
+
+    static JvmPeaks sample(String baseUrl) {
+        return new JvmPeaks(WebClient.create(baseUrl + "/actuator/metrics"), Duration.ofMillis(100));
+    }
+
+    /** Live threads right now. */
+    static long threads(String baseUrl) {
+        return threads(WebClient.create(baseUrl + "/actuator/metrics")).block();
+    }
+
+    long threads() {
+        return threads.get();
+    }
+
+    long heapMb() {
+        return heap.get() / (1024 * 1024);
+    }
+
+    @Override
+    public void close() {
+        sampler.dispose();
+    }
+
+    private static Mono<Long> threads(WebClient actuator) {
+        return value(actuator.get().uri("/jvm.threads.live"));
+    }
+
+    private static Mono<Long> heap(WebClient actuator) {
+        return value(actuator.get().uri("/jvm.memory.used?tag=area:heap"));
+    }
+
+    private static Mono<Long> value(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(metric -> metric.path("measurements").path(0).path("value").asLong());
+    }
+}
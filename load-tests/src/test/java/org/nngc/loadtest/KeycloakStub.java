@@ -0,0 +1,216 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * Keycloak as far as the services use it: the realm's OIDC metadata and keys, a token endpoint
+ * that hands every client the same signed access token, and the admin users API that
+ * customer-service drives on registration and confirmation. The admin API keeps its users in
+ * memory, so the search on confirmation finds the account registration created, and answers after
+ * {@code adminLatency} like a remote Keycloak would.
+ */
+class KeycloakStub {
+
+    static final String REALM = "nngc-realm";
+
+    private static final Pattern USER_PATH = Pattern.compile(".*/users/([^/?]+)$");
+
+    private final Duration adminLatency;
+    private final RSAKey signingKey;
+    private final Users users = new Users();
+    private WireMockServer server;
+    private String accessToken;
+
+    KeycloakStub(Duration adminLatency) {
+        this.adminLatency = adminLatency;
+        try {
+            this.signingKey = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** To register with the server before it starts. */
+    ResponseDefinitionTransformerV2 extension() {
+        return users;
+    }
+
+    void stub(WireMockServer server) {
+        this.server = server;
+        try {
+            this.accessToken = sign(Duration.ofHours(12));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        String issuer = issuer();
+        server.stubFor(get(urlPathEqualTo("/realms/" + REALM + "/.well-known/openid-configuration"))
+                .willReturn(okJson(json(Map.of(
+                        "issuer", issuer,
+                        "authorization_endpoint", issuer + "/protocol/openid-connect/auth",
+                        "token_endpoint", issuer + "/protocol/openid-connect/token",
+                        "jwks_uri", issuer + "/protocol/openid-connect/certs",
+                        "userinfo_endpoint", issuer + "/protocol/openid-connect/userinfo",
+                        "grant_types_supported", List.of("client_credentials", "password"),
+                        "response_types_supported", List.of("code", "token"),
+                        "subject_types_supported", List.of("public"),
+                        "id_token_signing_alg_values_supported", List.of("RS256"),
+                        "token_endpoint_auth_methods_supported", List.of("client_secret_basic", "client_secret_post"))))));
+        server.stubFor(get(urlPathEqualTo("/realms/" + REALM + "/protocol/openid-connect/certs"))
+                .willReturn(okJson(new JWKSet(signingKey.toPublicJWK()).toString())));
+        // Client credentials for the services, password grant for customer-service's admin client (master realm)
+        server.stubFor(post(urlPathMatching("/realms/[^/]+/protocol/openid-connect/token"))
+                .willReturn(okJson(json(Map.of(
+                        "access_token", accessToken,
+                        "token_type", "Bearer",
+                        "expires_in", Duration.ofHours(12).toSeconds(),
+                        "refresh_expires_in", 0,
+                        "scope", "openid profile")))));
+        server.stubFor(any(urlMatching("/admin/realms/" + REALM + "/.*"))
+                .willReturn(aResponse().withFixedDelay((int) adminLatency.toMillis()).withTransformers(Users.NAME)));
+    }
+
+    String issuer() {
+        return server.baseUrl() + "/realms/" + REALM;
+    }
+
+    /** What every client gets from the token endpoint; good for the whole run. */
+    String accessToken() {
+        return accessToken;
+    }
+
+    long adminCalls() {
+        return users.calls.get();
+    }
+
+    private String sign(Duration lifetime) throws JOSEException {
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(issuer())
+                        .subject("service-account-load-test")
+                        .claim("azp", "load-test")
+                        .claim("scope", "openid profile")
+                        .issueTime(Date.from(now))
+                        .expirationTime(Date.from(now.plus(lifetime)))
+                        .build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static String json(Object value) {
+        try {
+            return Users.MAPPER.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The admin users API over an in-memory map of user representations by ID. */
+    private static final class Users implements ResponseDefinitionTransformerV2 {
+
+        static final String NAME = "keycloak-users";
+        static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final Map<String, ObjectNode> byId = new ConcurrentHashMap<>();
+        private final Map<String, String> idsByUsername = new ConcurrentHashMap<>();
+        private final AtomicLong calls = new AtomicLong();
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        /** Only for the stubs that name it. */
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            calls.incrementAndGet();
+            LoggedRequest request = serveEvent.getRequest();
+            String path = request.getUrl().replaceFirst("\\?.*", "");
+            String method = request.getMethod().getName();
+            ResponseDefinitionBuilder response = ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition()).but();
+            try {
+                if (path.endsWith("/roles/user")) {
+                    return response.withStatus(200).withHeader("Content-Type", "application/json")
+                            .withBody("{\"id\":\"" + UUID.nameUUIDFromBytes("user".getBytes()) + "\",\"name\":\"user\"}").build();
+                }
+                if (path.endsWith("/users") && "GET".equals(method)) {
+                    String search = request.queryParameter("search").isPresent() ? request.queryParameter("search").firstValue() : "";
+                    String id = idsByUsername.get(search.toLowerCase());
+                    ObjectNode user = id != null ? byId.get(id) : null;
+                    return response.withStatus(200).withHeader("Content-Type", "application/json")
+                            .withBody(user != null ? "[" + user + "]" : "[]").build();
+                }
+                if (path.endsWith("/users") && "POST".equals(method)) {
+                    ObjectNode user = (ObjectNode) MAPPER.readTree(request.getBodyAsString());
+                    String id = UUID.randomUUID().toString();
+                    user.put("id", id);
+                    byId.put(id, user);
+                    idsByUsername.put(user.path("username").asText().toLowerCase(), id);
+                    return response.withStatus(201).withHeader("Location", request.getAbsoluteUrl().replaceFirst("\\?.*", "") + "/" + id).build();
+                }
+                Matcher userPath = USER_PATH.matcher(path);
+                if (userPath.matches() && "PUT".equals(method)) {
+                    JsonNode update = MAPPER.readTree(request.getBodyAsString());
+                    byId.computeIfPresent(userPath.group(1), (id, user) -> user.setAll((ObjectNode) update));
+                    return response.withStatus(204).build();
+                }
+                if (userPath.matches() && "DELETE".equals(method)) {
+                    ObjectNode removed = byId.remove(userPath.group(1));
+                    if (removed != null) {
+                        idsByUsername.remove(removed.path("username").asText().toLowerCase());
+                    }
+                    return response.withStatus(204).build();
+                }
+                // reset-password, role-mappings: accepted and forgotten
+                return response.withStatus(204).build();
+            } catch (IOException e) {
+                return response.withStatus(400).withBody(e.getMessage()).build();
+            }
+        }
+    }
+}
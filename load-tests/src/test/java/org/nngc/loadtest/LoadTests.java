@@ -0,0 +1,74 @@
+package org.nngc.loadtest;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/** What the load tests share besides {@link Scenario}, {@link LocalDeployment} and {@link ServiceProcesses}. */
+final class LoadTests {
+
+    /** How long a service may take to report UP. */
+    static final Duration STARTUP = Duration.ofMinutes(3);
+
+    private LoadTests() {
+    }
+
+    /** Processes for the service jars the {@code load-test} profile copied, each with a {@code -Dload.service-heap} heap. */
+    static ServiceProcesses services(Path logs) {
+        return new ServiceProcesses(Path.of(System.getProperty("load-test.services.directory", "target/services")), logs,
+                List.of("-Xmx" + System.getProperty("load.service-heap", "512m")));
+    }
+
+    /** Unbounded waiting, so the connection pool is never what limits a run. */
+    static ConnectionProvider connections(String name, int maxConnections) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+    }
+
+    static WebClient client(HttpClient http, String baseUrl, String accessToken) {
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(http.responseTimeout(Duration.ofSeconds(60))))
+                .defaultHeader("Authorization", "Bearer " + accessToken)
+                .build();
+    }
+
+    /** A registration for a new customer; {@code n} keeps the phone number unique. */
+    static Map<String, String> registration(long n) {
+        String id = UUID.randomUUID().toString().substring(0, 12);
+        return Map.ofEntries(
+                Map.entry("firstName", "Load"),
+                Map.entry("lastName", "Test"),
+                Map.entry("email", id + "@example.com"),
+                Map.entry("password", "load-test-password"),
+                Map.entry("phone", String.valueOf(8040000000L + n)),
+                Map.entry("houseNumber", "12"),
+                Map.entry("streetName", "Main St"),
+                Map.entry("city", "Kilmarnock"),
+                Map.entry("state", "VA"),
+                Map.entry("service", "weekly"),
+                Map.entry("zipCode", "22482"));
+    }
+
+    static double rate(String property, double defaultRate) {
+        return Double.parseDouble(System.getProperty(property, String.valueOf(defaultRate)));
+    }
+
+    /** {@code 250ms}, {@code 20s} or {@code 2m}. */
+    static Duration duration(String property, String defaultValue) {
+        String value = System.getProperty(property, defaultValue).trim();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+}
@@ -0,0 +1,107 @@
+package org.nngc.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * The stand-ins (WireMock for Keycloak and SendGrid), a port for every service and the arguments
+ * each service needs to find them and each other without Eureka. Tracing is left to the caller:
+ * pass {@link #NO_TRACING} unless it is what's being measured.
+ */
+final class LocalDeployment implements AutoCloseable {
+
+    static final String NO_TRACING = "--management.tracing.enabled=false";
+
+    final KeycloakStub keycloak;
+    final SendGridStub sendGrid;
+    final int customerPort = ServiceProcesses.freePort();
+    final int customerGrpcPort = ServiceProcesses.freePort();
+    final int tokenPort = ServiceProcesses.freePort();
+    final int tokenGrpcPort = ServiceProcesses.freePort();
+    final int emailPort = ServiceProcesses.freePort();
+    final int registrationPort = ServiceProcesses.freePort();
+
+    private final WireMockServer stubs;
+
+    LocalDeployment(Duration keycloakLatency, Duration sendGridLatency) {
+        keycloak = new KeycloakStub(keycloakLatency);
+        sendGrid = new SendGridStub(sendGridLatency);
+        stubs = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(16)
+                .disableRequestJournal()
+                .extensions(keycloak.extension(), sendGrid));
+        stubs.start();
+        keycloak.stub(stubs);
+        sendGrid.stub(stubs);
+    }
+
+    List<String> tokenService(String... arguments) {
+        return arguments(arguments,
+                "--nngc.grpc.server.port=" + tokenGrpcPort,
+                "--nngc.grpc.client.services.customer-service.address=127.0.0.1:" + customerGrpcPort);
+    }
+
+    List<String> emailService(String... arguments) {
+        return arguments(arguments,
+                "--sendgrid.api-key=load-test",
+                "--sendgrid.base-url=" + stubs.baseUrl());
+    }
+
+    /** Against an in-memory H2 database in MySQL mode. */
+    List<String> customerService(String... arguments) {
+        return arguments(arguments,
+                "--nngc.grpc.server.port=" + customerGrpcPort,
+                "--nngc.grpc.client.services.token-service.address=127.0.0.1:" + tokenGrpcPort,
+                "--spring.datasource.url=jdbc:h2:mem:customers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--keycloak.auth-server-url=" + stubs.baseUrl(),
+                "--application.base-url=http://127.0.0.1:" + registrationPort);
+    }
+
+    List<String> registrationService(String... arguments) {
+        return arguments(arguments,
+                "--application.base-url=http://127.0.0.1:" + registrationPort);
+    }
+
+    @Override
+    public void close() {
+        stubs.stop();
+    }
+
+    /** What every service needs to find the stand-ins and the other services' HTTP ports. */
+    private List<String> common() {
+        String issuer = keycloak.issuer();
+        List<String> arguments = new ArrayList<>(List.of(
+                "--eureka.client.enabled=false",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer,
+                "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + issuer + "/protocol/openid-connect/certs",
+                "--spring.security.oauth2.client.provider.keycloak.issuer-uri=" + issuer,
+                "--spring.security.oauth2.client.provider.keycloak.token-uri=" + issuer + "/protocol/openid-connect/token",
+                "--spring.security.oauth2.client.provider.keycloak.jwk-set-uri=" + issuer + "/protocol/openid-connect/certs"));
+        Map.of("customer-service", customerPort, "token-service", tokenPort, "email-service", emailPort)
+                .forEach((service, port) -> arguments.add(
+                        "--spring.cloud.discovery.client.simple.instances." + service + "[0].uri=http://127.0.0.1:" + port));
+        return arguments;
+    }
+
+    /** The common ones, then the service's own, then the caller's. */
+    private List<String> arguments(String[] callers, String... own) {
+        List<String> all = common();
+        all.addAll(Arrays.asList(own));
+        all.addAll(Arrays.asList(callers));
+        return all;
+    }
+}
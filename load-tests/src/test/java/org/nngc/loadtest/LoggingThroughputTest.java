@@ -0,0 +1,110 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.loadtest.Scenario.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.nngc.loadtest.LoadTests.duration;
+
+/**
+ * Requests per second on customer-service at INFO with the previous logging setup (Spring Boot's
+ * synchronous console appender, {@code show-sql} and {@code format_sql} on) and with the shared one
+ * from nngc-common (ring-buffer appender, SQL off stdout, hot-path loggers rate-limited). Same
+ * workloads as {@link TracingOverheadTest}, with tracing off so that only logging differs.
+ * <p>
+ * {@code mvn install -DskipTests} first, then
+ * {@code mvn test -pl load-tests -Dbenchmark=true -Dtest=LoggingThroughputTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingThroughputTest {
+
+    private static final Path LOGS = Path.of("target", "load-test", "logging-throughput");
+    private static final int LOOKUPS = 8_000;
+    private static final int LOOKUP_CONCURRENCY = 64;
+    private static final int REGISTRATIONS = 400;
+    private static final int REGISTRATION_CONCURRENCY = 200;
+
+    private final AtomicLong customers = new AtomicLong();
+
+    @Test
+    void compareLoggingSetups() throws Exception {
+        String syncConfig = Path.of(LoggingThroughputTest.class.getResource("/logback-sync.xml").toURI()).toString();
+        Map<String, String[]> setups = Map.of(
+                "previous", new String[] {"--logging.config=" + syncConfig,
+                        "--spring.jpa.show-sql=true", "--spring.jpa.properties.hibernate.format_sql=true"},
+                "shared", new String[0]);
+        try (LocalDeployment deployment = new LocalDeployment(duration("load.keycloak-latency", "10ms"),
+                duration("load.sendgrid-latency", "0ms"));
+             ServiceProcesses services = LoadTests.services(LOGS)) {
+            services.start("token-service", deployment.tokenPort, deployment.tokenService(LocalDeployment.NO_TRACING));
+            services.start("email-service", deployment.emailPort, deployment.emailService(LocalDeployment.NO_TRACING));
+            // A discarded warmup run and the previous-shared-shared-previous order keep token- and
+            // email-service warming up out of the comparison
+            run(deployment, services, "warmup", setups.get("shared"));
+            List<String> results = new ArrayList<>();
+            for (String setup : List.of("previous", "shared", "shared", "previous")) {
+                results.add(run(deployment, services, setup, setups.get(setup)));
+            }
+            System.out.printf("{\"benchmark\":\"logging-throughput\",\"results\":[%s]}%n", String.join(",", results));
+        }
+    }
+
+    private String run(LocalDeployment deployment, ServiceProcesses services, String setup, String... overrides)
+            throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(
+                LocalDeployment.NO_TRACING,
+                "--nngc.password-hashing.strength=4",
+                "--nngc.password-hashing.queue-capacity=4096",
+                "--logging.level.root=INFO",
+                "--logging.level.org.nngc=INFO"));
+        arguments.addAll(List.of(overrides));
+        ServiceProcesses.Service customerService = services.start("customer-service", deployment.customerPort,
+                deployment.customerService(arguments.toArray(String[]::new)));
+        services.awaitHealthy(LoadTests.STARTUP);
+        ConnectionProvider provider = LoadTests.connections("logging-throughput", 1024);
+        try {
+            WebClient client = LoadTests.client(HttpClient.create(provider), customerService.baseUrl(),
+                    deployment.keycloak.accessToken());
+            long customerId = client.post()
+                    .uri("/api/customers/register")
+                    .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .map(body -> body.path("customerDTO").path("id").asLong())
+                    .block();
+            Scenario lookup = new Scenario("lookup", () -> client.get()
+                    .uri("/api/customers/{id}", customerId)
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(Outcome.of(response.statusCode() == HttpStatus.OK))));
+            Scenario register = new Scenario("register", () -> client.post()
+                    .uri("/api/customers/register")
+                    .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(Outcome.of(response.statusCode() == HttpStatus.CREATED))));
+
+            lookup.inFlight(LOOKUPS / 2, LOOKUP_CONCURRENCY);
+            register.inFlight(REGISTRATIONS / 2, REGISTRATION_CONCURRENCY);
+            lookup.reset();
+            register.reset();
+            lookup.inFlight(LOOKUPS, LOOKUP_CONCURRENCY);
+            register.inFlight(REGISTRATIONS, REGISTRATION_CONCURRENCY);
+            assertEquals(0, lookup.failed() + register.failed(), "requests failed with setup " + setup);
+            return String.format("{\"setup\":\"%s\",\"lookup\":%s,\"register\":%s}", setup, lookup.json(), register.json());
+        } finally {
+            provider.disposeLater().block();
+            services.stop(customerService);
+        }
+    }
+}
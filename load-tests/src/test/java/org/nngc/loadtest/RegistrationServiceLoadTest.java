@@ -0,0 +1,130 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.loadtest.Scenario.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.nngc.loadtest.LoadTests.duration;
+
+/**
+ * registration-service on its own, against a stub customer-service:
+ * <ul>
+ *   <li>{@code register}: {@code POST /auth/nngc/registration}, 64 at a time, with customer-service
+ *       answering after {@code -Dload.register-latency}: what the shared, pooled client gets through;</li>
+ *   <li>{@code confirm}: N {@code GET /auth/nngc/confirm} held open at once while customer-service takes
+ *       {@code -Dload.confirm-latency}, with the service's live threads before and peak threads and heap
+ *       during.</li>
+ * </ul>
+ * The service runs with its shipped {@code nngc.http-client.pool} sizing, so confirmations rejected
+ * by the pool show up as failures here.
+ * {@code mvn install -DskipTests} first, then
+ * {@code mvn test -pl load-tests -Dbenchmark=true -Dtest=RegistrationServiceLoadTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RegistrationServiceLoadTest {
+
+    private static final Path LOGS = Path.of("target", "load-test", "registration-service");
+    private static final int REGISTRATIONS = 20_000;
+    private static final int REGISTRATION_CONCURRENCY = 64;
+    private static final int[] CONFIRM_CONCURRENCY = {100, 500, 2000};
+
+    private final AtomicLong customers = new AtomicLong();
+    private final AtomicInteger tokens = new AtomicInteger();
+
+    @Test
+    void registerAndConfirm() throws Exception {
+        Duration registerLatency = duration("load.register-latency", "2ms");
+        Duration confirmLatency = duration("load.confirm-latency", "1s");
+        try (LocalDeployment deployment = new LocalDeployment(Duration.ZERO, Duration.ZERO);
+             ServiceProcesses services = LoadTests.services(LOGS)) {
+            // Found through the deployment's discovery entry for customer-service
+            DisposableServer customerService = HttpServer.create()
+                    .host("127.0.0.1")
+                    .port(deployment.customerPort)
+                    .route(routes -> routes
+                            .post("/api/customers/register", (request, response) -> request.receive().then()
+                                    .then(Mono.delay(registerLatency))
+                                    .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                            .sendString(Mono.just("{\"message\":\"Customer registered\",\"status\":\"SUCCESS\"}"))
+                                            .then()))
+                            .post("/api/customers/confirm-email", (request, response) -> request.receive().then()
+                                    .then(Mono.delay(confirmLatency))
+                                    .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                            .sendString(Mono.just("{\"message\":\"Email confirmed\",\"status\":\"SUCCESS\"}"))
+                                            .then())))
+                    .bindNow();
+            ConnectionProvider provider = LoadTests.connections("registration-service", 4096);
+            try {
+                ServiceProcesses.Service registrationService = services.start("registration-service",
+                        deployment.registrationPort, deployment.registrationService(LocalDeployment.NO_TRACING,
+                                // Per-request INFO logging would be the bottleneck, not the server
+                                "--logging.level.root=WARN",
+                                "--logging.level.org.nngc=WARN"));
+                services.awaitHealthy(LoadTests.STARTUP);
+
+                WebClient client = LoadTests.client(HttpClient.create(provider), registrationService.baseUrl(),
+                        deployment.keycloak.accessToken());
+                Scenario register = new Scenario("register", () -> client.post()
+                        .uri("/auth/nngc/registration")
+                        .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                        // Created with a FAILED body when customer-service could not be reached
+                        .exchangeToMono(response -> response.bodyToMono(JsonNode.class)
+                                .map(body -> Outcome.of(response.statusCode() == HttpStatus.CREATED
+                                        && "SUCCESS".equals(body.path("status").asText())))));
+                Scenario confirm = new Scenario("confirm", () -> client.get()
+                        .uri("/auth/nngc/confirm?token={token}", "token-" + tokens.incrementAndGet())
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(Outcome.of(response.statusCode() == HttpStatus.FOUND
+                                        && String.valueOf(response.headers().asHttpHeaders().getLocation())
+                                                .endsWith("/email-verification-success")))));
+
+                // JIT warm-up; on a small box the first few thousand requests are far slower
+                register.inFlight(2_000, REGISTRATION_CONCURRENCY);
+                for (int i = 0; i < 5; i++) {
+                    confirm.inFlight(500, 500);
+                }
+                register.reset();
+                register.inFlight(REGISTRATIONS, REGISTRATION_CONCURRENCY);
+                assertEquals(0, register.failed(), "registrations failed");
+
+                List<String> confirmations = new ArrayList<>();
+                for (int concurrency : CONFIRM_CONCURRENCY) {
+                    confirm.reset();
+                    long threadsBefore = JvmPeaks.threads(registrationService.baseUrl());
+                    try (JvmPeaks peaks = JvmPeaks.sample(registrationService.baseUrl())) {
+                        confirm.inFlight(concurrency, concurrency);
+                        confirmations.add(String.format("{\"concurrency\":%d,\"threadsBefore\":%d,\"peakLiveThreads\":%d,"
+                                        + "\"peakHeapMb\":%d,\"confirmations\":%s}",
+                                concurrency, threadsBefore, peaks.threads(), peaks.heapMb(), confirm.json()));
+                    }
+                    assertEquals(0, confirm.failed(), "confirmations not redirected at concurrency " + concurrency);
+                }
+
+                System.out.printf("{\"benchmark\":\"registration-service-load\",\"registerLatencyMs\":%d,"
+                                + "\"confirmLatencyMs\":%d,\"register\":%s,\"confirm\":[%s]}%n",
+                        registerLatency.toMillis(), confirmLatency.toMillis(), register.json(),
+                        String.join(",", confirmations));
+            } finally {
+                provider.disposeLater().block();
+                customerService.disposeNow();
+            }
+        }
+    }
+}
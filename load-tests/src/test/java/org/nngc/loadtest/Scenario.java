@@ -0,0 +1,137 @@
+package org.nngc.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * One kind of request and what became of it: outcomes, and latencies of everything that was not
+ * skipped. {@link #atRate} drives it open-model, at a fixed arrival rate with latency measured from
+ * when each request was due, so a backed-up service shows up in the percentiles instead of quietly
+ * lowering the rate. {@link #inFlight} drives it closed-model, a fixed number of requests at a time.
+ */
+final class Scenario {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final Supplier<Mono<Outcome>> call;
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private double targetRate;
+    private long elapsedNanos;
+
+    Scenario(String name, Supplier<Mono<Outcome>> call) {
+        this.name = name;
+        this.call = call;
+    }
+
+    String name() {
+        return name;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    /** {@code rate} requests a second for {@code duration}, however long the answers take. */
+    Mono<Void> atRate(double rate, Duration duration) {
+        targetRate = rate;
+        long requests = (long) (rate * duration.toNanos() / 1e9);
+        if (requests == 0) {
+            return Mono.empty();
+        }
+        long interval = (long) (1e9 / rate);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.interval(Duration.ofNanos(interval))
+                    .onBackpressureBuffer()
+                    .take(requests)
+                    .flatMap(tick -> {
+                        long due = start + (tick + 1) * interval;
+                        return Mono.defer(call)
+                                .onErrorReturn(Outcome.FAILED)
+                                .doOnNext(outcome -> record(outcome, System.nanoTime() - due));
+                    }, 4096)
+                    .doFinally(signal -> elapsedNanos += System.nanoTime() - start)
+                    .then();
+        });
+    }
+
+    /** {@code requests} in all, {@code concurrency} of them at a time; returns once every one has answered. */
+    void inFlight(int requests, int concurrency) {
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long begin = System.nanoTime();
+                    return Mono.defer(call)
+                            .onErrorReturn(Outcome.FAILED)
+                            .doOnNext(outcome -> record(outcome, System.nanoTime() - begin));
+                }, concurrency)
+                .blockLast();
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    private void record(Outcome outcome, long latencyNanos) {
+        switch (outcome) {
+            case OK -> ok.increment();
+            case FAILED -> failed.increment();
+            case SKIPPED -> skipped.increment();
+        }
+        if (outcome != Outcome.SKIPPED) {
+            latencies.add(latencyNanos);
+        }
+    }
+
+    /** Forgets everything so far, e.g. the warmup. */
+    void reset() {
+        ok.reset();
+        failed.reset();
+        skipped.reset();
+        latencies.clear();
+        elapsedNanos = 0;
+    }
+
+    /** Counts, throughput over the time spent driving and latency percentiles since the last {@link #reset}. */
+    String json() {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        StringBuilder percentiles = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            percentiles.append(String.format(",\"p%sMs\":%.1f",
+                    String.valueOf(percentile).replace(".0", "").replace('.', '_'), millis(sorted, percentile)));
+        }
+        double seconds = elapsedNanos / 1e9;
+        return String.format("{\"scenario\":\"%s\",%s\"requests\":%d,\"ok\":%d,\"failed\":%d,"
+                        + "\"skipped\":%d,\"throughput\":%.1f%s,\"maxMs\":%.1f}",
+                name, targetRate > 0 ? String.format("\"targetRate\":%.1f,", targetRate) : "",
+                sorted.length, ok.sum(), failed.sum(), skipped.sum(), seconds > 0 ? ok.sum() / seconds : 0,
+                percentiles, sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    /** The nearest-rank {@code percentile} (0-100) of {@code sorted} nanoseconds, in milliseconds. */
+    static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    enum Outcome {
+        OK, FAILED, SKIPPED;
+
+        static Outcome of(boolean ok) {
+            return ok ? OK : FAILED;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+/**
+ * SendGrid's {@code POST /v3/mail/send}: answers 202 after {@code latency} and keeps the
+ * confirmation token of every registration email, which is what the confirm scenario clicks.
+ */
+class SendGridStub implements ResponseDefinitionTransformerV2 {
+
+    private static final String NAME = "sendgrid-outbox";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern CONFIRMATION_TOKEN = Pattern.compile("/auth/nngc/confirm\\?token=([A-Za-z0-9-]+)");
+
+    private final Duration latency;
+    private final Queue<String> confirmationTokens = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sent = new AtomicLong();
+
+    SendGridStub(Duration latency) {
+        this.latency = latency;
+    }
+
+    void stub(WireMockServer server) {
+        server.stubFor(post(urlPathEqualTo("/v3/mail/send"))
+                .willReturn(aResponse().withStatus(202).withFixedDelay((int) latency.toMillis()).withTransformers(NAME)));
+    }
+
+    /** The next confirmation token nobody has used yet, or {@code null}. */
+    String nextConfirmationToken() {
+        return confirmationTokens.poll();
+    }
+
+    long sent() {
+        return sent.get();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /** Only for the stubs that name it. */
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        sent.incrementAndGet();
+        try {
+            JsonNode mail = MAPPER.readTree(serveEvent.getRequest().getBodyAsString());
+            for (JsonNode content : mail.path("content")) {
+                Matcher token = CONFIRMATION_TOKEN.matcher(content.path("value").asText());
+                if (token.find()) {
+                    confirmationTokens.add(token.group(1));
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Still counted as sent; there is just no token to confirm
+        }
+        return serveEvent.getResponseDefinition();
+    }
+}
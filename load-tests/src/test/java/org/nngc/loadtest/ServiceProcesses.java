@@ -0,0 +1,133 @@
+package org.nngc.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The services under test, each in its own JVM started from its executable jar (the
+ * {@code exec} classifier), with its output in {@code <logs>/<service>.log}.
+ */
+class ServiceProcesses implements AutoCloseable {
+
+    private final Path jars;
+    private final Path logs;
+    private final List<String> jvmOptions;
+    private final List<Service> started = new ArrayList<>();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    ServiceProcesses(Path jars, Path logs, List<String> jvmOptions) {
+        this.jars = jars;
+        this.logs = logs;
+        this.jvmOptions = jvmOptions;
+    }
+
+    /** Starts {@code <name>-exec.jar}; Spring arguments ({@code --key=value}) win over its application properties. */
+    Service start(String name, int port, List<String> arguments) throws IOException {
+        Path jar = jars.resolve(name + "-exec.jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " is missing; run mvn install -DskipTests first");
+        }
+        Files.createDirectories(logs);
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        Path log = logs.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        Service service = new Service(name, port, process, log);
+        started.add(service);
+        return service;
+    }
+
+    /** Waits until every started service reports UP on {@code /actuator/health}. */
+    void awaitHealthy(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Service service : started) {
+            while (!healthy(service)) {
+                if (!service.process().isAlive()) {
+                    throw new IllegalStateException(service.name() + " exited with " + service.process().exitValue()
+                            + "; see " + service.log());
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(service.name() + " not healthy after " + timeout + "; see " + service.log());
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+
+    private boolean healthy(Service service) throws InterruptedException {
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + service.port() + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(2))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Shuts one service down gracefully, so it flushes what it buffers, and waits for it to exit. */
+    void stop(Service service) throws InterruptedException {
+        service.process().destroy();
+        awaitExit(service);
+        started.remove(service);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        started.forEach(service -> service.process().destroy());
+        for (Service service : started) {
+            awaitExit(service);
+        }
+    }
+
+    private static void awaitExit(Service service) throws InterruptedException {
+        if (!service.process().waitFor(30, TimeUnit.SECONDS)) {
+            service.process().destroyForcibly();
+        }
+    }
+
+    /**
+     * A port nothing listens on, below the usual ephemeral range: an OS-assigned one can be taken by
+     * some service's outgoing connection before the service that was meant to bind it starts.
+     */
+    static int freePort() {
+        IOException last = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int port = ThreadLocalRandom.current().nextInt(20000, 32000);
+            try (ServerSocket socket = new ServerSocket(port)) {
+                return socket.getLocalPort();
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        throw new UncheckedIOException("No free port", last);
+    }
+
+    record Service(String name, int port, Process process, Path log) {
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + port;
+        }
+    }
+}
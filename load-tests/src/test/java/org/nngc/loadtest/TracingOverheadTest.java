@@ -0,0 +1,134 @@
+package org.nngc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.nngc.loadtest.Scenario.Outcome;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nngc.loadtest.LoadTests.duration;
+
+/**
+ * Requests per second on customer-service with tracing off, at the default head sample rate and at
+ * 1.0, exporting over OTLP/HTTP to an in-process sink. Two workloads: {@code GET /api/customers/{id}}
+ * (server span and JPA, the per-request floor) and {@code POST /api/customers/register} (context
+ * carried across the registration scheduler and out over gRPC). Keycloak's admin API answers after
+ * {@code -Dload.keycloak-latency}; token- and email-service run untraced.
+ * <p>
+ * {@code mvn install -DskipTests} first, then
+ * {@code mvn test -pl load-tests -Dbenchmark=true -Dtest=TracingOverheadTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TracingOverheadTest {
+
+    private static final Path LOGS = Path.of("target", "load-test", "tracing-overhead");
+    private static final int LOOKUPS = 8_000;
+    private static final int LOOKUP_CONCURRENCY = 64;
+    private static final int REGISTRATIONS = 400;
+    private static final int REGISTRATION_CONCURRENCY = 200;
+
+    private final AtomicLong customers = new AtomicLong();
+
+    @Test
+    void compareSampleRates() throws Exception {
+        HttpServer collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        AtomicInteger exports = new AtomicInteger();
+        collector.createContext("/v1/traces", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exports.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+        try (LocalDeployment deployment = new LocalDeployment(duration("load.keycloak-latency", "10ms"),
+                duration("load.sendgrid-latency", "0ms"));
+             ServiceProcesses services = LoadTests.services(LOGS)) {
+            services.start("token-service", deployment.tokenPort, deployment.tokenService(LocalDeployment.NO_TRACING));
+            services.start("email-service", deployment.emailPort, deployment.emailService(LocalDeployment.NO_TRACING));
+            String endpoint = "http://127.0.0.1:" + collector.getAddress().getPort() + "/v1/traces";
+            Map<String, String[]> modes = Map.of(
+                    "off", new String[] {LocalDeployment.NO_TRACING, "--spring.reactor.context-propagation=limited"},
+                    "default", new String[0],
+                    "full", new String[] {"--management.tracing.sampling.probability=1.0"});
+            // token- and email-service warm up over the first runs; a discarded warmup run and the
+            // off-default-full-full-default-off order keep that drift out of the comparison
+            run(deployment, services, "warmup", endpoint, modes.get("full"));
+            List<String> results = new ArrayList<>();
+            for (String mode : List.of("off", "default", "full", "full", "default", "off")) {
+                int exportsBefore = exports.get();
+                results.add(run(deployment, services, mode, endpoint, modes.get(mode)));
+                // Spans are flushed on shutdown; only the off runs may have sent none
+                int sent = exports.get() - exportsBefore;
+                if (!"off".equals(mode)) {
+                    assertTrue(sent > 0, "no spans exported in mode " + mode);
+                } else {
+                    assertEquals(0, sent, "spans exported with tracing off");
+                }
+            }
+            System.out.printf("{\"benchmark\":\"tracing-overhead\",\"results\":[%s]}%n", String.join(",", results));
+        } finally {
+            collector.stop(0);
+        }
+    }
+
+    private String run(LocalDeployment deployment, ServiceProcesses services, String mode, String endpoint,
+                       String... overrides) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--management.otlp.tracing.endpoint=" + endpoint,
+                "--nngc.password-hashing.strength=4",
+                "--nngc.password-hashing.queue-capacity=4096",
+                "--logging.level.root=WARN",
+                "--logging.level.org.nngc=WARN"));
+        arguments.addAll(List.of(overrides));
+        ServiceProcesses.Service customerService = services.start("customer-service", deployment.customerPort,
+                deployment.customerService(arguments.toArray(String[]::new)));
+        services.awaitHealthy(LoadTests.STARTUP);
+        ConnectionProvider provider = LoadTests.connections("tracing-overhead", 1024);
+        try {
+            WebClient client = LoadTests.client(HttpClient.create(provider), customerService.baseUrl(),
+                    deployment.keycloak.accessToken());
+            long customerId = client.post()
+                    .uri("/api/customers/register")
+                    .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .map(body -> body.path("customerDTO").path("id").asLong())
+                    .block();
+            Scenario lookup = new Scenario("lookup", () -> client.get()
+                    .uri("/api/customers/{id}", customerId)
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(Outcome.of(response.statusCode() == HttpStatus.OK))));
+            Scenario register = new Scenario("register", () -> client.post()
+                    .uri("/api/customers/register")
+                    .bodyValue(LoadTests.registration(customers.incrementAndGet()))
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(Outcome.of(response.statusCode() == HttpStatus.CREATED))));
+
+            lookup.inFlight(LOOKUPS / 4, LOOKUP_CONCURRENCY);
+            register.inFlight(REGISTRATIONS / 4, REGISTRATION_CONCURRENCY);
+            lookup.reset();
+            register.reset();
+            lookup.inFlight(LOOKUPS, LOOKUP_CONCURRENCY);
+            register.inFlight(REGISTRATIONS, REGISTRATION_CONCURRENCY);
+            assertEquals(0, lookup.failed() + register.failed(), "requests failed in mode " + mode);
+            return String.format("{\"mode\":\"%s\",\"lookup\":%s,\"register\":%s}", mode, lookup.json(), register.json());
+        } finally {
+            provider.disposeLater().block();
+            services.stop(customerService);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.nngc.common.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lets the servlet services read and write {@code application/cbor} next to JSON, using Boot's
+ * configured {@code ObjectMapper} settings. JSON stays the first choice, so a caller only gets
+ * CBOR when it asks for it: the internal {@code WebClient} does, browsers and the gateway's
+ * public routes do not. WebFlux endpoints stay JSON-only.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration")
+@ConditionalOnClass(CBORFactory.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "nngc.cbor", name = "enabled", matchIfMissing = true)
+public class CborAutoConfiguration {
+
+    /** Picked up by Boot's {@code HttpMessageConverters}, which keeps it behind the JSON converter. */
+    @Bean
+    @ConditionalOnMissingBean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        ObjectMapper cborMapper = builder.getIfAvailable(Jackson2ObjectMapperBuilder::cbor)
+                .factory(new CBORFactory())
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -0,0 +1,48 @@
+package org.nngc.common.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in (monotonic) time by which the caller stops waiting for a request. On the wire it is
+ * sent as the remaining budget in milliseconds, so hosts never have to agree on wall-clock time.
+ */
+public record Deadline(long expiresAtNanos) {
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(expiresAtNanos - System.nanoTime(), 0));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * The earlier of this deadline and {@code budget} from now.
+     */
+    public Deadline atMost(Duration budget) {
+        Deadline other = after(budget);
+        return other.expiresAtNanos - expiresAtNanos < 0 ? other : this;
+    }
+
+    /**
+     * Parses a remaining-milliseconds header value; {@code null} when absent or malformed.
+     */
+    public static Deadline fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return after(Duration.ofMillis(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String toHeader() {
+        return Long.toString(remaining().toMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package org.nngc.common.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.Filter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Deadline propagation: an inbound filter for the web stack in use and a filter on every
+ * {@code WebClient.Builder} bean (including {@code @LoadBalanced} ones) for outbound calls.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnProperty(prefix = "nngc.deadline", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DeadlineMetrics deadlineMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DeadlineMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Filter.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletDeadlineConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<DeadlineServletFilter> deadlineServletFilter(DeadlineProperties properties,
+                                                                                   DeadlineMetrics metrics) {
+            FilterRegistrationBean<DeadlineServletFilter> registration =
+                    new FilterRegistrationBean<>(new DeadlineServletFilter(properties, metrics));
+            // Ahead of the security filter chain so expired requests do not pay for token checks
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveDeadlineConfiguration {
+
+        @Bean
+        public DeadlineWebFilter deadlineWebFilter(DeadlineProperties properties, DeadlineMetrics metrics) {
+            return new DeadlineWebFilter(properties, metrics);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(WebClient.class)
+    static class WebClientDeadlineConfiguration {
+
+        @Bean
+        public DeadlineExchangeFilterFunction deadlineExchangeFilterFunction(DeadlineMetrics metrics) {
+            return new DeadlineExchangeFilterFunction(metrics);
+        }
+
+        @Bean
+        public DeadlineHeaderExchangeFilterFunction deadlineHeaderExchangeFilterFunction(DeadlineProperties properties,
+                                                                                         DeadlineMetrics metrics) {
+            return new DeadlineHeaderExchangeFilterFunction(properties.getHeaderName(), metrics);
+        }
+
+        @Bean
+        static BeanPostProcessor deadlineWebClientBuilderPostProcessor(
+                ObjectProvider<DeadlineExchangeFilterFunction> filterFunction,
+                ObjectProvider<DeadlineHeaderExchangeFilterFunction> headerFilterFunction) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof WebClient.Builder builder) {
+                        builder.filters(filters -> {
+                            if (filters.stream().noneMatch(DeadlineExchangeFilterFunction.class::isInstance)) {
+                                // Outermost, so the budget also covers load balancing and token fetches
+                                filters.add(0, filterFunction.getObject());
+                                // Innermost so far, and after the retry filter, so every attempt sends what is left
+                                filters.add(headerFilterFunction.getObject());
+                            }
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.nngc.common.deadline;
+
+/**
+ * Deadline of the servlet request being handled on the current thread. Reactive code carries
+ * the deadline in the Reactor context under {@code Deadline.class} instead.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
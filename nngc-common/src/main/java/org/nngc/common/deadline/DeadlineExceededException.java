@@ -0,0 +1,11 @@
+package org.nngc.common.deadline;
+
+/**
+ * Raised instead of sending a downstream request whose deadline has already passed.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
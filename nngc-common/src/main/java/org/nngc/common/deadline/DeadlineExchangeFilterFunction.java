@@ -0,0 +1,51 @@
+package org.nngc.common.deadline;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Refuses to send requests whose deadline has passed and stops waiting for the response once it
+ * does, across every retry of the call. It sits outermost; the remaining budget is written per
+ * attempt by {@link DeadlineHeaderExchangeFilterFunction} further in, so a retry after a backoff
+ * forwards what is actually left. Calls made outside a request with a deadline pass through
+ * untouched.
+ */
+public class DeadlineExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private final DeadlineMetrics metrics;
+
+    public DeadlineExchangeFilterFunction(DeadlineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, DeadlineContext.current());
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isZero()) {
+                metrics.outboundSkipped();
+                return Mono.error(new DeadlineExceededException(
+                        "Deadline passed before calling " + request.method() + " " + request.url()));
+            }
+            return next.exchange(request)
+                    // Inner filters may run on other threads, where DeadlineContext is not set
+                    .contextWrite(inner -> inner.put(Deadline.class, deadline))
+                    .timeout(remaining)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        metrics.outboundTimedOut();
+                        return new DeadlineExceededException(
+                                "Deadline passed while waiting for " + request.method() + " " + request.url());
+                    });
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package org.nngc.common.deadline;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Writes the deadline's remaining budget into each attempt as it is sent, and skips an attempt
+ * (a retry after a backoff) once the deadline has passed. Sits inside the retry filter, as the
+ * innermost deadline filter; {@link DeadlineExchangeFilterFunction} stays outermost.
+ */
+public class DeadlineHeaderExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private final String headerName;
+    private final DeadlineMetrics metrics;
+
+    public DeadlineHeaderExchangeFilterFunction(String headerName, DeadlineMetrics metrics) {
+        this.headerName = headerName;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, DeadlineContext.current());
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isZero()) {
+                metrics.outboundSkipped();
+                return Mono.error(new DeadlineExceededException(
+                        "Deadline passed before calling " + request.method() + " " + request.url()));
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .headers(headers -> headers.set(headerName, Long.toString(remaining.toMillis())))
+                    .build());
+        });
+    }
+}
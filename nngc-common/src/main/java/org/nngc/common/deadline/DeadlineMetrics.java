@@ -0,0 +1,41 @@
+package org.nngc.common.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts work skipped because nobody was waiting for the result any more:
+ * {@code inbound} requests rejected on arrival, {@code outbound} calls never sent, and
+ * {@code outbound_timeout} calls abandoned when the deadline passed mid-flight.
+ */
+public class DeadlineMetrics {
+
+    private final Counter inbound;
+    private final Counter outbound;
+    private final Counter outboundTimeout;
+
+    public DeadlineMetrics(MeterRegistry meterRegistry) {
+        this.inbound = counter(meterRegistry, "inbound");
+        this.outbound = counter(meterRegistry, "outbound");
+        this.outboundTimeout = counter(meterRegistry, "outbound_timeout");
+    }
+
+    public void inboundRejected() {
+        inbound.increment();
+    }
+
+    public void outboundSkipped() {
+        outbound.increment();
+    }
+
+    public void outboundTimedOut() {
+        outboundTimeout.increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("deadline.work.avoided")
+                .description("Requests not started or abandoned because their deadline had passed")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package org.nngc.common.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Deadline propagation settings. {@code defaultTimeout} applies when a request arrives without
+ * a deadline and {@code maxTimeout} caps what a caller may ask for; both are meant for the edge
+ * (the gateway) and are left unset in the services, which only honour what they are sent.
+ */
+@ConfigurationProperties(prefix = "nngc.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    private String headerName = "X-NNGC-Deadline-Ms";
+    private Duration defaultTimeout;
+    private Duration maxTimeout;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getHeaderName() { return headerName; }
+    public void setHeaderName(String headerName) { this.headerName = headerName; }
+
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Duration getMaxTimeout() { return maxTimeout; }
+    public void setMaxTimeout(Duration maxTimeout) { this.maxTimeout = maxTimeout; }
+
+    /**
+     * Deadline for an inbound request given its header value, after applying the default and cap.
+     */
+    public Deadline resolve(String headerValue) {
+        Deadline deadline = Deadline.fromHeader(headerValue);
+        if (deadline == null) {
+            return defaultTimeout != null ? Deadline.after(defaultTimeout) : null;
+        }
+        return maxTimeout != null ? deadline.atMost(maxTimeout) : deadline;
+    }
+}
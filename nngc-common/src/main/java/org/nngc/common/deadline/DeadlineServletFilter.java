@@ -0,0 +1,45 @@
+package org.nngc.common.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reads the caller's deadline, answers 504 straight away when it has already passed and
+ * otherwise exposes it through {@link DeadlineContext} for the duration of the request.
+ */
+public class DeadlineServletFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+    private final DeadlineMetrics metrics;
+
+    public DeadlineServletFilter(DeadlineProperties properties, DeadlineMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Deadline deadline = properties.resolve(request.getHeader(properties.getHeaderName()));
+        if (deadline == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            metrics.inboundRejected();
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Deadline exceeded before processing");
+            return;
+        }
+        DeadlineContext.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.nngc.common.deadline;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Lets context-propagation copy the servlet request's {@link DeadlineContext} into the Reactor
+ * context (under {@code Deadline.class}) when Spring MVC subscribes to a returned
+ * {@code Mono}, so calls chained on Netty threads still see the deadline.
+ */
+public class DeadlineThreadLocalAccessor implements ThreadLocalAccessor<Deadline> {
+
+    @Override
+    public Object key() {
+        return Deadline.class;
+    }
+
+    @Override
+    public Deadline getValue() {
+        return DeadlineContext.current();
+    }
+
+    @Override
+    public void setValue(Deadline value) {
+        DeadlineContext.set(value);
+    }
+
+    @Override
+    public void setValue() {
+        DeadlineContext.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package org.nngc.common.deadline;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link DeadlineServletFilter}: rejects expired requests with 504 and
+ * puts the deadline in the Reactor context (and the {@link #DEADLINE_ATTR} exchange attribute).
+ */
+public class DeadlineWebFilter implements WebFilter, Ordered {
+
+    public static final String DEADLINE_ATTR = DeadlineWebFilter.class.getName() + ".deadline";
+
+    private final DeadlineProperties properties;
+    private final DeadlineMetrics metrics;
+
+    public DeadlineWebFilter(DeadlineProperties properties, DeadlineMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Deadline deadline = properties.resolve(exchange.getRequest().getHeaders().getFirst(properties.getHeaderName()));
+        if (deadline == null) {
+            return chain.filter(exchange);
+        }
+        if (deadline.isExpired()) {
+            metrics.inboundRejected();
+            exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getAttributes().put(DEADLINE_ATTR, deadline);
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(Deadline.class, deadline));
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of security so expired requests do not even pay for token verification
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
@@ -0,0 +1,94 @@
+package org.nngc.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-instance view used by {@link LatencyAwareLoadBalancer}: a peak-sensitive, time-decayed
+ * EWMA of response time, the number of requests in flight and the ejection state.
+ */
+class InstanceStats {
+
+    private final long decayNanos;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile long ejectedUntilNanos;
+
+    InstanceStats(long decayNanos, long nowNanos) {
+        this.decayNanos = decayNanos;
+        this.lastSampleNanos = nowNanos;
+        this.ejectedUntilNanos = nowNanos;
+    }
+
+    void requestStarted() {
+        inflight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inflight.updateAndGet(current -> current > 0 ? current - 1 : 0);
+    }
+
+    /**
+     * Folds a response time into the average. A sample above the current average replaces it
+     * outright so a sudden slowdown is visible immediately; faster samples pull it down gradually.
+     */
+    synchronized void observe(long latencyNanos, long nowNanos) {
+        long elapsed = Math.max(nowNanos - lastSampleNanos, 0);
+        lastSampleNanos = nowNanos;
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) elapsed / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+    }
+
+    /**
+     * Lower is better. Instances without samples yet cost only their in-flight count, so new
+     * instances get probed quickly instead of waiting for traffic to find them.
+     */
+    synchronized double cost() {
+        return (ewmaNanos + 1) * (inflight.get() + 1);
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Returns {@code true} when this failure crossed the threshold and the instance may be
+     * ejected; the caller decides whether the ejection budget allows it.
+     */
+    synchronized boolean recordFailure(int threshold) {
+        consecutiveFailures++;
+        return consecutiveFailures >= threshold;
+    }
+
+    /**
+     * Ejects the instance, backing off linearly with each repeat ejection up to {@code maxNanos}.
+     */
+    synchronized void eject(long nowNanos, long baseNanos, long maxNanos) {
+        if (nowNanos - ejectedUntilNanos > maxNanos) {
+            // Healthy for a while since the last ejection, start the back-off over
+            ejections = 0;
+        }
+        ejections++;
+        consecutiveFailures = 0;
+        ejectedUntilNanos = nowNanos + Math.min(baseNanos * ejections, maxNanos);
+    }
+
+    boolean isEjected(long nowNanos) {
+        return nowNanos - ejectedUntilNanos < 0;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    synchronized double ewmaNanos() {
+        return ewmaNanos;
+    }
+}
@@ -0,0 +1,235 @@
+package org.nngc.common.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Power-of-two-choices load balancer: picks two random instances and sends the request to the
+ * one with the lower {@code EWMA latency x (in-flight + 1)}. Instances that fail
+ * {@code failureThreshold} times in a row (connection errors or 5xx) are ejected for a while,
+ * but never more than {@code maxEjectionPercent} of the instance list at once.
+ * <p>
+ * It is also the {@link LoadBalancerLifecycle} for its service, which is how the gateway and
+ * {@code @LoadBalanced} WebClients report back latency and outcome of each call.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final LoadBalancingProperties.LatencyAware settings;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final Counter ejections;
+
+    private volatile int knownInstances;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, LoadBalancingProperties.LatencyAware settings,
+                                    MeterRegistry meterRegistry) {
+        this(serviceInstanceListSupplierProvider, serviceId, settings, meterRegistry, System::nanoTime);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                             String serviceId, LoadBalancingProperties.LatencyAware settings,
+                             MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.ejections = Counter.builder("loadbalancer.instance.ejections")
+                .description("Instances ejected from the load-balancing pool after repeated failures")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+        Gauge.builder("loadbalancer.instances.ejected", this, LatencyAwareLoadBalancer::ejectedCount)
+                .description("Instances currently ejected from the load-balancing pool")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            logger.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        long now = nanoClock.getAsLong();
+        knownInstances = instances.size();
+        if (stats.size() > instances.size()) {
+            prune(instances);
+        }
+
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!statsFor(instance, now).isEjected(now)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything is ejected; a possibly-bad instance beats failing the request here
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(statsFor(a, now).cost() <= statsFor(b, now).cost() ? a : b);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(nanoClock.getAsLong());
+        }
+        InstanceStats instanceStats = stats.get(key(lbResponse.getServer()));
+        if (instanceStats != null) {
+            instanceStats.requestStarted();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        InstanceStats instanceStats = stats.get(key(completionContext.getLoadBalancerResponse().getServer()));
+        if (instanceStats == null) {
+            // Instance left the pool while the request was running
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        instanceStats.requestFinished();
+
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (context instanceof TimedRequestContext timed && timed.getRequestStartTime() != 0) {
+            // For a discarded (cancelled) request, e.g. a hedge that lost, at least this slow
+            instanceStats.observe(now - timed.getRequestStartTime(), now);
+        }
+
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        if (!isFailure(completionContext)) {
+            instanceStats.recordSuccess();
+        } else if (instanceStats.recordFailure(settings.getFailureThreshold()) && mayEject(now)) {
+            instanceStats.eject(now, settings.getEjectionTime().toNanos(), settings.getMaxEjectionTime().toNanos());
+            ejections.increment();
+            logger.warn("Ejected {} instance {} after {} consecutive failures",
+                    serviceId, key(completionContext.getLoadBalancerResponse().getServer()),
+                    settings.getFailureThreshold());
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null
+                && response.getHttpStatus().is5xxServerError();
+    }
+
+    private boolean mayEject(long now) {
+        int allowed = knownInstances * settings.getMaxEjectionPercent() / 100;
+        return ejectedCount(now) < allowed;
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance, long now) {
+        return stats.computeIfAbsent(key(instance),
+                key -> new InstanceStats(settings.getDecayTime().toNanos(), now));
+    }
+
+    private void prune(List<ServiceInstance> instances) {
+        Set<String> live = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            live.add(key(instance));
+        }
+        stats.keySet().retainAll(live);
+    }
+
+    private int ejectedCount() {
+        return ejectedCount(nanoClock.getAsLong());
+    }
+
+    private int ejectedCount(long now) {
+        int count = 0;
+        for (InstanceStats instanceStats : stats.values()) {
+            if (instanceStats.isEjected(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    InstanceStats statsFor(ServiceInstance instance) {
+        return stats.get(key(instance));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+}
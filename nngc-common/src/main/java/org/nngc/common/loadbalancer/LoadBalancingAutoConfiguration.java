@@ -0,0 +1,21 @@
+package org.nngc.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+
+/**
+ * Makes the load-balancing strategy selectable per service through {@code nngc.loadbalancer.*}
+ * for every Spring Cloud LoadBalancer client (gateway {@code lb://} routes and
+ * {@code @LoadBalanced} WebClients alike).
+ */
+@AutoConfiguration
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnProperty(prefix = "nngc.loadbalancer", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(LoadBalancingProperties.class)
+@LoadBalancerClients(defaultConfiguration = LoadBalancingClientConfiguration.class)
+public class LoadBalancingAutoConfiguration {
+}
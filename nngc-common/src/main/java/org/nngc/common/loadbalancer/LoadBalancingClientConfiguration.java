@@ -0,0 +1,36 @@
+package org.nngc.common.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration, applied inside each Spring Cloud LoadBalancer child
+ * context. Deliberately not a {@code @Configuration} so component scanning does not pick it up
+ * in the parent context.
+ */
+public class LoadBalancingClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            LoadBalancingProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        ObjectProvider<ServiceInstanceListSupplier> supplier =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        return switch (properties.strategyFor(serviceId)) {
+            case LATENCY_AWARE -> new LatencyAwareLoadBalancer(supplier, serviceId, properties.getLatencyAware(),
+                    meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+            case ROUND_ROBIN -> new RoundRobinLoadBalancer(supplier, serviceId);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package org.nngc.common.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load-balancing strategy for {@code lb://} routes and {@code @LoadBalanced} clients.
+ * {@code strategy} is the default for every service; {@code services.<service-id>.strategy}
+ * overrides it for a single service.
+ */
+@ConfigurationProperties(prefix = "nngc.loadbalancer")
+public class LoadBalancingProperties {
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LATENCY_AWARE
+    }
+
+    private boolean enabled = true;
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+    private final Map<String, Service> services = new HashMap<>();
+    private final LatencyAware latencyAware = new LatencyAware();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Strategy getStrategy() { return strategy; }
+    public void setStrategy(Strategy strategy) { this.strategy = strategy; }
+
+    public Map<String, Service> getServices() { return services; }
+
+    public LatencyAware getLatencyAware() { return latencyAware; }
+
+    public Strategy strategyFor(String serviceId) {
+        Service service = serviceId == null ? null : services.get(serviceId);
+        return service != null && service.getStrategy() != null ? service.getStrategy() : strategy;
+    }
+
+    public static class Service {
+        private Strategy strategy;
+
+        public Strategy getStrategy() { return strategy; }
+        public void setStrategy(Strategy strategy) { this.strategy = strategy; }
+    }
+
+    public static class LatencyAware {
+        private Duration decayTime = Duration.ofSeconds(10);
+        private int failureThreshold = 3;
+        private Duration ejectionTime = Duration.ofSeconds(30);
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        private int maxEjectionPercent = 50;
+
+        public Duration getDecayTime() { return decayTime; }
+        public void setDecayTime(Duration decayTime) { this.decayTime = decayTime; }
+
+        public int getFailureThreshold() { return failureThreshold; }
+        public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+
+        public Duration getEjectionTime() { return ejectionTime; }
+        public void setEjectionTime(Duration ejectionTime) { this.ejectionTime = ejectionTime; }
+
+        public Duration getMaxEjectionTime() { return maxEjectionTime; }
+        public void setMaxEjectionTime(Duration maxEjectionTime) { this.maxEjectionTime = maxEjectionTime; }
+
+        public int getMaxEjectionPercent() { return maxEjectionPercent; }
+        public void setMaxEjectionPercent(int maxEjectionPercent) { this.maxEjectionPercent = maxEjectionPercent; }
+    }
+}
@@ -0,0 +1,96 @@
+package org.nngc.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps per-request log lines from hot-path loggers (controllers, gRPC handlers, service clients)
+ * at {@code eventsPerSecond} for each logger and message template, so a burst of traffic logs a
+ * sample instead of every request. WARN and ERROR always pass, as does anything outside the
+ * configured logger prefixes. Declared in {@code org/nngc/common/logging/logback-nngc.xml}.
+ */
+public class HotPathLogRateLimiter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final ConcurrentMap<Key, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+    private String[] prefixes = new String[0];
+    private int eventsPerSecond = 10;
+    private int maxTemplates = 1024;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !isStarted() || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // Only events that would be written count against the budget; this must not go through
+        // logger.isEnabledFor, which calls the turbo filters again
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Key key = new Key(logger.getName(), format);
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxTemplates) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+        if (window.tryAcquire(System.nanoTime(), eventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean sampled(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Events denied since this filter started. */
+    public long getSuppressed() { return suppressed.get(); }
+
+    /** Comma-separated logger name prefixes to rate-limit. */
+    public void setLoggers(String loggers) {
+        this.prefixes = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) { this.eventsPerSecond = eventsPerSecond; }
+
+    public void setMaxTemplates(int maxTemplates) { this.maxTemplates = maxTemplates; }
+
+    private record Key(String logger, String format) {
+    }
+
+    private static final class Window {
+
+        private final AtomicLong start = new AtomicLong(System.nanoTime());
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            long current = start.get();
+            if (now - current >= WINDOW_NANOS && start.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.nngc.common.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes how many hot-path log events {@link HotPathLogRateLimiter} has dropped as
+ * {@code logging.events.suppressed}, next to Spring Boot's {@code logback.events}. The filter
+ * is looked up on every read because logback replaces it whenever logging is reinitialised.
+ */
+@AutoConfiguration
+@ConditionalOnClass({LoggerContext.class, MeterBinder.class})
+public class LogSamplingAutoConfiguration {
+
+    @Bean
+    public MeterBinder hotPathLogRateLimiterMetrics() {
+        return registry -> FunctionCounter.builder("logging.events.suppressed", LoggerFactory.getILoggerFactory(),
+                        LogSamplingAutoConfiguration::suppressed)
+                .description("Hot-path log events dropped by the per-template rate limit")
+                .register(registry);
+    }
+
+    private static double suppressed(Object loggerFactory) {
+        if (!(loggerFactory instanceof LoggerContext context)) {
+            return 0;
+        }
+        return context.getTurboFilterList().stream()
+                .filter(HotPathLogRateLimiter.class::isInstance)
+                .mapToLong(filter -> ((HotPathLogRateLimiter) filter).getSuppressed())
+                .sum();
+    }
+}
@@ -0,0 +1,117 @@
+package org.nngc.common.profiling;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: on-demand flight recordings.
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} shows the running recording and the finished ones on disk.</li>
+ *   <li>{@code POST /actuator/jfr} with {@code {"template": "profile", "duration": "60s"}} starts one.
+ *       Both fields are optional.</li>
+ *   <li>{@code DELETE /actuator/jfr} stops the running recording early.</li>
+ *   <li>{@code GET /actuator/jfr/{name}} gives hot methods, allocation sites and GC totals.</li>
+ *   <li>{@code GET /actuator/jfr/{name}/file} downloads the {@code .jfr} for JDK Mission Control.</li>
+ * </ul>
+ * Recordings carry stack traces and class names, so each service's security config limits the
+ * endpoint to callers with {@link #OPERATOR_AUTHORITY}.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    /**
+     * Authority for {@code /actuator/jfr}: an access token whose {@code scope} includes
+     * {@code nngc-operator} (in Keycloak, an optional client scope on the operators' client).
+     */
+    public static final String OPERATOR_AUTHORITY = "SCOPE_nngc-operator";
+
+    private final JfrRecordings recordings;
+    private final ProfilingProperties properties;
+
+    public JfrEndpoint(JfrRecordings recordings, ProfilingProperties properties) {
+        this.recordings = recordings;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", recordings.current().map(JfrEndpoint::describe).orElse(null));
+        status.put("recordings", recordings.list().stream().map(JfrEndpoint::describe).toList());
+        status.put("templates", properties.getTemplates());
+        status.put("maxDuration", properties.getMaxDuration().toString());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String template, @Nullable Duration duration) {
+        try {
+            return describe(recordings.start(template != null ? template : properties.getTemplates().get(0),
+                    duration != null ? duration : properties.getDefaultDuration()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        return recordings.stop().map(JfrEndpoint::describe).orElse(null);
+    }
+
+    @ReadOperation
+    public JfrSummary summary(@Selector String name) {
+        Path file = recordings.find(name).orElse(null);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return JfrSummary.of(file, properties.getSummaryTop());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource download(@Selector String name, @Selector String part) {
+        if (!"file".equals(part)) {
+            return null;
+        }
+        return recordings.find(name).map(FileSystemResource::new).orElse(null);
+    }
+
+    private static Map<String, Object> describe(JfrRecordings.Active recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", recording.name());
+        description.put("template", recording.template());
+        description.put("startedAt", recording.startedAt().toString());
+        description.put("duration", recording.duration().toString());
+        return description;
+    }
+
+    private static Map<String, Object> describe(Path file) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", file.getFileName().toString());
+        try {
+            description.put("sizeBytes", Files.size(file));
+            description.put("finishedAt", Files.getLastModifiedTime(file).toInstant().toString());
+        } catch (IOException e) {
+            // Pruned or still being written; the name is enough
+        }
+        return description;
+    }
+}
@@ -0,0 +1,165 @@
+package org.nngc.common.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Starts, stops and lists the flight recordings behind {@link JfrEndpoint}. At most one recording
+ * runs at a time; it stops by itself after its duration and is then dumped to
+ * {@link ProfilingProperties#getDirectory()}.
+ */
+public class JfrRecordings implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordings.class);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9._-]+\\.jfr");
+    // Recorded at start-up by every template; they would carry secrets (API keys, passwords) off the box
+    private static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final ProfilingProperties properties;
+    private final String applicationName;
+    private Recording active;
+    private Active activeInfo;
+
+    public JfrRecordings(ProfilingProperties properties, String applicationName) {
+        this.properties = properties;
+        this.applicationName = applicationName;
+    }
+
+    public synchronized Active start(String template, Duration duration) {
+        if (!properties.getTemplates().contains(template)) {
+            throw new IllegalArgumentException("Template must be one of " + properties.getTemplates());
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Duration must be positive and at most " + properties.getMaxDuration());
+        }
+        Optional<Active> running = current();
+        if (running.isPresent()) {
+            throw new IllegalStateException("Recording " + running.get().name() + " is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(template);
+            Files.createDirectories(properties.getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Unreadable JFR template " + template, e);
+        }
+        Instant startedAt = Instant.now();
+        String name = applicationName + "-" + TIMESTAMP.format(startedAt) + "-" + template;
+        Path file = properties.getDirectory().resolve(name + ".jfr");
+        Recording recording = new Recording(configuration);
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        active = recording;
+        activeInfo = new Active(file.getFileName().toString(), template, startedAt, duration);
+        log.info("Started JFR recording {} ({}, {})", activeInfo.name(), template, duration);
+        prune();
+        return activeInfo;
+    }
+
+    /** Stops the running recording early and writes it out; empty if none was running. */
+    public synchronized Optional<Active> stop() {
+        Optional<Active> running = current();
+        running.ifPresent(info -> {
+            active.stop();
+            active.close();
+            active = null;
+            log.info("Stopped JFR recording {}", info.name());
+        });
+        return running;
+    }
+
+    /** The running recording, if any; a recording that reached its duration is released here. */
+    public synchronized Optional<Active> current() {
+        if (active != null && active.getState() != RecordingState.RUNNING && active.getState() != RecordingState.DELAYED) {
+            active.close();
+            active = null;
+        }
+        return active == null ? Optional.empty() : Optional.of(activeInfo);
+    }
+
+    /** This service's finished recordings on disk, newest first. */
+    public List<Path> list() {
+        if (!Files.isDirectory(properties.getDirectory())) {
+            return List.of();
+        }
+        String running = current().map(Active::name).orElse(null);
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            // The directory may be a volume shared by several services; only this one's files count
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .filter(file -> file.getFileName().toString().startsWith(applicationName + "-"))
+                    .filter(file -> !file.getFileName().toString().equals(running))
+                    .sorted(Comparator.comparing(JfrRecordings::lastModified).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A finished recording by file name; never resolves outside the recordings directory. */
+    public Optional<Path> find(String name) {
+        String fileName = name.endsWith(".jfr") ? name : name + ".jfr";
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        return list().stream().filter(file -> file.getFileName().toString().equals(fileName)).findFirst();
+    }
+
+    private void prune() {
+        List<Path> finished = list();
+        for (Path old : finished.subList(Math.min(finished.size(), Math.max(0, properties.getRetained() - 1)), finished.size())) {
+            try {
+                Files.deleteIfExists(old);
+            } catch (IOException e) {
+                log.warn("Could not delete old JFR recording {}: {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    public record Active(String name, String template, Instant startedAt, Duration duration) {
+    }
+}
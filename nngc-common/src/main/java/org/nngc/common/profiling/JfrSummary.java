@@ -0,0 +1,102 @@
+package org.nngc.common.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a finished recording says at a glance: the methods most often on top of the stack in
+ * {@code jdk.ExecutionSample}, the allocation sites with the most sampled bytes in
+ * {@code jdk.ObjectAllocationSample}, and garbage collection totals. Download the {@code .jfr}
+ * for anything deeper.
+ */
+public record JfrSummary(String recording, String start, double durationSeconds, long executionSamples,
+                         List<HotMethod> hotMethods, List<AllocationSite> allocationSites,
+                         long garbageCollections, double garbageCollectionPauseMs) {
+
+    public static JfrSummary of(Path file, int top) throws IOException {
+        Map<String, Long> methods = new HashMap<>();
+        Map<AllocationKey, Long> allocations = new HashMap<>();
+        long samples = 0;
+        long collections = 0;
+        Duration pause = Duration.ZERO;
+        Instant first = null;
+        Instant last = null;
+        try (RecordingFile events = new RecordingFile(file)) {
+            while (events.hasMoreEvents()) {
+                RecordedEvent event = events.readEvent();
+                Instant end = event.getEndTime();
+                first = first == null || event.getStartTime().isBefore(first) ? event.getStartTime() : first;
+                last = last == null || end.isAfter(last) ? end : last;
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        samples++;
+                        String method = topFrame(event.getStackTrace(), false);
+                        if (method != null) {
+                            methods.merge(method, 1L, Long::sum);
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        String site = topFrame(event.getStackTrace(), true);
+                        if (site != null) {
+                            allocations.merge(new AllocationKey(site, event.getClass("objectClass").getName()),
+                                    event.getLong("weight"), Long::sum);
+                        }
+                    }
+                    case "jdk.GarbageCollection" -> {
+                        collections++;
+                        pause = pause.plus(event.getDuration("sumOfPauses"));
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        long total = samples;
+        List<HotMethod> hotMethods = methods.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new HotMethod(entry.getKey(), entry.getValue(),
+                        Math.round(entry.getValue() * 1000.0 / total) / 10.0))
+                .toList();
+        List<AllocationSite> allocationSites = allocations.entrySet().stream()
+                .sorted(Map.Entry.<AllocationKey, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new AllocationSite(entry.getKey().site(), entry.getKey().objectClass(), entry.getValue()))
+                .toList();
+        return new JfrSummary(file.getFileName().toString(), first == null ? null : first.toString(),
+                first == null ? 0 : Duration.between(first, last).toMillis() / 1000.0,
+                samples, hotMethods, allocationSites, collections, pause.toNanos() / 1e6);
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace, boolean withLine) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame()) {
+                String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+                return withLine ? method + ":" + frame.getLineNumber() : method;
+            }
+        }
+        return null;
+    }
+
+    public record HotMethod(String method, long samples, double percent) {
+    }
+
+    public record AllocationSite(String site, String objectClass, long sampledBytes) {
+    }
+
+    private record AllocationKey(String site, String objectClass) {
+    }
+}
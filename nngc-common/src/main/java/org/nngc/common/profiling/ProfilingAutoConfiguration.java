@@ -0,0 +1,35 @@
+package org.nngc.common.profiling;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Adds {@link JfrEndpoint} wherever actuator is present. Like any other endpoint it is only
+ * reachable once listed in {@code management.endpoints.web.exposure.include}.
+ */
+@AutoConfiguration
+@ConditionalOnClass(Endpoint.class)
+@ConditionalOnProperty(prefix = "nngc.profiling", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JfrRecordings jfrRecordings(ProfilingProperties properties, Environment environment) {
+        return new JfrRecordings(properties, environment.getProperty("spring.application.name", "application"));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint(endpoint = JfrEndpoint.class)
+    public JfrEndpoint jfrEndpoint(JfrRecordings recordings, ProfilingProperties properties) {
+        return new JfrEndpoint(recordings, properties);
+    }
+}
@@ -0,0 +1,51 @@
+package org.nngc.common.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * On-demand Java Flight Recorder recordings through {@code /actuator/jfr}. Only the low-overhead
+ * JDK templates are allowed ({@code default} is about 1% CPU, {@code profile} about 2%), one
+ * recording runs at a time, for at most {@code maxDuration} and {@code maxSize} on disk. Finished
+ * recordings are written to {@code directory}; only the newest {@code retained} are kept.
+ */
+@ConfigurationProperties(prefix = "nngc.profiling")
+public class ProfilingProperties {
+
+    private boolean enabled = true;
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "nngc-jfr");
+    private List<String> templates = List.of("default", "profile");
+    private Duration defaultDuration = Duration.ofSeconds(30);
+    private Duration maxDuration = Duration.ofMinutes(5);
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+    private int retained = 5;
+    private int summaryTop = 20;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Path getDirectory() { return directory; }
+    public void setDirectory(Path directory) { this.directory = directory; }
+
+    public List<String> getTemplates() { return templates; }
+    public void setTemplates(List<String> templates) { this.templates = templates; }
+
+    public Duration getDefaultDuration() { return defaultDuration; }
+    public void setDefaultDuration(Duration defaultDuration) { this.defaultDuration = defaultDuration; }
+
+    public Duration getMaxDuration() { return maxDuration; }
+    public void setMaxDuration(Duration maxDuration) { this.maxDuration = maxDuration; }
+
+    public DataSize getMaxSize() { return maxSize; }
+    public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+
+    public int getRetained() { return retained; }
+    public void setRetained(int retained) { this.retained = retained; }
+
+    public int getSummaryTop() { return summaryTop; }
+    public void setSummaryTop(int summaryTop) { this.summaryTop = summaryTop; }
+}
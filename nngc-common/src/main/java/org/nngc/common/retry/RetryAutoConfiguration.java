@@ -0,0 +1,65 @@
+package org.nngc.common.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.nngc.common.deadline.DeadlineAutoConfiguration;
+import org.nngc.common.deadline.DeadlineExchangeFilterFunction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+/**
+ * Adds {@link RetryExchangeFilterFunction} to every {@code WebClient.Builder} bean, inside the
+ * deadline filter (so retries share the caller's budget) and ahead of the deadline header, load
+ * balancing and OAuth2 (so each attempt forwards the budget left, may pick another instance and
+ * refreshes its token).
+ */
+@AutoConfiguration(after = DeadlineAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(WebClient.class)
+@ConditionalOnProperty(prefix = "nngc.retry", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryExchangeFilterFunction retryExchangeFilterFunction(RetryProperties properties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RetryExchangeFilterFunction(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    static BeanPostProcessor retryWebClientBuilderPostProcessor(ObjectProvider<RetryExchangeFilterFunction> filterFunction) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof WebClient.Builder builder) {
+                    builder.filters(filters -> {
+                        if (filters.stream().noneMatch(RetryExchangeFilterFunction.class::isInstance)) {
+                            filters.add(afterDeadline(filters), filterFunction.getObject());
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static int afterDeadline(List<ExchangeFilterFunction> filters) {
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            if (filters.get(i) instanceof DeadlineExchangeFilterFunction) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+package org.nngc.common.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket bounding retries to a fraction of one service's traffic. Requests deposit
+ * {@code ratio} tokens, retries withdraw one, and the bucket also refills slowly over time so
+ * low-volume services are not left without any retries. The bucket starts full.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double refillPerNano;
+    private final double maxTokens;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    RetryBudget(RetryProperties.Budget properties, LongSupplier clock) {
+        this.ratio = properties.getRatio();
+        this.refillPerNano = properties.getMinRetriesPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.maxTokens = properties.getMaxTokens();
+        this.clock = clock;
+        this.tokens = maxTokens;
+        this.lastRefillNanos = clock.getAsLong();
+    }
+
+    synchronized void deposit() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double tokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = Math.max(now - lastRefillNanos, 0);
+        lastRefillNanos = now;
+        tokens = Math.min(maxTokens, tokens + elapsed * refillPerNano);
+    }
+}
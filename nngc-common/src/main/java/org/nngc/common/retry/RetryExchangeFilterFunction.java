@@ -0,0 +1,148 @@
+package org.nngc.common.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Retries idempotent requests that failed to connect or got a 502, 503 or 504 back, waiting a
+ * random time between zero and an exponentially growing cap before each attempt. Each target
+ * service (the URL host, i.e. the service id for load-balanced calls) has its own
+ * {@link RetryBudget}, so a failing service sees at most a fixed fraction of extra traffic.
+ * <p>
+ * GET, HEAD, OPTIONS, PUT and DELETE are retried unless the request carries the
+ * {@link #NON_IDEMPOTENT} attribute; other methods only when it carries {@link #IDEMPOTENT}.
+ * Transport errors are only retried when the connection could not be opened: a reset or premature
+ * close may come after the server acted on the request.
+ */
+public class RetryExchangeFilterFunction implements ExchangeFilterFunction {
+
+    /** Request attribute marking a non-idempotent method as safe to repeat. */
+    public static final String IDEMPOTENT = RetryExchangeFilterFunction.class.getName() + ".IDEMPOTENT";
+
+    /** Request attribute marking an otherwise idempotent method (a GET that changes state) as unsafe to repeat. */
+    public static final String NON_IDEMPOTENT = RetryExchangeFilterFunction.class.getName() + ".NON_IDEMPOTENT";
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+    private static final Set<HttpStatusCode> RETRYABLE_STATUSES =
+            Set.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+
+    private final RetryProperties properties;
+    private final RetryMetrics metrics;
+    private final LongSupplier clock;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryExchangeFilterFunction(RetryProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RetryExchangeFilterFunction(RetryProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.metrics = new RetryMetrics(meterRegistry);
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!isIdempotent(request)) {
+            return next.exchange(request);
+        }
+        String service = String.valueOf(request.url().getHost());
+        return Mono.defer(() -> {
+            RetryBudget budget = budgetFor(service);
+            budget.deposit();
+            AtomicInteger attempts = new AtomicInteger(1);
+            return Mono.defer(() -> next.exchange(request))
+                    .flatMap(response -> {
+                        if (!RETRYABLE_STATUSES.contains(response.statusCode()) || !claimRetry(service, budget, attempts)) {
+                            return Mono.just(response);
+                        }
+                        return response.releaseBody().then(Mono.error(new RetryableStatusException(response.statusCode())));
+                    })
+                    .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                        Throwable failure = signal.failure();
+                        boolean retry = failure instanceof RetryableStatusException
+                                || (isConnectFailure(failure) && claimRetry(service, budget, attempts));
+                        return retry ? Mono.delay(backoff(attempts.get() - 1)) : Mono.error(failure);
+                    })));
+        });
+    }
+
+    /**
+     * Full jitter: uniformly random between zero and {@code initialBackoff * 2^(retry - 1)},
+     * capped at {@code maxBackoff}, so clients that failed together do not retry together.
+     */
+    Duration backoff(int retry) {
+        long cap = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getInitialBackoff().toNanos() << Math.min(retry - 1, 30));
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    RetryBudget budgetFor(String service) {
+        return budgets.computeIfAbsent(service, id -> {
+            RetryBudget budget = new RetryBudget(properties.getBudget(), clock);
+            metrics.register(id, budget);
+            return budget;
+        });
+    }
+
+    private boolean claimRetry(String service, RetryBudget budget, AtomicInteger attempts) {
+        if (attempts.get() >= properties.getMaxAttempts()) {
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            metrics.budgetExhausted(service);
+            return false;
+        }
+        attempts.incrementAndGet();
+        metrics.retried(service);
+        return true;
+    }
+
+    private static boolean isIdempotent(ClientRequest request) {
+        if (Boolean.TRUE.equals(request.attribute(NON_IDEMPOTENT).orElse(null))) {
+            return false;
+        }
+        return IDEMPOTENT_METHODS.contains(request.method())
+                || Boolean.TRUE.equals(request.attribute(IDEMPOTENT).orElse(null));
+    }
+
+    /** Whether the request never reached the server: connecting failed (refused, timed out, unreachable). */
+    private static boolean isConnectFailure(Throwable failure) {
+        if (!(failure instanceof WebClientRequestException)) {
+            return false;
+        }
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Signals a retryable status whose retry has already been granted; never leaves the filter. */
+    private static final class RetryableStatusException extends RuntimeException {
+
+        RetryableStatusException(HttpStatusCode status) {
+            super("Retrying after " + status, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.nngc.common.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code retry.attempts{service}} counts retries sent, {@code retry.budget.exhausted{service}}
+ * counts retries refused because the budget was spent, and {@code retry.budget.tokens{service}}
+ * shows what is left.
+ */
+class RetryMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    RetryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void register(String service, RetryBudget budget) {
+        Gauge.builder("retry.budget.tokens", budget, RetryBudget::tokens)
+                .description("Retry tokens currently available")
+                .tag("service", service)
+                .register(meterRegistry);
+    }
+
+    void retried(String service) {
+        Counter.builder("retry.attempts")
+                .description("Retries sent after a transient failure")
+                .tag("service", service)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void budgetExhausted(String service) {
+        Counter.builder("retry.budget.exhausted")
+                .description("Retries not sent because the service's retry budget was spent")
+                .tag("service", service)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,50 @@
+package org.nngc.common.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retry settings for inter-service {@code WebClient} calls. Only idempotent requests are retried,
+ * with exponential backoff and full jitter, and each target service has a retry budget:
+ * every request earns {@code budget.ratio} of a retry token, every retry spends a whole one, and
+ * {@code budget.minRetriesPerSecond} keeps a quiet service able to retry at all.
+ */
+@ConfigurationProperties(prefix = "nngc.retry")
+public class RetryProperties {
+
+    private boolean enabled = true;
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(50);
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    private final Budget budget = new Budget();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public Duration getInitialBackoff() { return initialBackoff; }
+    public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+    public Duration getMaxBackoff() { return maxBackoff; }
+    public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+    public Budget getBudget() { return budget; }
+
+    public static class Budget {
+        private double ratio = 0.1;
+        private double minRetriesPerSecond = 1;
+        private double maxTokens = 10;
+
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+
+        public double getMinRetriesPerSecond() { return minRetriesPerSecond; }
+        public void setMinRetriesPerSecond(double minRetriesPerSecond) { this.minRetriesPerSecond = minRetriesPerSecond; }
+
+        public double getMaxTokens() { return maxTokens; }
+        public void setMaxTokens(double maxTokens) { this.maxTokens = maxTokens; }
+    }
+}
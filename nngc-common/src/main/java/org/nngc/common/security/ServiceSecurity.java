@@ -0,0 +1,56 @@
+package org.nngc.common.security;
+
+import org.nngc.common.profiling.JfrEndpoint;
+import org.nngc.common.security.identity.GatewayIdentityConfigurer;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * The servlet resource-server chain shared by the services: no CORS or CSRF, actuator open
+ * except {@code /actuator/jfr} (operators only), bearer tokens checked by the caching
+ * {@link JwtDecoder} and the gateway identity header accepted in their place. A service only
+ * adds its own matchers; anything they don't cover requires authentication:
+ * <pre>
+ * return serviceSecurity.build(http, auth -> auth.requestMatchers("/public/**").permitAll());
+ * </pre>
+ */
+public class ServiceSecurity {
+
+    private final JwtDecoder jwtDecoder;
+    private final GatewayIdentityConfigurer gatewayIdentity;
+
+    public ServiceSecurity(JwtDecoder jwtDecoder, GatewayIdentityConfigurer gatewayIdentity) {
+        this.jwtDecoder = jwtDecoder;
+        this.gatewayIdentity = gatewayIdentity;
+    }
+
+    public SecurityFilterChain build(HttpSecurity http) throws Exception {
+        return build(http, Customizer.withDefaults());
+    }
+
+    public SecurityFilterChain build(HttpSecurity http,
+                                     Customizer<AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry> endpoints)
+            throws Exception {
+        http
+            .cors(AbstractHttpConfigurer::disable)
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> {
+                auth
+                    .requestMatchers("/actuator/jfr/**").hasAuthority(JfrEndpoint.OPERATOR_AUTHORITY)
+                    .requestMatchers("/actuator/**").permitAll();
+                endpoints.customize(auth);
+                auth.anyRequest().authenticated();
+            })
+            .oauth2ResourceServer(oauth2 -> oauth2
+                // Caching verifier from nngc-common, keyed on spring.security.oauth2.resourceserver.jwt.jwk-set-uri
+                .jwt(jwt -> jwt.decoder(jwtDecoder))
+            )
+            // Requests routed through the gateway carry a signed identity header instead
+            .with(gatewayIdentity, Customizer.withDefaults());
+        return http.build();
+    }
+}
@@ -0,0 +1,32 @@
+package org.nngc.common.security;
+
+import org.nngc.common.security.identity.GatewayIdentityConfigurer;
+import org.nngc.common.security.identity.IdentityHeaderAutoConfiguration;
+import org.nngc.common.security.jwt.JwtVerificationAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Offers {@link ServiceSecurity} to servlet services so their {@code SecurityFilterChain} only
+ * has to list service-specific matchers.
+ */
+@AutoConfiguration(after = {JwtVerificationAutoConfiguration.class, OAuth2ResourceServerAutoConfiguration.class,
+        IdentityHeaderAutoConfiguration.class})
+@ConditionalOnClass(HttpSecurity.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServiceSecurityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean({JwtDecoder.class, GatewayIdentityConfigurer.class})
+    public ServiceSecurity serviceSecurity(JwtDecoder jwtDecoder, GatewayIdentityConfigurer gatewayIdentity) {
+        return new ServiceSecurity(jwtDecoder, gatewayIdentity);
+    }
+}
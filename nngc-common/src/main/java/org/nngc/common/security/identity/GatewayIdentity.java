@@ -0,0 +1,10 @@
+package org.nngc.common.security.identity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Identity asserted by the gateway after it verified the caller's JWT.
+ */
+public record GatewayIdentity(String subject, List<String> roles, Instant expiresAt) {
+}
@@ -0,0 +1,37 @@
+package org.nngc.common.security.identity;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * Authentication built from a verified gateway identity header.
+ */
+public class GatewayIdentityAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final GatewayIdentity identity;
+
+    public GatewayIdentityAuthenticationToken(GatewayIdentity identity) {
+        super(AuthorityUtils.createAuthorityList(identity.roles()));
+        this.identity = identity;
+        setAuthenticated(true);
+    }
+
+    public GatewayIdentity getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return "";
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return identity.subject();
+    }
+
+    @Override
+    public String getName() {
+        return identity.subject();
+    }
+}
@@ -0,0 +1,49 @@
+package org.nngc.common.security.identity;
+
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.oauth2.server.resource.OAuth2ResourceServerConfigurer;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+
+/**
+ * Lets a resource server accept the gateway identity header in place of a full JWT check:
+ * <pre>
+ * http.oauth2ResourceServer(...).with(gatewayIdentity, Customizer.withDefaults());
+ * </pre>
+ * Does nothing when {@code nngc.security.identity.enabled} is false.
+ */
+public class GatewayIdentityConfigurer extends AbstractHttpConfigurer<GatewayIdentityConfigurer, HttpSecurity> {
+
+    private final IdentityHeaderCodec codec;
+    private final String headerName;
+
+    public GatewayIdentityConfigurer(IdentityHeaderCodec codec, String headerName) {
+        this.codec = codec;
+        this.headerName = headerName;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void init(HttpSecurity http) {
+        OAuth2ResourceServerConfigurer<HttpSecurity> resourceServer = http.getConfigurer(OAuth2ResourceServerConfigurer.class);
+        if (codec == null || resourceServer == null) {
+            return;
+        }
+        // Once the identity header was accepted, don't hand the bearer token to the JWT decoder
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        resourceServer.bearerTokenResolver(request ->
+                SecurityContextHolder.getContext().getAuthentication() instanceof GatewayIdentityAuthenticationToken
+                        ? null
+                        : delegate.resolve(request));
+    }
+
+    @Override
+    public void configure(HttpSecurity http) {
+        if (codec == null) {
+            return;
+        }
+        http.addFilterBefore(new IdentityHeaderAuthenticationFilter(codec, headerName), BearerTokenAuthenticationFilter.class);
+    }
+}
@@ -0,0 +1,57 @@
+package org.nngc.common.security.identity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+
+/**
+ * Authenticates requests that carry a valid gateway identity header. Requests without the
+ * header (service-to-service calls with client-credentials tokens) fall through to the regular
+ * JWT check. Installed by {@link GatewayIdentityConfigurer}.
+ */
+public class IdentityHeaderAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityHeaderAuthenticationFilter.class);
+
+    private final IdentityHeaderCodec codec;
+    private final String headerName;
+    private final Clock clock;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public IdentityHeaderAuthenticationFilter(IdentityHeaderCodec codec, String headerName) {
+        this(codec, headerName, Clock.systemUTC());
+    }
+
+    IdentityHeaderAuthenticationFilter(IdentityHeaderCodec codec, String headerName, Clock clock) {
+        this.codec = codec;
+        this.headerName = headerName;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(headerName);
+        if (header != null) {
+            GatewayIdentity identity = codec.decode(header, clock.instant());
+            if (identity != null) {
+                SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+                context.setAuthentication(new GatewayIdentityAuthenticationToken(identity));
+                securityContextHolderStrategy.setContext(context);
+            } else {
+                logger.debug("Ignoring invalid or expired {} header", headerName);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
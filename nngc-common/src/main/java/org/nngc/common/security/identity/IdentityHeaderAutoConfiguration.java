@@ -0,0 +1,41 @@
+package org.nngc.common.security.identity;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.util.StringUtils;
+
+/**
+ * Wires the gateway identity header codec (gateway and services) and the servlet-side
+ * {@link GatewayIdentityConfigurer} (services).
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(IdentityHeaderProperties.class)
+public class IdentityHeaderAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "nngc.security.identity", name = "enabled", havingValue = "true")
+    public IdentityHeaderCodec identityHeaderCodec(IdentityHeaderProperties properties) {
+        // No fallback secret: a known one would let anybody mint identity headers
+        if (!StringUtils.hasText(properties.getSecret())) {
+            throw new IllegalStateException("nngc.security.identity.enabled is true but nngc.security.identity.secret is not set");
+        }
+        return new IdentityHeaderCodec(properties.getSecret());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnClass(HttpSecurity.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public GatewayIdentityConfigurer gatewayIdentityConfigurer(ObjectProvider<IdentityHeaderCodec> codec,
+                                                               IdentityHeaderProperties properties) {
+        return new GatewayIdentityConfigurer(codec.getIfAvailable(), properties.getHeaderName());
+    }
+}
@@ -0,0 +1,90 @@
+package org.nngc.common.security.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Encodes and verifies the compact identity header: {@code base64url(subject|expiry|roles).base64url(hmac)}.
+ * The MAC is HMAC-SHA256 over the encoded payload.
+ */
+public class IdentityHeaderCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityHeaderCodec(String secret) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("nngc.security.identity.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(String subject, Collection<String> roles, Instant expiresAt) {
+        if (subject.indexOf('|') >= 0) {
+            throw new IllegalArgumentException("Subject must not contain '|'");
+        }
+        String payload = subject + "|" + expiresAt.getEpochSecond() + "|" + String.join(",", roles);
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * Returns the identity carried by the header, or {@code null} if the header is malformed,
+     * carries a bad signature or has expired.
+     */
+    public GatewayIdentity decode(String header, Instant now) {
+        int dot = header.indexOf('.');
+        if (dot <= 0 || dot == header.length() - 1) {
+            return null;
+        }
+        String encodedPayload = header.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(header.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(encodedPayload), signature)) {
+                return null;
+            }
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || parts[0].isEmpty()) {
+                return null;
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            if (!now.isBefore(expiresAt)) {
+                return null;
+            }
+            List<String> roles = parts[2].isEmpty() ? List.of() : Arrays.asList(parts[2].split(","));
+            return new GatewayIdentity(parts[0], roles, expiresAt);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or expiry
+            return null;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        Mac mac = macs.get();
+        return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.nngc.common.security.identity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the gateway-signed identity header. The same secret must be configured on the
+ * gateway (which signs) and on every downstream service (which verifies).
+ */
+@ConfigurationProperties(prefix = "nngc.security.identity")
+public class IdentityHeaderProperties {
+
+    private boolean enabled = false;
+    private String headerName = "X-NNGC-Identity";
+    private String secret;
+    private Duration ttl = Duration.ofSeconds(30);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getHeaderName() { return headerName; }
+    public void setHeaderName(String headerName) { this.headerName = headerName; }
+
+    public String getSecret() { return secret; }
+    public void setSecret(String secret) { this.secret = secret; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+}
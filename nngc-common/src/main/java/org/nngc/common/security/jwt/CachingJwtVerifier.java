@@ -0,0 +1,176 @@
+package org.nngc.common.security.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtDecoder} that remembers successfully verified tokens (keyed by a SHA-256 of the
+ * raw token) until they expire, and keeps the JWK set warm in the background.
+ */
+public class CachingJwtVerifier implements JwtDecoder, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingJwtVerifier.class);
+
+    private final JwtDecoder delegate;
+    private final RefreshingJwkSource jwkSource;
+    private final JwtVerificationProperties properties;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Jwt> verified = new ConcurrentHashMap<>();
+    private final Timer cacheHitTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public CachingJwtVerifier(JwtDecoder delegate, RefreshingJwkSource jwkSource,
+                              JwtVerificationProperties properties, MeterRegistry meterRegistry) {
+        this(delegate, jwkSource, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtVerifier(JwtDecoder delegate, RefreshingJwkSource jwkSource,
+                       JwtVerificationProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.jwkSource = jwkSource;
+        this.properties = properties;
+        this.clock = clock;
+        this.cacheHitTimer = verificationTimer(meterRegistry, "cache_hit");
+        this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+        this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+        Gauge.builder("security.jwt.cache.size", verified, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        String key = cacheKey(token);
+        Jwt cached = lookup(key);
+        if (cached != null) {
+            cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        try {
+            Jwt jwt = delegate.decode(token);
+            store(key, jwt);
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        } catch (JwtException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached verification result for the token, or {@code null} when the token
+     * has to go through full signature verification.
+     */
+    public Jwt getIfCached(String token) {
+        long start = System.nanoTime();
+        Jwt cached = lookup(cacheKey(token));
+        if (cached != null) {
+            cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return cached;
+    }
+
+    public int cacheSize() {
+        return verified.size();
+    }
+
+    void evictExpired() {
+        Instant now = clock.instant();
+        verified.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+    }
+
+    private Jwt lookup(String key) {
+        Jwt cached = verified.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (clock.instant().isBefore(cached.getExpiresAt())) {
+            return cached;
+        }
+        verified.remove(key, cached);
+        return null;
+    }
+
+    /**
+     * Caches the token unless the cache is full. Expired entries are only removed by lookups and
+     * the scheduled sweep, so a full cache costs a miss rather than a scan on the request path.
+     */
+    private void store(String key, Jwt jwt) {
+        if (jwt.getExpiresAt() == null || verified.size() >= properties.getCache().getMaxEntries()) {
+            return;
+        }
+        verified.put(key, jwt);
+    }
+
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("security.jwt.verification")
+                .description("Time spent verifying bearer tokens")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-verifier-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration refreshInterval = properties.getJwks().getRefreshInterval();
+        Duration sweepInterval = properties.getCache().getSweepInterval();
+        // Initial fetch runs immediately so the first request does not pay for it
+        scheduler.scheduleWithFixedDelay(jwkSource::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::evictExpired, sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+        logger.info("JWT verifier started (JWK refresh every {}, cache max {} entries)",
+                refreshInterval, properties.getCache().getMaxEntries());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        verified.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
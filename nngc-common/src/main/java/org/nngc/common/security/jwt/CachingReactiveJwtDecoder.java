@@ -0,0 +1,29 @@
+package org.nngc.common.security.jwt;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive view of {@link CachingJwtVerifier}. Cache hits complete inline; misses are
+ * verified off the event loop because a key rotation may trigger a JWK set fetch.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final CachingJwtVerifier verifier;
+
+    public CachingReactiveJwtDecoder(CachingJwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        Jwt cached = verifier.getIfCached(token);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> verifier.decode(token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
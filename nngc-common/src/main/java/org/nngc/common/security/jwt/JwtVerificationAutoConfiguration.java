@@ -0,0 +1,93 @@
+package org.nngc.common.security.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.reactive.ReactiveOAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Registers the caching JWT verifier as the {@code JwtDecoder} (and {@code ReactiveJwtDecoder}
+ * for WebFlux applications) ahead of Spring Boot's resource server defaults.
+ */
+@AutoConfiguration(
+        before = {OAuth2ResourceServerAutoConfiguration.class, ReactiveOAuth2ResourceServerAutoConfiguration.class},
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnProperty(prefix = "nngc.security.jwt", name = "enabled", matchIfMissing = true)
+@Conditional(JwtVerificationAutoConfiguration.JwkSetUriCondition.class)
+@EnableConfigurationProperties(JwtVerificationProperties.class)
+public class JwtVerificationAutoConfiguration {
+
+    private static final String RESOURCE_SERVER_JWK_SET_URI = "spring.security.oauth2.resourceserver.jwt.jwk-set-uri";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RefreshingJwkSource refreshingJwkSource(JwtVerificationProperties properties,
+                                                   Environment environment,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) throws Exception {
+        String jwkSetUri = properties.getJwkSetUri() != null
+                ? properties.getJwkSetUri()
+                : environment.getRequiredProperty(RESOURCE_SERVER_JWK_SET_URI);
+        URL url = URI.create(jwkSetUri).toURL();
+        JwtVerificationProperties.Jwks jwks = properties.getJwks();
+        return new RefreshingJwkSource(
+                () -> JWKSet.load(url, (int) jwks.getConnectTimeout().toMillis(), (int) jwks.getReadTimeout().toMillis(), 0),
+                jwks.getMinRefreshInterval(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CachingJwtVerifier cachingJwtVerifier(RefreshingJwkSource jwkSource,
+                                                 JwtVerificationProperties properties,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by Spring's validators (exp/nbf) in NimbusJwtDecoder
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new CachingJwtVerifier(new NimbusJwtDecoder(processor), jwkSource, properties,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveJwtDecoder cachingReactiveJwtDecoder(CachingJwtVerifier verifier) {
+        return new CachingReactiveJwtDecoder(verifier);
+    }
+
+    static class JwkSetUriCondition extends AnyNestedCondition {
+
+        JwkSetUriCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "nngc.security.jwt", name = "jwk-set-uri")
+        static class ExplicitJwkSetUri {
+        }
+
+        @ConditionalOnProperty(name = RESOURCE_SERVER_JWK_SET_URI)
+        static class ResourceServerJwkSetUri {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.nngc.common.security.jwt;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the shared JWT verifier. When {@code jwkSetUri} is not set the
+ * standard {@code spring.security.oauth2.resourceserver.jwt.jwk-set-uri} is used.
+ */
+@ConfigurationProperties(prefix = "nngc.security.jwt")
+public class JwtVerificationProperties {
+
+    private boolean enabled = true;
+    private String jwkSetUri;
+    private final Cache cache = new Cache();
+    private final Jwks jwks = new Jwks();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getJwkSetUri() { return jwkSetUri; }
+    public void setJwkSetUri(String jwkSetUri) { this.jwkSetUri = jwkSetUri; }
+
+    public Cache getCache() { return cache; }
+
+    public Jwks getJwks() { return jwks; }
+
+    public static class Cache {
+        private int maxEntries = 10_000;
+        private Duration sweepInterval = Duration.ofMinutes(1);
+
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+        public Duration getSweepInterval() { return sweepInterval; }
+        public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+    }
+
+    public static class Jwks {
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        private Duration minRefreshInterval = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(2);
+
+        public Duration getRefreshInterval() { return refreshInterval; }
+        public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+
+        public Duration getMinRefreshInterval() { return minRefreshInterval; }
+        public void setMinRefreshInterval(Duration minRefreshInterval) { this.minRefreshInterval = minRefreshInterval; }
+
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+        public Duration getReadTimeout() { return readTimeout; }
+        public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+    }
+}
@@ -0,0 +1,122 @@
+package org.nngc.common.security.jwt;
+
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JWK source that keeps the key set in memory and refreshes it in the background,
+ * so requests only fetch keys on the request path when an unknown key id shows up.
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingJwkSource.class);
+
+    private final Callable<JWKSet> loader;
+    private final long minRefreshIntervalNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+
+    private volatile JWKSet jwkSet;
+    private volatile long lastAttemptNanos;
+
+    public RefreshingJwkSource(Callable<JWKSet> loader, Duration minRefreshInterval, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.lastAttemptNanos = System.nanoTime() - minRefreshIntervalNanos;
+        this.refreshSuccess = Counter.builder("security.jwks.refresh")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailure = Counter.builder("security.jwks.refresh")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("security.jwks.keys", this, source -> source.keyCount())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws RemoteKeySourceException {
+        JWKSet current = jwkSet;
+        if (current != null) {
+            List<JWK> matches = jwkSelector.select(current);
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+        }
+
+        // Unknown key id (rotation) or nothing loaded yet
+        JWKSet refreshed = refreshIfAllowed();
+        if (refreshed == null) {
+            throw new RemoteKeySourceException("JWK set is not available", null);
+        }
+        return jwkSelector.select(refreshed);
+    }
+
+    /**
+     * Fetches the key set unconditionally. Used by the background refresher.
+     */
+    public boolean refresh() {
+        refreshLock.lock();
+        try {
+            return load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return jwkSet != null;
+    }
+
+    private JWKSet refreshIfAllowed() {
+        JWKSet before = jwkSet;
+        refreshLock.lock();
+        try {
+            // Another thread refreshed while we were waiting
+            if (jwkSet != before) {
+                return jwkSet;
+            }
+            if (System.nanoTime() - lastAttemptNanos < minRefreshIntervalNanos) {
+                return jwkSet;
+            }
+            load();
+            return jwkSet;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean load() {
+        lastAttemptNanos = System.nanoTime();
+        try {
+            JWKSet loaded = loader.call();
+            jwkSet = loaded;
+            refreshSuccess.increment();
+            logger.debug("Loaded JWK set with {} keys", loaded.getKeys().size());
+            return true;
+        } catch (Exception e) {
+            refreshFailure.increment();
+            logger.warn("Failed to load JWK set: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private int keyCount() {
+        JWKSet current = jwkSet;
+        return current == null ? 0 : current.getKeys().size();
+    }
+}
@@ -0,0 +1,28 @@
+package org.nngc.common.threads;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Reporting of virtual threads that block while pinned to their carrier (inside a
+ * {@code synchronized} block or a native frame), active when running with
+ * {@code spring.threads.virtual.enabled=true}. Pins shorter than {@code threshold} are ignored;
+ * the stack of each new pinning site is logged once, {@code stackDepth} frames deep.
+ */
+@ConfigurationProperties(prefix = "nngc.threads.pinning")
+public class PinningDetectionProperties {
+
+    private boolean enabled = true;
+    private Duration threshold = Duration.ofMillis(20);
+    private int stackDepth = 12;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getThreshold() { return threshold; }
+    public void setThreshold(Duration threshold) { this.threshold = threshold; }
+
+    public int getStackDepth() { return stackDepth; }
+    public void setStackDepth(int stackDepth) { this.stackDepth = stackDepth; }
+}
@@ -0,0 +1,31 @@
+package org.nngc.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * With {@code spring.threads.virtual.enabled=true} Spring Boot runs Tomcat requests,
+ * {@code @Async} methods and {@code @Scheduled} tasks on virtual threads; this adds pinning
+ * detection so a {@code synchronized} section that blocks does not silently eat carrier threads.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(prefix = "nngc.threads.pinning", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(PinningDetectionProperties.class)
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(PinningDetectionProperties properties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+}
@@ -0,0 +1,69 @@
+package org.nngc.common.cbor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborAutoConfigurationTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class, CborAutoConfiguration.class));
+
+    @Test
+    void shouldKeepJsonAheadOfCbor() {
+        contextRunner.run(context -> {
+            List<HttpMessageConverter<?>> converters = context.getBean(HttpMessageConverters.class).getConverters();
+
+            int json = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+            int cbor = indexOf(converters, MappingJackson2CborHttpMessageConverter.class);
+            assertThat(json).isNotNegative().isLessThan(cbor);
+            assertThat(converters.get(cbor)).isSameAs(context.getBean(MappingJackson2CborHttpMessageConverter.class));
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRoundTripCbor() {
+        contextRunner.run(context -> {
+            MappingJackson2CborHttpMessageConverter converter = context.getBean(MappingJackson2CborHttpMessageConverter.class);
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(Map.of("status", "SUCCESS"), MediaType.APPLICATION_CBOR, output);
+
+            assertThat(output.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+            assertThat(output.getBodyAsString()).doesNotContain("{");
+            Map<String, String> read = (Map<String, String>) converter.read(Map.class,
+                    new MockHttpInputMessage(output.getBodyAsBytes()));
+            assertThat(read).containsEntry("status", "SUCCESS");
+        });
+    }
+
+    @Test
+    void shouldStayOffWhenDisabled() {
+        contextRunner.withPropertyValues("nngc.cbor.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(MappingJackson2CborHttpMessageConverter.class));
+    }
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
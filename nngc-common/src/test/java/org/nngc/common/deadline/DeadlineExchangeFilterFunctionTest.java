@@ -0,0 +1,123 @@
+package org.nngc.common.deadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineExchangeFilterFunctionTest {
+
+    private static final String HEADER = "X-NNGC-Deadline-Ms";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineMetrics metrics = new DeadlineMetrics(meterRegistry);
+    private final DeadlineHeaderExchangeFilterFunction header = new DeadlineHeaderExchangeFilterFunction(HEADER, metrics);
+    private final ExchangeFilterFunction filter = new DeadlineExchangeFilterFunction(metrics).andThen(header);
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://customer-service/customer/1")).build();
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    @Test
+    void shouldPassThroughWithoutDeadline() {
+        assertNotNull(filter.filter(request, this::respondOk).block());
+
+        assertNull(sent.get().headers().getFirst(HEADER));
+    }
+
+    @Test
+    void shouldForwardRemainingBudget() {
+        assertNotNull(filter.filter(request, this::respondOk)
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofSeconds(2))))
+                .block());
+
+        long forwarded = Long.parseLong(sent.get().headers().getFirst(HEADER));
+        assertTrue(forwarded > 1_000 && forwarded <= 2_000, "forwarded " + forwarded);
+    }
+
+    @Test
+    void shouldForwardWhatIsLeftOnEachAttempt() {
+        List<Long> forwarded = new CopyOnWriteArrayList<>();
+        // Stands in for the retry filter between the two deadline filters
+        ExchangeFilterFunction retryOnceAfterBackoff = (req, next) -> next.exchange(req)
+                .then(Mono.delay(Duration.ofMillis(300)))
+                .then(next.exchange(req));
+        ExchangeFilterFunction chain = new DeadlineExchangeFilterFunction(metrics).andThen(retryOnceAfterBackoff).andThen(header);
+
+        assertNotNull(chain.filter(request, req -> {
+                    forwarded.add(Long.parseLong(req.headers().getFirst(HEADER)));
+                    return respondOk(req);
+                })
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofSeconds(2))))
+                .block());
+
+        assertEquals(2, forwarded.size());
+        assertTrue(forwarded.get(0) - forwarded.get(1) >= 250, "forwarded " + forwarded);
+    }
+
+    @Test
+    void shouldNotSendARetryOnceTheDeadlineHasPassed() {
+        ExchangeFilterFunction retryOnceAfterBackoff = (req, next) -> next.exchange(req)
+                .then(Mono.delay(Duration.ofMillis(200)))
+                .then(next.exchange(req));
+
+        assertThrows(DeadlineExceededException.class, () -> retryOnceAfterBackoff.andThen(header)
+                .filter(request, this::respondOk)
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofMillis(100))))
+                .block(Duration.ofSeconds(2)));
+
+        assertEquals(1.0, avoided("outbound"));
+    }
+
+    @Test
+    void shouldNotSendWhenDeadlineHasPassed() {
+        assertThrows(DeadlineExceededException.class, () -> filter.filter(request, this::respondOk)
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ZERO)))
+                .block());
+
+        assertNull(sent.get());
+        assertEquals(1.0, avoided("outbound"));
+    }
+
+    @Test
+    void shouldStopWaitingWhenDeadlinePassesInFlight() {
+        assertThrows(DeadlineExceededException.class, () -> filter.filter(request, req -> respondOk(req).delayElement(Duration.ofSeconds(5)))
+                .contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofMillis(50))))
+                .block(Duration.ofSeconds(2)));
+
+        assertEquals(1.0, avoided("outbound_timeout"));
+    }
+
+    @Test
+    void shouldCapCallerDeadlineAtMaxTimeout() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setMaxTimeout(Duration.ofSeconds(3));
+
+        assertTrue(properties.resolve("60000").remaining().compareTo(Duration.ofSeconds(3)) <= 0);
+        assertNull(properties.resolve(null));
+        assertNull(properties.resolve("soon"));
+    }
+
+    private Mono<ClientResponse> respondOk(ClientRequest request) {
+        sent.set(request);
+        return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+    }
+
+    private double avoided(String stage) {
+        return meterRegistry.get("deadline.work.avoided").tag("stage", stage).counter().count();
+    }
+}
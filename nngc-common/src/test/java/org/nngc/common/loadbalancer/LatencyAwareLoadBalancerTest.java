@@ -0,0 +1,121 @@
+package org.nngc.common.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+    private final LoadBalancingProperties.LatencyAware settings = new LoadBalancingProperties.LatencyAware();
+
+    private final ServiceInstance fast = instance("fast");
+    private final ServiceInstance slow = instance("slow");
+    private final List<ServiceInstance> instances = List.of(fast, slow);
+
+    @SuppressWarnings("unchecked")
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+            mock(ObjectProvider.class), "customer-service", settings, new SimpleMeterRegistry(), clock::get);
+
+    @Test
+    void shouldPreferLowerLatencyInstance() {
+        loadBalancer.choose(instances);
+        complete(fast, Duration.ofMillis(5), CompletionContext.Status.SUCCESS);
+        complete(slow, Duration.ofMillis(250), CompletionContext.Status.SUCCESS);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(fast, loadBalancer.choose(instances).getServer());
+        }
+    }
+
+    @Test
+    void shouldPenaliseInstanceWithRequestsInFlight() {
+        loadBalancer.choose(instances);
+        complete(fast, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        complete(slow, Duration.ofMillis(20), CompletionContext.Status.SUCCESS);
+
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.onStartRequest(request(), new DefaultResponse(fast));
+        }
+
+        assertEquals(slow, loadBalancer.choose(instances).getServer());
+    }
+
+    @Test
+    void shouldCountDiscardedRequestsAsSlowButNotFailed() {
+        loadBalancer.choose(instances);
+        complete(fast, Duration.ofMillis(5), CompletionContext.Status.SUCCESS);
+        complete(slow, Duration.ofMillis(4), CompletionContext.Status.SUCCESS);
+        for (int i = 0; i < settings.getFailureThreshold(); i++) {
+            complete(slow, Duration.ofMillis(500), CompletionContext.Status.DISCARD);
+        }
+
+        assertEquals(0, loadBalancer.statsFor(slow).inflight());
+        assertFalse(loadBalancer.statsFor(slow).isEjected(clock.get()));
+        assertEquals(fast, loadBalancer.choose(instances).getServer());
+    }
+
+    @Test
+    void shouldEjectAfterConsecutiveFailuresAndReadmitLater() {
+        loadBalancer.choose(instances);
+        for (int i = 0; i < settings.getFailureThreshold(); i++) {
+            complete(fast, Duration.ofMillis(1), CompletionContext.Status.FAILED);
+        }
+
+        assertTrue(loadBalancer.statsFor(fast).isEjected(clock.get()));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(slow, loadBalancer.choose(instances).getServer());
+        }
+
+        clock.addAndGet(settings.getEjectionTime().toNanos());
+        assertFalse(loadBalancer.statsFor(fast).isEjected(clock.get()));
+    }
+
+    @Test
+    void shouldNotEjectBeyondMaxEjectionPercent() {
+        loadBalancer.choose(instances);
+        for (int i = 0; i < settings.getFailureThreshold(); i++) {
+            complete(fast, Duration.ofMillis(1), CompletionContext.Status.FAILED);
+            complete(slow, Duration.ofMillis(1), CompletionContext.Status.FAILED);
+        }
+
+        boolean fastEjected = loadBalancer.statsFor(fast).isEjected(clock.get());
+        boolean slowEjected = loadBalancer.statsFor(slow).isEjected(clock.get());
+        assertTrue(fastEjected ^ slowEjected);
+    }
+
+    private void complete(ServiceInstance instance, Duration latency, CompletionContext.Status status) {
+        Request<Object> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onStartRequest(request, response);
+        clock.addAndGet(latency.toNanos());
+        loadBalancer.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new RequestDataContext());
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "customer-service", id + ".local", 8080, false);
+    }
+}
@@ -0,0 +1,63 @@
+package org.nngc.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPathLogRateLimiterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final HotPathLogRateLimiter limiter = new HotPathLogRateLimiter();
+    private Logger controller;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        controller = loggerContext.getLogger("org.nngc.controller.CustomerController");
+        limiter.setLoggers("org.nngc.controller, org.nngc.grpc");
+        limiter.setEventsPerSecond(3);
+        limiter.start();
+    }
+
+    @Test
+    void shouldCapEachTemplateWithinTheWindow() {
+        long passed = IntStream.range(0, 10)
+                .filter(i -> decide(controller, Level.INFO, "Getting customer by id: {}") == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(passed).isEqualTo(3);
+        assertThat(limiter.getSuppressed()).isEqualTo(7);
+        // A different message from the same logger has its own budget
+        assertThat(decide(controller, Level.INFO, "Registering customer: {}")).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void shouldAlwaysPassWarningsAndOtherLoggers() {
+        Logger repository = loggerContext.getLogger("org.nngc.repository.CustomerRepository");
+        IntStream.range(0, 10).forEach(i -> {
+            assertThat(decide(controller, Level.WARN, "Customer not found: {}")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(repository, Level.INFO, "Loaded {}")).isEqualTo(FilterReply.NEUTRAL);
+        });
+
+        assertThat(limiter.getSuppressed()).isZero();
+    }
+
+    @Test
+    void shouldNotSpendBudgetOnDisabledLevels() {
+        IntStream.range(0, 10).forEach(i -> decide(controller, Level.DEBUG, "Request details: {}"));
+        controller.setLevel(Level.DEBUG);
+
+        assertThat(decide(controller, Level.DEBUG, "Request details: {}")).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format) {
+        return limiter.decide(null, logger, level, format, new Object[] {42L}, null);
+    }
+}
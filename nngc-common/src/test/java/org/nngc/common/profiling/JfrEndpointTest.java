@@ -0,0 +1,90 @@
+package org.nngc.common.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrEndpointTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ProfilingAutoConfiguration.class));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldOnlyExposeEndpointWhenIncluded() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(JfrEndpoint.class));
+        contextRunner.withPropertyValues("management.endpoints.web.exposure.include=health,jfr")
+                .run(context -> assertThat(context).hasSingleBean(JfrEndpoint.class));
+        contextRunner.withPropertyValues("management.endpoints.web.exposure.include=jfr", "nngc.profiling.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(JfrEndpoint.class));
+    }
+
+    @Test
+    void shouldRecordAndSummariseHotMethods() throws Exception {
+        JfrEndpoint endpoint = endpoint();
+
+        Map<String, Object> started = endpoint.start("profile", Duration.ofSeconds(30));
+        burnCpu(Duration.ofSeconds(2));
+        Map<String, Object> stopped = endpoint.stop();
+
+        assertThat(stopped).containsEntry("name", started.get("name"));
+        assertThat(endpoint.status()).containsEntry("running", null);
+        JfrSummary summary = endpoint.summary((String) started.get("name"));
+        assertThat(summary.executionSamples()).isPositive();
+        assertThat(summary.hotMethods()).extracting(JfrSummary.HotMethod::method)
+                .anyMatch(method -> method.startsWith(JfrEndpointTest.class.getName() + "."));
+        assertThat(endpoint.download((String) started.get("name"), "file").contentLength()).isPositive();
+    }
+
+    @Test
+    void shouldRejectUnboundedRecordings() {
+        JfrEndpoint endpoint = endpoint();
+
+        assertThatThrownBy(() -> endpoint.start("custom", null)).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.start(null, Duration.ofHours(1))).isInstanceOf(InvalidEndpointRequestException.class);
+        endpoint.start(null, Duration.ofSeconds(30));
+        try {
+            assertThatThrownBy(() -> endpoint.start(null, null)).isInstanceOf(InvalidEndpointRequestException.class);
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    @Test
+    void shouldNotServeFilesOutsideTheRecordingsDirectory() {
+        JfrEndpoint endpoint = endpoint();
+
+        assertThat(endpoint.summary("../../etc/passwd")).isNull();
+        assertThat(endpoint.download("..", "file")).isNull();
+    }
+
+    private JfrEndpoint endpoint() {
+        ProfilingProperties properties = new ProfilingProperties();
+        properties.setDirectory(directory);
+        properties.setTemplates(List.of("default", "profile"));
+        return new JfrEndpoint(new JfrRecordings(properties, "test-service"), properties);
+    }
+
+    private static void burnCpu(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        double sink = 0;
+        while (System.nanoTime() < end) {
+            for (int i = 1; i < 10_000; i++) {
+                sink += Math.sqrt(i) * Math.log(i);
+            }
+        }
+        assertThat(sink).isPositive();
+    }
+}
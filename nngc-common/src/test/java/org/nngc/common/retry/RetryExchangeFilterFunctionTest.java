@@ -0,0 +1,185 @@
+package org.nngc.common.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryExchangeFilterFunctionTest {
+
+    private static final URI CUSTOMER = URI.create("http://customer-service/customer/1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final RetryProperties properties = new RetryProperties();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    RetryExchangeFilterFunctionTest() {
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestUntilItSucceeds() {
+        RetryExchangeFilterFunction filter = filter();
+
+        ClientResponse response = filter.filter(get(), request -> respond(calls.incrementAndGet() < 3
+                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)).block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.get("retry.attempts").tag("service", "customer-service").counter().count());
+    }
+
+    @Test
+    void shouldReturnLastResponseWhenAttemptsRunOut() {
+        ClientResponse response = filter().filter(get(), request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.BAD_GATEWAY);
+        }).block();
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.statusCode());
+        assertEquals(properties.getMaxAttempts(), calls.get());
+    }
+
+    @Test
+    void shouldRetryConnectionFailures() {
+        ClientRequest request = get();
+
+        ClientResponse response = filter().filter(request, req -> calls.incrementAndGet() == 1
+                ? Mono.error(new WebClientRequestException(new ConnectException("Connection refused"), req.method(), req.url(), req.headers()))
+                : respond(HttpStatus.OK)).block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldNotRetryFailuresAfterTheRequestWasSent() {
+        assertThrows(WebClientRequestException.class, () -> filter().filter(get(), req -> {
+            calls.incrementAndGet();
+            return Mono.error(new WebClientRequestException(new IOException("Connection reset by peer"), req.method(), req.url(), req.headers()));
+        }).block());
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldNotRetryGetMarkedNonIdempotent() {
+        ClientRequest get = ClientRequest.create(HttpMethod.GET, CUSTOMER)
+                .attribute(RetryExchangeFilterFunction.NON_IDEMPOTENT, true)
+                .build();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, filter().filter(get, request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.SERVICE_UNAVAILABLE);
+        }).block().statusCode());
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentRequestsOrOtherErrors() {
+        RetryExchangeFilterFunction filter = filter();
+        ClientRequest post = ClientRequest.create(HttpMethod.POST, CUSTOMER).build();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, filter.filter(post, request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.SERVICE_UNAVAILABLE);
+        }).block().statusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, filter.filter(get(), request -> {
+            calls.incrementAndGet();
+            return respond(HttpStatus.INTERNAL_SERVER_ERROR);
+        }).block().statusCode());
+        assertThrows(IllegalStateException.class, () -> filter.filter(get(), request -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("bug"));
+        }).block());
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void shouldRetryPostMarkedIdempotent() {
+        ClientRequest post = ClientRequest.create(HttpMethod.POST, CUSTOMER)
+                .attribute(RetryExchangeFilterFunction.IDEMPOTENT, true)
+                .build();
+
+        filter().filter(post, request -> respond(calls.incrementAndGet() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsSpent() {
+        properties.getBudget().setMaxTokens(5);
+        RetryExchangeFilterFunction filter = filter();
+
+        for (int i = 0; i < 100; i++) {
+            filter.filter(get(), request -> {
+                calls.incrementAndGet();
+                return respond(HttpStatus.SERVICE_UNAVAILABLE);
+            }).block();
+        }
+
+        // 100 requests, the 5 starting tokens plus 10% of traffic (10 tokens) of retries at most
+        int retries = calls.get() - 100;
+        assertTrue(retries <= 15, "retries " + retries);
+        assertEquals(retries, (int) meterRegistry.get("retry.attempts").counter().count());
+        assertTrue(meterRegistry.get("retry.budget.exhausted").counter().count() > 0);
+        assertTrue(meterRegistry.get("retry.budget.tokens").gauge().value() < 1);
+    }
+
+    @Test
+    void shouldRefillBudgetOverTime() {
+        properties.getBudget().setMaxTokens(1);
+        RetryExchangeFilterFunction filter = filter();
+        RetryBudget budget = filter.budgetFor("customer-service");
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(!budget.tryWithdraw());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void shouldKeepBackoffWithinExponentialCap() {
+        properties.setInitialBackoff(Duration.ofMillis(100));
+        properties.setMaxBackoff(Duration.ofSeconds(1));
+        RetryExchangeFilterFunction filter = filter();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.backoff(1).compareTo(Duration.ofMillis(100)) <= 0);
+            assertTrue(filter.backoff(3).compareTo(Duration.ofMillis(400)) <= 0);
+            assertTrue(filter.backoff(20).compareTo(Duration.ofSeconds(1)) <= 0);
+        }
+    }
+
+    private RetryExchangeFilterFunction filter() {
+        return new RetryExchangeFilterFunction(properties, meterRegistry, clock::get);
+    }
+
+    private static ClientRequest get() {
+        return ClientRequest.create(HttpMethod.GET, CUSTOMER).build();
+    }
+
+    private static Mono<ClientResponse> respond(HttpStatus status) {
+        return Mono.just(ClientResponse.create(status).build());
+    }
+}
@@ -0,0 +1,90 @@
+package org.nngc.common.security;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.nngc.common.profiling.JfrEndpoint;
+import org.nngc.common.security.identity.IdentityHeaderAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceSecurityTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(IdentityHeaderAutoConfiguration.class, ServiceSecurityAutoConfiguration.class))
+            .withUserConfiguration(ServiceConfiguration.class);
+
+    @Test
+    void shouldOpenActuatorButKeepJfrForOperators() {
+        contextRunner.run(context -> {
+            Filter securityFilters = context.getBean("springSecurityFilterChain", Filter.class);
+
+            assertThat(status(securityFilters, "/actuator/health", null)).isEqualTo(200);
+            assertThat(status(securityFilters, "/actuator/jfr", null)).isEqualTo(401);
+            assertThat(status(securityFilters, "/actuator/jfr", "user-token")).isEqualTo(403);
+            assertThat(status(securityFilters, "/actuator/jfr", "operator-token")).isEqualTo(200);
+        });
+    }
+
+    @Test
+    void shouldApplyServiceMatchersAndAuthenticateTheRest() {
+        contextRunner.run(context -> {
+            Filter securityFilters = context.getBean("springSecurityFilterChain", Filter.class);
+
+            assertThat(status(securityFilters, "/public/info", null)).isEqualTo(200);
+            assertThat(status(securityFilters, "/customers/1", null)).isEqualTo(401);
+            assertThat(status(securityFilters, "/customers/1", "user-token")).isEqualTo(200);
+        });
+    }
+
+    @Test
+    void shouldBackOffWithoutAJwtDecoder() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(IdentityHeaderAutoConfiguration.class, ServiceSecurityAutoConfiguration.class))
+                .run(context -> assertThat(context).doesNotHaveBean(ServiceSecurity.class));
+    }
+
+    private static int status(Filter securityFilters, String path, String bearerToken) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (bearerToken != null) {
+            request.addHeader("Authorization", "Bearer " + bearerToken);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityFilters.doFilter(request, response, (req, res) -> { });
+        return response.getStatus();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableWebSecurity
+    static class ServiceConfiguration {
+
+        @Bean
+        JwtDecoder jwtDecoder() {
+            return token -> switch (token) {
+                case "user-token" -> jwt(token, "customer");
+                case "operator-token" -> jwt(token, JfrEndpoint.OPERATOR_AUTHORITY.substring("SCOPE_".length()));
+                default -> throw new BadJwtException("Not a JWT");
+            };
+        }
+
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http, ServiceSecurity serviceSecurity) throws Exception {
+            return serviceSecurity.build(http, auth -> auth.requestMatchers("/public/**").permitAll());
+        }
+
+        private static Jwt jwt(String token, String scope) {
+            return Jwt.withTokenValue(token).header("alg", "RS256").subject("user-1").claim("scope", scope).build();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.nngc.common.security.identity;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayIdentityConfigurerTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(IdentityHeaderAutoConfiguration.class))
+            .withUserConfiguration(ResourceServerConfiguration.class);
+
+    @Test
+    void shouldAcceptIdentityHeaderWithoutDecodingTheBearerToken() {
+        contextRunner.withPropertyValues("nngc.security.identity.enabled=true", "nngc.security.identity.secret=" + SECRET)
+                .run(context -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers/1");
+                    request.addHeader("X-NNGC-Identity", new IdentityHeaderCodec(SECRET)
+                            .encode("user-1", List.of("ROLE_customer"), Instant.now().plusSeconds(30)));
+                    request.addHeader("Authorization", "Bearer not-a-jwt");
+
+                    Exchange exchange = Exchange.run(context.getBean("springSecurityFilterChain", Filter.class), request);
+
+                    assertThat(exchange.authentication()).isInstanceOf(GatewayIdentityAuthenticationToken.class);
+                    assertThat(context.getBean(RecordingJwtDecoder.class).decoded).isEmpty();
+                });
+    }
+
+    @Test
+    void shouldFallBackToTheJwtWithoutIdentityHeader() {
+        contextRunner.withPropertyValues("nngc.security.identity.enabled=true", "nngc.security.identity.secret=" + SECRET)
+                .run(context -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers/1");
+                    request.addHeader("Authorization", "Bearer service-token");
+
+                    Exchange exchange = Exchange.run(context.getBean("springSecurityFilterChain", Filter.class), request);
+
+                    assertThat(exchange.authentication()).isNotNull();
+                    assertThat(exchange.authentication().getName()).isEqualTo("service-account");
+                    assertThat(context.getBean(RecordingJwtDecoder.class).decoded).containsExactly("service-token");
+                });
+    }
+
+    @Test
+    void shouldIgnoreIdentityHeaderWhenDisabled() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(IdentityHeaderCodec.class);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers/1");
+            request.addHeader("X-NNGC-Identity", new IdentityHeaderCodec(SECRET)
+                    .encode("user-1", List.of("ROLE_customer"), Instant.now().plusSeconds(30)));
+
+            Exchange exchange = Exchange.run(context.getBean("springSecurityFilterChain", Filter.class), request);
+
+            assertThat(exchange.authentication()).isNull();
+            assertThat(exchange.response().getStatus()).isEqualTo(401);
+        });
+    }
+
+    @Test
+    void shouldFailToStartWhenEnabledWithoutSecret() {
+        contextRunner.withPropertyValues("nngc.security.identity.enabled=true")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("nngc.security.identity.secret is not set"));
+    }
+
+    /** What reached the application behind the security filters, if anything. */
+    private record Exchange(Authentication authentication, MockHttpServletResponse response) {
+
+        static Exchange run(Filter securityFilters, MockHttpServletRequest request) throws Exception {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicReference<Authentication> authentication = new AtomicReference<>();
+            FilterChain application = (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            securityFilters.doFilter(request, response, application);
+            return new Exchange(authentication.get(), response);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableWebSecurity
+    static class ResourceServerConfiguration {
+
+        @Bean
+        RecordingJwtDecoder jwtDecoder() {
+            return new RecordingJwtDecoder();
+        }
+
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http, GatewayIdentityConfigurer gatewayIdentity,
+                                                RecordingJwtDecoder jwtDecoder) throws Exception {
+            http.authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated())
+                    .oauth2ResourceServer(resourceServer -> resourceServer.jwt(jwt -> jwt.decoder(jwtDecoder)))
+                    .with(gatewayIdentity, Customizer.withDefaults());
+            return http.build();
+        }
+    }
+
+    static class RecordingJwtDecoder implements JwtDecoder {
+
+        final List<String> decoded = new ArrayList<>();
+
+        @Override
+        public Jwt decode(String token) {
+            decoded.add(token);
+            if (!"service-token".equals(token)) {
+                throw new BadJwtException("Not a JWT");
+            }
+            return Jwt.withTokenValue(token).header("alg", "RS256").subject("service-account").build();
+        }
+    }
+}
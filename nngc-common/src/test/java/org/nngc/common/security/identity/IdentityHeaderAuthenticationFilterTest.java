@@ -0,0 +1,75 @@
+package org.nngc.common.security.identity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityHeaderAuthenticationFilterTest {
+
+    private static final String HEADER = "X-NNGC-Identity";
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec("0123456789abcdef0123456789abcdef");
+    private final IdentityHeaderAuthenticationFilter filter =
+            new IdentityHeaderAuthenticationFilter(codec, HEADER, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateValidHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HEADER, codec.encode("user-1", List.of("ROLE_customer"), NOW.plusSeconds(30)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isInstanceOf(GatewayIdentityAuthenticationToken.class);
+        assertThat(authentication.getName()).isEqualTo("user-1");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_customer");
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void shouldLeaveExpiredOrForgedHeaderToTheJwtCheck() throws Exception {
+        String expired = codec.encode("user-1", List.of(), NOW.minusSeconds(1));
+        String forged = new IdentityHeaderCodec("another-secret-another-secret-another")
+                .encode("admin", List.of("ROLE_admin"), NOW.plusSeconds(30));
+
+        for (String header : List.of(expired, forged)) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(HEADER, header);
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+            assertThat(chain.getRequest()).isSameAs(request);
+        }
+    }
+
+    @Test
+    void shouldPassRequestsWithoutHeaderThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+}
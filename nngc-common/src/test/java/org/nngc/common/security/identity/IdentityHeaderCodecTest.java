@@ -0,0 +1,56 @@
+package org.nngc.common.security.identity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdentityHeaderCodecTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec(SECRET);
+
+    @Test
+    void shouldRoundTripIdentity() {
+        Instant now = Instant.now();
+        String header = codec.encode("user-1", List.of("SCOPE_openid", "ROLE_customer"), now.plusSeconds(30));
+
+        GatewayIdentity identity = codec.decode(header, now);
+
+        assertNotNull(identity);
+        assertEquals("user-1", identity.subject());
+        assertEquals(List.of("SCOPE_openid", "ROLE_customer"), identity.roles());
+    }
+
+    @Test
+    void shouldRejectExpiredHeader() {
+        Instant now = Instant.now();
+        String header = codec.encode("user-1", List.of(), now.plusSeconds(30));
+
+        assertNull(codec.decode(header, now.plusSeconds(31)));
+    }
+
+    @Test
+    void shouldRejectTamperedOrForeignHeader() {
+        Instant now = Instant.now();
+        String header = codec.encode("user-1", List.of("SCOPE_openid"), now.plusSeconds(30));
+        String forged = new IdentityHeaderCodec(SECRET.replace('0', 'x'))
+                .encode("admin", List.of("ROLE_admin"), now.plusSeconds(30));
+        String swapped = forged.substring(0, forged.indexOf('.')) + header.substring(header.indexOf('.'));
+
+        assertNull(codec.decode(forged, now));
+        assertNull(codec.decode(swapped, now));
+        assertNull(codec.decode("not-a-header", now));
+    }
+
+    @Test
+    void shouldRequireLongSecret() {
+        assertThrows(IllegalStateException.class, () -> new IdentityHeaderCodec("too-short"));
+    }
+}
@@ -0,0 +1,172 @@
+package org.nngc.common.security.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingJwtVerifierTest {
+
+    private RSAKey signingKey;
+    private AtomicInteger jwksLoads;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private CachingJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        jwksLoads = new AtomicInteger();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.now());
+
+        JwtVerificationProperties properties = new JwtVerificationProperties();
+        properties.getCache().setMaxEntries(2);
+        RefreshingJwkSource jwkSource = new RefreshingJwkSource(() -> {
+            jwksLoads.incrementAndGet();
+            return new JWKSet(signingKey.toPublicJWK());
+        }, Duration.ZERO, meterRegistry);
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        verifier = new CachingJwtVerifier(new NimbusJwtDecoder(processor), jwkSource, properties, meterRegistry, clock);
+    }
+
+    @Test
+    void shouldServeRepeatedTokenFromCache() throws Exception {
+        String token = sign(clock.instant().plusSeconds(300));
+
+        Jwt first = verifier.decode(token);
+        Jwt second = verifier.decode(token);
+
+        assertEquals(first, second);
+        assertEquals(1, jwksLoads.get());
+        assertEquals(1, timerCount("verified"));
+        assertEquals(1, timerCount("cache_hit"));
+    }
+
+    @Test
+    void shouldDropCachedTokenOnceExpired() throws Exception {
+        String token = sign(clock.instant().plusSeconds(60));
+        verifier.decode(token);
+        assertNotNull(verifier.getIfCached(token));
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertNull(verifier.getIfCached(token));
+        assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    void shouldNotCacheRejectedTokens() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        String forged = sign(otherKey, clock.instant().plusSeconds(300));
+
+        assertThrows(JwtException.class, () -> verifier.decode(forged));
+        assertThrows(JwtException.class, () -> verifier.decode(forged));
+
+        assertEquals(0, verifier.cacheSize());
+        assertEquals(2, timerCount("rejected"));
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() throws Exception {
+        verifier.decode(sign(clock.instant().plusSeconds(300)));
+        verifier.decode(sign(clock.instant().plusSeconds(301)));
+        verifier.decode(sign(clock.instant().plusSeconds(302)));
+
+        assertEquals(2, verifier.cacheSize());
+    }
+
+    @Test
+    void shouldLeaveExpiredEntriesToTheSweepWhenFull() throws Exception {
+        verifier.decode(sign(clock.instant().plusSeconds(10)));
+        verifier.decode(sign(clock.instant().plusSeconds(11)));
+        clock.advance(Duration.ofSeconds(60));
+
+        String token = sign(clock.instant().plusSeconds(300));
+        verifier.decode(token);
+        assertEquals(2, verifier.cacheSize());
+        assertNull(verifier.getIfCached(token));
+
+        verifier.evictExpired();
+        verifier.decode(token);
+        assertEquals(1, verifier.cacheSize());
+        assertNotNull(verifier.getIfCached(token));
+    }
+
+    private long timerCount(String result) {
+        return meterRegistry.get("security.jwt.verification").tag("result", result).timer().count();
+    }
+
+    private String sign(Instant expiresAt) throws JOSEException {
+        return sign(signingKey, expiresAt);
+    }
+
+    private static String sign(RSAKey key, Instant expiresAt) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.nngc.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Context;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineContext;
+import org.nngc.common.deadline.DeadlineMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives each call no more time than the request it is made for has left: the earlier of the
+ * call's own deadline and the caller's, which is {@link #DEADLINE} when set (see
+ * {@link ReactiveGrpc}) and otherwise the servlet request's {@link DeadlineContext}. gRPC sends it
+ * on as {@code grpc-timeout}. Calls made outside a request with a deadline pass through untouched.
+ */
+public class DeadlineClientInterceptor implements ClientInterceptor {
+
+    /** The caller's deadline, for calls started off the request thread. */
+    public static final Context.Key<Deadline> DEADLINE = Context.key("nngc-deadline");
+
+    private final DeadlineMetrics metrics;
+
+    public DeadlineClientInterceptor(DeadlineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+        Deadline deadline = DEADLINE.get() != null ? DEADLINE.get() : DeadlineContext.current();
+        if (deadline == null) {
+            return next.newCall(method, callOptions);
+        }
+        if (deadline.isExpired()) {
+            // gRPC fails a call whose deadline has passed without sending it
+            metrics.outboundSkipped();
+            return next.newCall(method, callOptions.withDeadlineAfter(0, TimeUnit.NANOSECONDS));
+        }
+        io.grpc.Deadline remaining = io.grpc.Deadline.after(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        CallOptions options = callOptions.withDeadline(
+                callOptions.getDeadline() != null ? callOptions.getDeadline().minimum(remaining) : remaining);
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, options)) {
+            @Override
+            public void start(Listener<R> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        if (status.getCode() == Status.Code.DEADLINE_EXCEEDED && deadline.isExpired()) {
+                            metrics.outboundTimedOut();
+                        }
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
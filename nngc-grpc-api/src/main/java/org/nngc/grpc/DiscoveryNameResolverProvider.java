@@ -0,0 +1,118 @@
+package org.nngc.grpc;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves {@code discovery:///<service>} to the service's instances as known to the Spring
+ * Cloud {@link DiscoveryClient} (Eureka), on the port the instance publishes as
+ * {@code grpc-port} metadata. Re-resolves every {@code refreshInterval}, and whenever the channel
+ * asks after losing a connection.
+ */
+class DiscoveryNameResolverProvider extends NameResolverProvider {
+
+    static final String SCHEME = "discovery";
+    static final String GRPC_PORT = "grpc-port";
+
+    private final DiscoveryClient discoveryClient;
+    private final Duration refreshInterval;
+
+    DiscoveryNameResolverProvider(DiscoveryClient discoveryClient, Duration refreshInterval) {
+        this.discoveryClient = discoveryClient;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        String serviceId = targetUri.getPath().replaceFirst("^/", "");
+        return new DiscoveryNameResolver(serviceId, args);
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        return 5;
+    }
+
+    private final class DiscoveryNameResolver extends NameResolver {
+
+        private final String serviceId;
+        private final Args args;
+        private final SynchronizationContext syncContext;
+        private Listener2 listener;
+        private ScheduledFuture<?> refreshTask;
+
+        DiscoveryNameResolver(String serviceId, Args args) {
+            this.serviceId = serviceId;
+            this.args = args;
+            this.syncContext = args.getSynchronizationContext();
+        }
+
+        @Override
+        public String getServiceAuthority() {
+            return serviceId;
+        }
+
+        @Override
+        public void start(Listener2 listener) {
+            this.listener = listener;
+            resolve();
+            long millis = refreshInterval.toMillis();
+            refreshTask = args.getScheduledExecutorService().scheduleWithFixedDelay(
+                    () -> syncContext.execute(this::resolve), millis, millis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void refresh() {
+            resolve();
+        }
+
+        @Override
+        public void shutdown() {
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+            }
+        }
+
+        private void resolve() {
+            List<EquivalentAddressGroup> addresses = discoveryClient.getInstances(serviceId).stream()
+                    .filter(instance -> instance.getMetadata().containsKey(GRPC_PORT))
+                    .map(DiscoveryNameResolver::address)
+                    .toList();
+            if (addresses.isEmpty()) {
+                listener.onError(Status.UNAVAILABLE.withDescription("No instance of " + serviceId + " publishes a " + GRPC_PORT));
+                return;
+            }
+            listener.onResult(ResolutionResult.newBuilder().setAddresses(addresses).build());
+        }
+
+        private static EquivalentAddressGroup address(ServiceInstance instance) {
+            int port = Integer.parseInt(instance.getMetadata().get(GRPC_PORT));
+            return new EquivalentAddressGroup(new InetSocketAddress(instance.getHost(), port));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.nngc.grpc;
+
+import io.grpc.CallCredentials;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One long-lived HTTP/2 channel per target service, shared by every stub for it. Calls are
+ * spread round-robin over the service's instances, carry the default deadline unless they set
+ * one, and send the service's client-credentials token when {@code callCredentials} is given.
+ * Methods passed as idempotent to {@link #channel(String, Collection)} are retried as
+ * configured in {@link GrpcProperties.Retry}.
+ */
+public class GrpcChannels implements DisposableBean {
+
+    private static final Duration DISCOVERY_REFRESH = Duration.ofSeconds(30);
+
+    private final GrpcProperties.Client properties;
+    private final DiscoveryNameResolverProvider discovery;
+    private final List<ClientInterceptor> interceptors;
+    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+
+    public GrpcChannels(GrpcProperties.Client properties, DiscoveryClient discoveryClient,
+                        CallCredentials callCredentials, List<ClientInterceptor> interceptors) {
+        this.properties = properties;
+        this.discovery = discoveryClient != null ? new DiscoveryNameResolverProvider(discoveryClient, DISCOVERY_REFRESH) : null;
+        this.interceptors = new ArrayList<>(interceptors);
+        this.interceptors.add(defaults(properties.getDeadline(), callCredentials));
+    }
+
+    public Channel channel(String serviceId) {
+        return channel(serviceId, List.of());
+    }
+
+    /**
+     * The channel for {@code serviceId}, retrying {@code idempotentMethods}. The methods are fixed
+     * when the channel is created, by the first caller; each service has a single client for another.
+     */
+    public Channel channel(String serviceId, Collection<? extends MethodDescriptor<?, ?>> idempotentMethods) {
+        return channels.computeIfAbsent(serviceId, id -> create(id, idempotentMethods));
+    }
+
+    @SuppressWarnings("deprecation")
+    private ManagedChannel create(String serviceId, Collection<? extends MethodDescriptor<?, ?>> idempotentMethods) {
+        GrpcProperties.Service service = properties.getServices().get(serviceId);
+        NettyChannelBuilder builder;
+        if (service != null && service.getAddress() != null) {
+            builder = NettyChannelBuilder.forTarget(service.getAddress());
+        } else if (discovery != null) {
+            builder = NettyChannelBuilder.forTarget(DiscoveryNameResolverProvider.SCHEME + ":///" + serviceId)
+                    .nameResolverFactory(discovery);
+        } else {
+            throw new IllegalStateException("No address for gRPC service " + serviceId
+                    + "; set nngc.grpc.client.services." + serviceId + ".address or enable service discovery");
+        }
+        if (properties.getRetry().isEnabled() && !idempotentMethods.isEmpty()) {
+            builder.defaultServiceConfig(retryServiceConfig(properties.getRetry(), idempotentMethods)).enableRetry();
+        } else {
+            builder.disableRetry();
+        }
+        return builder
+                .usePlaintext()
+                .defaultLoadBalancingPolicy("round_robin")
+                .intercept(interceptors)
+                .build();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        channels.values().forEach(ManagedChannel::shutdown);
+        for (ManagedChannel channel : channels.values()) {
+            if (!channel.awaitTermination(5, TimeUnit.SECONDS)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * The service config (in its JSON-as-map form) with a retry policy for the given methods and
+     * retry throttling for the whole channel.
+     */
+    static Map<String, Object> retryServiceConfig(GrpcProperties.Retry retry,
+                                                  Collection<? extends MethodDescriptor<?, ?>> methods) {
+        List<Map<String, Object>> names = methods.stream()
+                .<Map<String, Object>>map(method -> Map.of(
+                        "service", method.getServiceName(),
+                        "method", method.getBareMethodName()))
+                .toList();
+        Map<String, Object> retryPolicy = Map.of(
+                "maxAttempts", (double) retry.getMaxAttempts(),
+                "initialBackoff", seconds(retry.getInitialBackoff()),
+                "maxBackoff", seconds(retry.getMaxBackoff()),
+                "backoffMultiplier", 2.0,
+                "retryableStatusCodes", List.of(Status.Code.UNAVAILABLE.name()));
+        return Map.of(
+                "methodConfig", List.of(Map.of("name", names, "retryPolicy", retryPolicy)),
+                "retryThrottling", Map.of("maxTokens", retry.getMaxTokens(), "tokenRatio", retry.getTokenRatio()));
+    }
+
+    private static String seconds(Duration duration) {
+        return BigDecimal.valueOf(duration.toNanos(), 9).stripTrailingZeros().toPlainString() + "s";
+    }
+
+    private static ClientInterceptor defaults(Duration deadline, CallCredentials callCredentials) {
+        return new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                CallOptions options = callOptions;
+                if (options.getDeadline() == null) {
+                    options = options.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (callCredentials != null && options.getCredentials() == null) {
+                    options = options.withCallCredentials(callCredentials);
+                }
+                return next.newCall(method, options);
+            }
+        };
+    }
+}
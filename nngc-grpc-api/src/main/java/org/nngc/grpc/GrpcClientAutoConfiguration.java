@@ -0,0 +1,55 @@
+package org.nngc.grpc;
+
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.nngc.common.deadline.DeadlineMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link GrpcChannels} for services that call others over gRPC. Calls carry the token of the
+ * service's client-credentials manager when it has one (see nngc-http-client), get no more time
+ * than the request they are made for has left, and are traced when the service has an
+ * {@code ObservationRegistry}.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration"
+})
+@ConditionalOnClass(ManagedChannel.class)
+@ConditionalOnProperty(prefix = "nngc.grpc.client", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GrpcChannels grpcChannels(GrpcProperties properties, ObjectProvider<DiscoveryClient> discoveryClient,
+                                     ObjectProvider<OAuth2AuthorizedClientManager> authorizedClientManager,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     ObjectProvider<ObservationRegistry> observationRegistry) {
+        OAuth2AuthorizedClientManager manager = authorizedClientManager.getIfAvailable();
+        List<ClientInterceptor> interceptors = new ArrayList<>();
+        MeterRegistry meters = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        interceptors.add(GrpcMetricsInterceptors.client(meters));
+        interceptors.add(new DeadlineClientInterceptor(new DeadlineMetrics(meters)));
+        // Starts a client span and sends it to the callee as traceparent metadata
+        observationRegistry.ifAvailable(registry -> interceptors.add(new ObservationGrpcClientInterceptor(registry)));
+        return new GrpcChannels(properties.getClient(), discoveryClient.getIfAvailable(),
+                manager != null ? new OAuth2CallCredentials(manager, properties.getClient().getClientRegistrationId()) : null,
+                interceptors);
+    }
+}
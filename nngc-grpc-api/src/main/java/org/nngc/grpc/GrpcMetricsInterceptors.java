@@ -0,0 +1,74 @@
+package org.nngc.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@code grpc.server.requests} and {@code grpc.client.requests}, both tagged with
+ * {@code service}, {@code method} and the final {@code status} code, time every call from
+ * start to close (a whole stream, for streaming calls).
+ */
+public final class GrpcMetricsInterceptors {
+
+    private GrpcMetricsInterceptors() {
+    }
+
+    public static ServerInterceptor server(MeterRegistry meterRegistry) {
+        return new ServerInterceptor() {
+            @Override
+            public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+                    @Override
+                    public void close(Status status, Metadata trailers) {
+                        record(meterRegistry, sample, "grpc.server.requests", call.getMethodDescriptor(), status);
+                        super.close(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+    public static ClientInterceptor client(MeterRegistry meterRegistry) {
+        return new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions, Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<R> responseListener, Metadata headers) {
+                        Timer.Sample sample = Timer.start(meterRegistry);
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                record(meterRegistry, sample, "grpc.client.requests", method, status);
+                                super.onClose(status, trailers);
+                            }
+                        }, headers);
+                    }
+                };
+            }
+        };
+    }
+
+    private static void record(MeterRegistry meterRegistry, Timer.Sample sample, String name,
+                               MethodDescriptor<?, ?> method, Status status) {
+        sample.stop(Timer.builder(name)
+                .tag("service", String.valueOf(method.getServiceName()))
+                .tag("method", String.valueOf(method.getBareMethodName()))
+                .tag("status", status.getCode().name())
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,110 @@
+package org.nngc.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Internal gRPC transport. Each service serves its gRPC API on {@code server.port} and publishes
+ * that port as the {@code grpc-port} instance metadata, which is how callers find it through
+ * service discovery. {@code client.services.<name>.address} pins a service to a fixed
+ * {@code host:port} instead (tests, benchmarks, local runs without Eureka).
+ * <p>
+ * {@code client.enabled=false} puts the services back on their HTTP clients for internal calls.
+ */
+@ConfigurationProperties(prefix = "nngc.grpc")
+public class GrpcProperties {
+
+    private final Server server = new Server();
+    private final Client client = new Client();
+
+    public Server getServer() { return server; }
+
+    public Client getClient() { return client; }
+
+    public static class Server {
+        private boolean enabled = true;
+        private int port = 9090;
+        /** Require a valid bearer JWT on every call. */
+        private boolean auth = true;
+        private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getPort() { return port; }
+        public void setPort(int port) { this.port = port; }
+
+        public boolean isAuth() { return auth; }
+        public void setAuth(boolean auth) { this.auth = auth; }
+
+        public Duration getShutdownGracePeriod() { return shutdownGracePeriod; }
+        public void setShutdownGracePeriod(Duration shutdownGracePeriod) { this.shutdownGracePeriod = shutdownGracePeriod; }
+    }
+
+    public static class Client {
+        private boolean enabled = true;
+        /** Applied to calls that do not set their own deadline. */
+        private Duration deadline = Duration.ofSeconds(5);
+        /** Client registration whose client-credentials token is sent with every call. */
+        private String clientRegistrationId = "keycloak";
+        private final Retry retry = new Retry();
+        private final Map<String, Service> services = new LinkedHashMap<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getDeadline() { return deadline; }
+        public void setDeadline(Duration deadline) { this.deadline = deadline; }
+
+        public String getClientRegistrationId() { return clientRegistrationId; }
+        public void setClientRegistrationId(String clientRegistrationId) { this.clientRegistrationId = clientRegistrationId; }
+
+        public Retry getRetry() { return retry; }
+
+        public Map<String, Service> getServices() { return services; }
+    }
+
+    /**
+     * gRPC's own retries for the methods a client marks idempotent, the counterpart of
+     * {@code nngc.retry} for WebClient calls: UNAVAILABLE calls are retried with full-jitter
+     * exponential backoff, within the call's deadline. Per target service, every failure costs a
+     * token and every success earns back {@code tokenRatio} of one; below half of
+     * {@code maxTokens} nothing is retried.
+     */
+    public static class Retry {
+        private boolean enabled = true;
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        private double maxTokens = 10;
+        private double tokenRatio = 0.1;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+        public double getMaxTokens() { return maxTokens; }
+        public void setMaxTokens(double maxTokens) { this.maxTokens = maxTokens; }
+
+        public double getTokenRatio() { return tokenRatio; }
+        public void setTokenRatio(double tokenRatio) { this.tokenRatio = tokenRatio; }
+    }
+
+    public static class Service {
+        private String address;
+
+        public String getAddress() { return address; }
+        public void setAddress(String address) { this.address = address; }
+    }
+}
@@ -0,0 +1,58 @@
+package org.nngc.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves every {@link BindableService} bean (the generated {@code *ImplBase} subclasses) on
+ * {@code nngc.grpc.server.port}, behind bearer-JWT authentication and call timers, and traced
+ * when the service has an {@link ObservationRegistry}.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration"
+})
+@ConditionalOnClass(Server.class)
+@ConditionalOnBean(BindableService.class)
+@ConditionalOnProperty(prefix = "nngc.grpc.server", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcServerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GrpcServerLifecycle grpcServerLifecycle(GrpcProperties properties, List<BindableService> services,
+                                                   ObjectProvider<JwtDecoder> jwtDecoder,
+                                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                                   ObjectProvider<ObservationRegistry> observationRegistry) {
+        // The last interceptor runs first: calls rejected for their token are timed too
+        List<ServerInterceptor> interceptors = new ArrayList<>();
+        if (properties.getServer().isAuth()) {
+            JwtDecoder decoder = jwtDecoder.getIfAvailable();
+            if (decoder == null) {
+                throw new IllegalStateException("nngc.grpc.server.auth is on but there is no JwtDecoder bean");
+            }
+            interceptors.add(new JwtServerInterceptor(decoder));
+        }
+        interceptors.add(GrpcMetricsInterceptors.server(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+        // Outermost, so the server span (continued from the caller's traceparent) covers the rest
+        observationRegistry.ifAvailable(registry -> interceptors.add(new ObservationGrpcServerInterceptor(registry)));
+        return new GrpcServerLifecycle(properties.getServer(), services, interceptors);
+    }
+}
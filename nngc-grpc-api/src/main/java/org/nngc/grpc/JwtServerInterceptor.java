@@ -0,0 +1,52 @@
+package org.nngc.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Rejects calls without a valid bearer JWT, verified with the service's {@link JwtDecoder} (the
+ * same caching verifier the HTTP endpoints use). The verified token is available to service
+ * code through {@link #JWT}.
+ */
+public class JwtServerInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<Jwt> JWT = Context.key("nngc-jwt");
+
+    static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    private static final String BEARER = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+
+    public JwtServerInterceptor(JwtDecoder jwtDecoder) {
+        this.jwtDecoder = jwtDecoder;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        String authorization = headers.get(AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return reject(call, "Missing bearer token");
+        }
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(authorization.substring(BEARER.length()));
+        } catch (JwtException e) {
+            return reject(call, "Invalid bearer token");
+        }
+        return Contexts.interceptCall(Context.current().withValue(JWT, jwt), call, headers, next);
+    }
+
+    private static <Q, R> ServerCall.Listener<Q> reject(ServerCall<Q, R> call, String description) {
+        call.close(Status.UNAUTHENTICATED.withDescription(description), new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+}
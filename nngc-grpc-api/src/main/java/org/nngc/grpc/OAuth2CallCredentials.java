@@ -0,0 +1,49 @@
+package org.nngc.grpc;
+
+import io.grpc.CallCredentials;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Sends the service's client-credentials token with each call. The token comes from the same
+ * {@link OAuth2AuthorizedClientManager} as the {@code WebClient}'s, so it is cached and renewed
+ * ahead of expiry; the lookup runs on gRPC's application executor, never on the caller's thread.
+ */
+public class OAuth2CallCredentials extends CallCredentials {
+
+    private static final String PRINCIPAL = "nngc-grpc-client";
+
+    private final OAuth2AuthorizedClientManager authorizedClientManager;
+    private final String clientRegistrationId;
+
+    public OAuth2CallCredentials(OAuth2AuthorizedClientManager authorizedClientManager, String clientRegistrationId) {
+        this.authorizedClientManager = authorizedClientManager;
+        this.clientRegistrationId = clientRegistrationId;
+    }
+
+    @Override
+    public void applyRequestMetadata(RequestInfo requestInfo, Executor appExecutor, MetadataApplier applier) {
+        appExecutor.execute(() -> {
+            try {
+                OAuth2AuthorizedClient client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
+                        .withClientRegistrationId(clientRegistrationId)
+                        .principal(PRINCIPAL)
+                        .build());
+                if (client == null) {
+                    applier.fail(Status.UNAUTHENTICATED.withDescription("No token for " + clientRegistrationId));
+                    return;
+                }
+                Metadata headers = new Metadata();
+                headers.put(JwtServerInterceptor.AUTHORIZATION, "Bearer " + client.getAccessToken().getTokenValue());
+                applier.apply(headers);
+            } catch (RuntimeException e) {
+                applier.fail(Status.UNAUTHENTICATED.withDescription("Could not obtain a token").withCause(e));
+            }
+        });
+    }
+}
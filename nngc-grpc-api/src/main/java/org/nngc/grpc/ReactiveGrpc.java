@@ -0,0 +1,49 @@
+package org.nngc.grpc;
+
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineContext;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * Adapts async stub calls to {@link Mono} for the reactive callers. The call starts on
+ * subscription; its deadline bounds it, and so does the subscriber's deadline (the Reactor
+ * context's {@code Deadline.class}) through {@link DeadlineClientInterceptor}.
+ */
+public final class ReactiveGrpc {
+
+    private ReactiveGrpc() {
+    }
+
+    public static <T> Mono<T> unary(Consumer<StreamObserver<T>> call) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, DeadlineContext.current());
+            return Mono.create(sink -> {
+                StreamObserver<T> observer = new StreamObserver<>() {
+                    @Override
+                    public void onNext(T value) {
+                        sink.success(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        sink.error(error);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        sink.success();
+                    }
+                };
+                if (deadline == null) {
+                    call.accept(observer);
+                } else {
+                    Context.current().withValue(DeadlineClientInterceptor.DEADLINE, deadline).run(() -> call.accept(observer));
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,260 @@
+package org.nngc.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nngc.common.deadline.Deadline;
+import org.nngc.common.deadline.DeadlineMetrics;
+import org.nngc.grpc.api.GenerateTokenRequest;
+import org.nngc.grpc.api.SaveTokenRequest;
+import org.nngc.grpc.api.SaveTokensReply;
+import org.nngc.grpc.api.TokenReply;
+import org.nngc.grpc.api.TokenServiceGrpc;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClient;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GrpcChannelsTest {
+
+    private static final String VALID_TOKEN = "valid-token";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<GrpcChannels> channels = new ArrayList<>();
+    private final EchoTokenService tokenService = new EchoTokenService();
+    private GrpcServerLifecycle server;
+
+    @BeforeEach
+    void startServer() {
+        JwtDecoder jwtDecoder = token -> {
+            if (!VALID_TOKEN.equals(token)) {
+                throw new BadJwtException("bad token");
+            }
+            return Jwt.withTokenValue(token).header("alg", "none").subject("customer-service").build();
+        };
+        GrpcProperties.Server properties = new GrpcProperties.Server();
+        properties.setPort(0);
+        properties.setShutdownGracePeriod(Duration.ofSeconds(1));
+        server = new GrpcServerLifecycle(properties, List.<BindableService>of(tokenService),
+                List.of(new JwtServerInterceptor(jwtDecoder), GrpcMetricsInterceptors.server(meterRegistry)));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        for (GrpcChannels channel : channels) {
+            channel.destroy();
+        }
+        server.stop();
+    }
+
+    @Test
+    void shouldRejectCallsWithoutAValidToken() {
+        TokenServiceGrpc.TokenServiceBlockingStub stub = TokenServiceGrpc.newBlockingStub(
+                channels(Map.of("token-service", "127.0.0.1:" + server.getPort()), "not-a-jwt").channel("token-service"));
+
+        StatusRuntimeException failure = assertThrows(StatusRuntimeException.class,
+                () -> stub.generateToken(GenerateTokenRequest.newBuilder().setCustomerId(7).build()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, failure.getStatus().getCode());
+        assertEquals(1, meterRegistry.get("grpc.server.requests").tag("status", "UNAUTHENTICATED").timer().count());
+    }
+
+    @Test
+    void shouldCarryTheClientCredentialsToken() {
+        TokenServiceGrpc.TokenServiceBlockingStub stub = TokenServiceGrpc.newBlockingStub(
+                channels(Map.of("token-service", "127.0.0.1:" + server.getPort()), VALID_TOKEN).channel("token-service"));
+
+        TokenReply reply = stub.generateToken(GenerateTokenRequest.newBuilder().setCustomerId(7).build());
+
+        assertEquals("token-7-customer-service", reply.getToken());
+        assertEquals(1, meterRegistry.get("grpc.client.requests")
+                .tag("method", "GenerateToken").tag("status", "OK").timer().count());
+    }
+
+    @Test
+    void shouldSaveABatchOnOneStream() {
+        TokenServiceGrpc.TokenServiceStub stub = TokenServiceGrpc.newStub(
+                channels(Map.of("token-service", "127.0.0.1:" + server.getPort()), VALID_TOKEN).channel("token-service"));
+
+        SaveTokensReply reply = ReactiveGrpc.<SaveTokensReply>unary(observer -> {
+            StreamObserver<SaveTokenRequest> requests = stub.saveTokens(observer);
+            Flux.range(0, 100).subscribe(
+                    i -> requests.onNext(SaveTokenRequest.newBuilder().setCustomerId(i).setToken("t" + i).build()),
+                    requests::onError, requests::onCompleted);
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals(100, reply.getSaved());
+    }
+
+    @Test
+    void shouldRetryOnlyIdempotentMethods() {
+        TokenServiceGrpc.TokenServiceBlockingStub stub = TokenServiceGrpc.newBlockingStub(
+                channels(Map.of("token-service", "127.0.0.1:" + server.getPort()), VALID_TOKEN)
+                        .channel("token-service", List.of(TokenServiceGrpc.getSaveTokenMethod())));
+
+        tokenService.unavailable.set(1);
+        SaveTokensReply saved = stub.saveToken(SaveTokenRequest.newBuilder().setCustomerId(7).setToken("t").build());
+        tokenService.unavailable.set(1);
+        StatusRuntimeException failure = assertThrows(StatusRuntimeException.class,
+                () -> stub.generateToken(GenerateTokenRequest.newBuilder().setCustomerId(7).build()));
+
+        assertEquals(1, saved.getSaved());
+        assertEquals(Status.Code.UNAVAILABLE, failure.getStatus().getCode());
+        assertEquals(3, tokenService.calls.get());
+    }
+
+    @Test
+    void shouldGiveCallsNoMoreThanTheCallersRemainingTime() {
+        TokenServiceGrpc.TokenServiceStub stub = TokenServiceGrpc.newStub(
+                channels(Map.of("token-service", "127.0.0.1:" + server.getPort()), VALID_TOKEN).channel("token-service"));
+        tokenService.delay = Duration.ofMillis(500);
+
+        StatusRuntimeException failure = assertThrows(StatusRuntimeException.class,
+                () -> ReactiveGrpc.<TokenReply>unary(observer -> stub.generateToken(
+                                GenerateTokenRequest.newBuilder().setCustomerId(7).build(), observer))
+                        .contextWrite(Context.of(Deadline.class, Deadline.after(Duration.ofMillis(100))))
+                        .block(Duration.ofSeconds(5)));
+        StatusRuntimeException skipped = assertThrows(StatusRuntimeException.class,
+                () -> ReactiveGrpc.<TokenReply>unary(observer -> stub.generateToken(
+                                GenerateTokenRequest.newBuilder().setCustomerId(7).build(), observer))
+                        .contextWrite(Context.of(Deadline.class, Deadline.after(Duration.ZERO)))
+                        .block(Duration.ofSeconds(5)));
+
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, failure.getStatus().getCode());
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, skipped.getStatus().getCode());
+        assertEquals(1, meterRegistry.get("deadline.work.avoided").tag("stage", "outbound_timeout").counter().count());
+        assertEquals(1, meterRegistry.get("deadline.work.avoided").tag("stage", "outbound").counter().count());
+        assertEquals(1, tokenService.calls.get());
+    }
+
+    @Test
+    void shouldResolveInstancesFromDiscovery() {
+        SimpleDiscoveryProperties discovery = new SimpleDiscoveryProperties();
+        DefaultServiceInstance instance = new DefaultServiceInstance("token-service-1", "token-service",
+                "127.0.0.1", 8083, false, Map.of(DiscoveryNameResolverProvider.GRPC_PORT, String.valueOf(server.getPort())));
+        discovery.setInstances(Map.of("token-service", List.of(instance)));
+        GrpcProperties.Client properties = new GrpcProperties.Client();
+        GrpcChannels resolved = new GrpcChannels(properties, new SimpleDiscoveryClient(discovery),
+                new OAuth2CallCredentials(fixedToken(VALID_TOKEN), "keycloak"), List.of());
+        channels.add(resolved);
+
+        TokenReply reply = TokenServiceGrpc.newBlockingStub(resolved.channel("token-service"))
+                .generateToken(GenerateTokenRequest.newBuilder().setCustomerId(9).build());
+
+        assertEquals("token-9-customer-service", reply.getToken());
+    }
+
+    private GrpcChannels channels(Map<String, String> addresses, String token) {
+        GrpcProperties.Client properties = new GrpcProperties.Client();
+        addresses.forEach((service, address) -> {
+            GrpcProperties.Service target = new GrpcProperties.Service();
+            target.setAddress(address);
+            properties.getServices().put(service, target);
+        });
+        GrpcChannels created = new GrpcChannels(properties, null, new OAuth2CallCredentials(fixedToken(token), "keycloak"),
+                List.of(GrpcMetricsInterceptors.client(meterRegistry), new DeadlineClientInterceptor(new DeadlineMetrics(meterRegistry))));
+        channels.add(created);
+        return created;
+    }
+
+    private static OAuth2AuthorizedClientManager fixedToken(String token) {
+        ClientRegistration registration = ClientRegistration.withRegistrationId("keycloak")
+                .clientId("customer-service")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("http://keycloak/token")
+                .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, token,
+                Instant.now(), Instant.now().plusSeconds(300));
+        return request -> new OAuth2AuthorizedClient(registration, request.getPrincipal().getName(), accessToken);
+    }
+
+    private static class EchoTokenService extends TokenServiceGrpc.TokenServiceImplBase {
+
+        /** Number of upcoming unary calls to fail with UNAVAILABLE. */
+        private final AtomicInteger unavailable = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Duration delay = Duration.ZERO;
+
+        @Override
+        public void generateToken(GenerateTokenRequest request, StreamObserver<TokenReply> responseObserver) {
+            if (failed(responseObserver)) {
+                return;
+            }
+            Jwt caller = JwtServerInterceptor.JWT.get();
+            responseObserver.onNext(TokenReply.newBuilder()
+                    .setToken("token-" + request.getCustomerId() + "-" + caller.getSubject())
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void saveToken(SaveTokenRequest request, StreamObserver<SaveTokensReply> responseObserver) {
+            if (failed(responseObserver)) {
+                return;
+            }
+            responseObserver.onNext(SaveTokensReply.newBuilder().setSaved(1).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<SaveTokenRequest> saveTokens(StreamObserver<SaveTokensReply> responseObserver) {
+            return new StreamObserver<>() {
+                private int saved;
+
+                @Override
+                public void onNext(SaveTokenRequest request) {
+                    saved++;
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onNext(SaveTokensReply.newBuilder().setSaved(saved).build());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+
+        private boolean failed(StreamObserver<?> responseObserver) {
+            calls.incrementAndGet();
+            if (unavailable.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return true;
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.nngc.http.client;
+
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Servlet-side manager serving client-credentials registrations from
+ * {@link ClientCredentialsTokenCache}; any other grant type goes to {@code delegate}. A caller
+ * waits at most {@code timeout} for a token.
+ */
+public class CachingOAuth2AuthorizedClientManager implements OAuth2AuthorizedClientManager {
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final ClientCredentialsTokenCache tokenCache;
+    private final OAuth2AuthorizedClientManager delegate;
+    private final Duration timeout;
+
+    public CachingOAuth2AuthorizedClientManager(ClientRegistrationRepository clientRegistrationRepository,
+                                                ClientCredentialsTokenCache tokenCache,
+                                                OAuth2AuthorizedClientManager delegate,
+                                                Duration timeout) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.tokenCache = tokenCache;
+        this.delegate = delegate;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public OAuth2AuthorizedClient authorize(OAuth2AuthorizeRequest authorizeRequest) {
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(
+                authorizeRequest.getClientRegistrationId());
+        if (registration == null
+                || !AuthorizationGrantType.CLIENT_CREDENTIALS.equals(registration.getAuthorizationGrantType())) {
+            return delegate.authorize(authorizeRequest);
+        }
+        try {
+            // A copy, so timing out fails this caller only and not the fetch others share
+            return tokenCache.get(registration).copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("No " + registration.getRegistrationId() + " token within " + timeout, e.getCause());
+            }
+            throw e;
+        }
+    }
+}
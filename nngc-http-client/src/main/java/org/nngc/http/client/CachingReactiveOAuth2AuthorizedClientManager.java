@@ -0,0 +1,41 @@
+package org.nngc.http.client;
+
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link CachingOAuth2AuthorizedClientManager}. Token requests run on
+ * the cache's own threads, never on an event loop. A caller waits at most {@code timeout} for a token.
+ */
+public class CachingReactiveOAuth2AuthorizedClientManager implements ReactiveOAuth2AuthorizedClientManager {
+
+    private final ReactiveClientRegistrationRepository clientRegistrationRepository;
+    private final ClientCredentialsTokenCache tokenCache;
+    private final ReactiveOAuth2AuthorizedClientManager delegate;
+    private final Duration timeout;
+
+    public CachingReactiveOAuth2AuthorizedClientManager(ReactiveClientRegistrationRepository clientRegistrationRepository,
+                                                        ClientCredentialsTokenCache tokenCache,
+                                                        ReactiveOAuth2AuthorizedClientManager delegate,
+                                                        Duration timeout) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.tokenCache = tokenCache;
+        this.delegate = delegate;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<OAuth2AuthorizedClient> authorize(OAuth2AuthorizeRequest authorizeRequest) {
+        return clientRegistrationRepository.findByRegistrationId(authorizeRequest.getClientRegistrationId())
+                .filter(registration -> AuthorizationGrantType.CLIENT_CREDENTIALS.equals(registration.getAuthorizationGrantType()))
+                // A cancelled caller must not cancel a fetch other callers are waiting on
+                .flatMap(registration -> Mono.fromFuture(() -> tokenCache.get(registration), true).timeout(timeout))
+                .switchIfEmpty(Mono.defer(() -> delegate.authorize(authorizeRequest)));
+    }
+}
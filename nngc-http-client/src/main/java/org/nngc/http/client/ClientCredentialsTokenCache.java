@@ -0,0 +1,187 @@
+package org.nngc.http.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one client-credentials token per client registration and renews it in the background
+ * {@code refreshBefore} ahead of expiry (half-way through its life for short-lived tokens), so
+ * requests never wait on the token endpoint once the first token is in. Callers arriving while a
+ * fetch is in flight share it instead of each calling the token endpoint. A failed background
+ * refresh is retried every {@code retryInterval} while the current token is still good.
+ * <p>
+ * Each fetch gets a virtual thread of its own, so a slow token endpoint for one registration does
+ * not hold up the others; the single scheduler thread only starts refreshes. Each registration
+ * has at most one refresh scheduled.
+ * <p>
+ * Metrics: {@code oauth2.client.token.fetch{registration, outcome}} times each token request and
+ * {@code oauth2.client.token.refreshes{registration, trigger=proactive|on_demand}} counts them.
+ */
+public class ClientCredentialsTokenCache implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientCredentialsTokenCache.class);
+
+    /** A token this close to expiry is not handed out any more. */
+    private static final Duration EXPIRY_SKEW = Duration.ofSeconds(10);
+
+    private final OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient;
+    private final Duration refreshBefore;
+    private final Duration retryInterval;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oauth2-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService fetchExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("oauth2-token-fetch-", 0).factory());
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ClientCredentialsTokenCache(OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient,
+                                       Duration refreshBefore, Duration retryInterval, MeterRegistry meterRegistry) {
+        this(tokenResponseClient, refreshBefore, retryInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    ClientCredentialsTokenCache(OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient,
+                                Duration refreshBefore, Duration retryInterval, MeterRegistry meterRegistry, Clock clock) {
+        this.tokenResponseClient = tokenResponseClient;
+        this.refreshBefore = refreshBefore;
+        this.retryInterval = retryInterval;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * The current authorized client for the registration; completes immediately unless there is
+     * no usable token yet.
+     */
+    public CompletableFuture<OAuth2AuthorizedClient> get(ClientRegistration registration) {
+        return entries.computeIfAbsent(registration.getRegistrationId(), id -> new Entry(registration)).get();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    private boolean isUsable(OAuth2AuthorizedClient client) {
+        Instant expiresAt = client.getAccessToken().getExpiresAt();
+        return expiresAt == null || clock.instant().isBefore(expiresAt.minus(EXPIRY_SKEW));
+    }
+
+    private final class Entry {
+
+        private final ClientRegistration registration;
+        private final Counter proactiveRefreshes;
+        private final Counter onDemandRefreshes;
+        private volatile OAuth2AuthorizedClient current;
+        private CompletableFuture<OAuth2AuthorizedClient> inFlight;
+        private ScheduledFuture<?> nextRefresh;
+
+        Entry(ClientRegistration registration) {
+            this.registration = registration;
+            this.proactiveRefreshes = refreshCounter("proactive");
+            this.onDemandRefreshes = refreshCounter("on_demand");
+        }
+
+        CompletableFuture<OAuth2AuthorizedClient> get() {
+            OAuth2AuthorizedClient client = current;
+            if (client != null && isUsable(client)) {
+                return CompletableFuture.completedFuture(client);
+            }
+            return refresh(onDemandRefreshes);
+        }
+
+        synchronized CompletableFuture<OAuth2AuthorizedClient> refresh(Counter trigger) {
+            if (inFlight != null) {
+                return inFlight;
+            }
+            trigger.increment();
+            CompletableFuture<OAuth2AuthorizedClient> fetch = CompletableFuture.supplyAsync(this::fetch, fetchExecutor);
+            inFlight = fetch;
+            fetch.whenComplete((client, error) -> {
+                synchronized (this) {
+                    inFlight = null;
+                }
+                if (client != null) {
+                    current = client;
+                    scheduleRefresh(client.getAccessToken());
+                } else if (current != null && isUsable(current)) {
+                    logger.warn("Refreshing the {} token failed, retrying in {}", registration.getRegistrationId(), retryInterval, error);
+                    schedule(retryInterval);
+                }
+            });
+            return fetch;
+        }
+
+        private OAuth2AuthorizedClient fetch() {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                OAuth2AccessToken accessToken = tokenResponseClient
+                        .getTokenResponse(new OAuth2ClientCredentialsGrantRequest(registration))
+                        .getAccessToken();
+                outcome = "success";
+                return new OAuth2AuthorizedClient(registration, registration.getClientId(), accessToken);
+            } finally {
+                sample.stop(Timer.builder("oauth2.client.token.fetch")
+                        .description("Client-credentials token requests to the authorization server")
+                        .tag("registration", registration.getRegistrationId())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        }
+
+        private void scheduleRefresh(OAuth2AccessToken token) {
+            if (token.getExpiresAt() == null) {
+                return;
+            }
+            Instant issuedAt = token.getIssuedAt() != null ? token.getIssuedAt() : clock.instant();
+            Duration lifetime = Duration.between(issuedAt, token.getExpiresAt());
+            Duration lead = lifetime.compareTo(refreshBefore.multipliedBy(2)) > 0 ? refreshBefore : lifetime.dividedBy(2);
+            schedule(Duration.between(clock.instant(), token.getExpiresAt().minus(lead)));
+        }
+
+        /** Replaces whatever refresh was pending, so one registration never runs two refresh chains. */
+        private synchronized void schedule(Duration delay) {
+            if (nextRefresh != null) {
+                nextRefresh.cancel(false);
+            }
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            nextRefresh = scheduler.schedule(() -> refresh(proactiveRefreshes), Math.max(delay.toMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        private Counter refreshCounter(String trigger) {
+            return Counter.builder("oauth2.client.token.refreshes")
+                    .description("Client-credentials token requests started, by what triggered them")
+                    .tag("registration", registration.getRegistrationId())
+                    .tag("trigger", trigger)
+                    .register(meterRegistry);
+        }
+    }
+}
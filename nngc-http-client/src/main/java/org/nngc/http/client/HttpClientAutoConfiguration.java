@@ -0,0 +1,79 @@
+package org.nngc.http.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One tuned, pooled transport for all inter-service calls, plus the {@code @LoadBalanced}
+ * {@code WebClient.Builder} and {@code WebClient} the services inject. The builder goes through
+ * Boot's {@code WebClientCustomizer}s, so it gets the shared codecs and the
+ * {@code http.client.requests} timers (tagged per target with {@code client.name}), and when
+ * the service has a client registration every request carries a client-credentials token
+ * (see {@link ServletOAuth2ClientCredentialsAutoConfiguration} and
+ * {@link ReactiveOAuth2ClientCredentialsAutoConfiguration}).
+ */
+@AutoConfiguration(
+        after = {ServletOAuth2ClientCredentialsAutoConfiguration.class, ReactiveOAuth2ClientCredentialsAutoConfiguration.class},
+        beforeName = {
+                "org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration",
+                "org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration"
+        })
+@ConditionalOnClass(WebClient.class)
+@ConditionalOnProperty(prefix = "nngc.http-client", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientAutoConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean(name = "nngcHttpClientConnectionProvider")
+    public ConnectionProvider nngcHttpClientConnectionProvider(HttpClientProperties properties) {
+        return NngcHttpClients.connectionProvider(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ClientHttpConnector.class)
+    public ReactorClientHttpConnector nngcClientHttpConnector(HttpClientProperties properties,
+                                                              ConnectionProvider nngcHttpClientConnectionProvider) {
+        return new ReactorClientHttpConnector(NngcHttpClients.httpClient(properties, nngcHttpClientConnectionProvider));
+    }
+
+    @Bean
+    @LoadBalanced
+    @ConditionalOnMissingBean(WebClient.Builder.class)
+    public WebClient.Builder webClientBuilder(ClientHttpConnector clientHttpConnector,
+                                              ObjectProvider<WebClientCustomizer> customizers) {
+        WebClient.Builder builder = WebClient.builder().clientConnector(clientHttpConnector);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+
+    /**
+     * The client for internal calls, in {@code nngc.http-client.wire-format}. The builder itself
+     * stays JSON-only for clients built from it.
+     */
+    @Bean
+    @ConditionalOnMissingBean(WebClient.class)
+    public WebClient webClient(WebClient.Builder webClientBuilder, HttpClientProperties properties,
+                               ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        if (properties.getWireFormat() != HttpClientProperties.WireFormat.CBOR) {
+            return webClientBuilder.build();
+        }
+        ObjectMapper cborMapper = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::cbor)
+                .factory(new CBORFactory())
+                .build();
+        return NngcHttpClients.preferCbor(webClientBuilder.clone(), cborMapper).build();
+    }
+}
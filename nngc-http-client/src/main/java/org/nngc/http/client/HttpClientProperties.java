@@ -0,0 +1,140 @@
+package org.nngc.http.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transport settings shared by every inter-service {@code WebClient}. The pool is per service
+ * instance, so {@code pool.maxConnections} bounds what one instance can open across all of its
+ * downstream services.
+ * <p>
+ * {@code http2} switches to cleartext HTTP/2 with prior knowledge, multiplexing requests over
+ * fewer connections. Only turn it on once every downstream service serves h2c (for Tomcat,
+ * {@code server.http2.enabled=true}); an HTTP/1.1-only service will refuse the connection.
+ * <p>
+ * {@code wireFormat} is what the shared {@code WebClient} sends and asks for. With {@code cbor}
+ * it still accepts JSON, so a service that cannot answer in CBOR keeps working.
+ */
+@ConfigurationProperties(prefix = "nngc.http-client")
+public class HttpClientProperties {
+
+    private boolean enabled = true;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    private boolean compression = true;
+    private boolean http2 = false;
+    private WireFormat wireFormat = WireFormat.CBOR;
+    private final Pool pool = new Pool();
+    private final KeepAlive keepAlive = new KeepAlive();
+    private final OAuth2 oauth2 = new OAuth2();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+    public Duration getResponseTimeout() { return responseTimeout; }
+    public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+
+    public boolean isCompression() { return compression; }
+    public void setCompression(boolean compression) { this.compression = compression; }
+
+    public boolean isHttp2() { return http2; }
+    public void setHttp2(boolean http2) { this.http2 = http2; }
+
+    public WireFormat getWireFormat() { return wireFormat; }
+    public void setWireFormat(WireFormat wireFormat) { this.wireFormat = wireFormat; }
+
+    public Pool getPool() { return pool; }
+
+    public KeepAlive getKeepAlive() { return keepAlive; }
+
+    public OAuth2 getOauth2() { return oauth2; }
+
+    public enum WireFormat { JSON, CBOR }
+
+    public static class Pool {
+        private int maxConnections = 200;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public int getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+        public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+
+        public Duration getMaxIdleTime() { return maxIdleTime; }
+        public void setMaxIdleTime(Duration maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+
+        public Duration getMaxLifeTime() { return maxLifeTime; }
+        public void setMaxLifeTime(Duration maxLifeTime) { this.maxLifeTime = maxLifeTime; }
+
+        public Duration getEvictionInterval() { return evictionInterval; }
+        public void setEvictionInterval(Duration evictionInterval) { this.evictionInterval = evictionInterval; }
+    }
+
+    /**
+     * TCP keep-alive probes, so connections silently dropped by a NAT or load balancer are
+     * noticed before a request is written to them.
+     */
+    public static class KeepAlive {
+        private boolean enabled = true;
+        private Duration idle = Duration.ofSeconds(60);
+        private Duration interval = Duration.ofSeconds(10);
+        private int count = 3;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getIdle() { return idle; }
+        public void setIdle(Duration idle) { this.idle = idle; }
+
+        public Duration getInterval() { return interval; }
+        public void setInterval(Duration interval) { this.interval = interval; }
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+
+    /**
+     * Client-credentials tokens are renewed in the background {@code refreshBefore} ahead of
+     * expiry; a failed renewal is retried every {@code retryInterval} while the old token lasts.
+     * {@code connectTimeout} and {@code readTimeout} bound each token request; a caller waits for a
+     * token at most their sum.
+     */
+    public static class OAuth2 {
+        private boolean enabled = true;
+        private String clientRegistrationId = "keycloak";
+        private Duration refreshBefore = Duration.ofSeconds(60);
+        private Duration retryInterval = Duration.ofSeconds(5);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public String getClientRegistrationId() { return clientRegistrationId; }
+        public void setClientRegistrationId(String clientRegistrationId) { this.clientRegistrationId = clientRegistrationId; }
+
+        public Duration getRefreshBefore() { return refreshBefore; }
+        public void setRefreshBefore(Duration refreshBefore) { this.refreshBefore = refreshBefore; }
+
+        public Duration getRetryInterval() { return retryInterval; }
+        public void setRetryInterval(Duration retryInterval) { this.retryInterval = retryInterval; }
+
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+        public Duration getReadTimeout() { return readTimeout; }
+        public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+    }
+}
@@ -0,0 +1,127 @@
+package org.nngc.http.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.nio.NioChannelOption;
+import jdk.net.ExtendedSocketOptions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.endpoint.DefaultClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the tuned Reactor Netty client behind the shared {@code WebClient}. Exposed for code
+ * that needs the same transport outside the application context, such as benchmarks.
+ */
+public final class NngcHttpClients {
+
+    public static final String POOL_NAME = "nngc-http-client";
+
+    private static final Set<HttpMethod> BODY_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+
+    /** Request bodies without an explicit content type go out as CBOR instead of JSON. */
+    private static final ExchangeFilterFunction CBOR_REQUEST_BODIES = (request, next) ->
+            request.headers().getContentType() == null && BODY_METHODS.contains(request.method())
+                    ? next.exchange(ClientRequest.from(request)
+                            .headers(headers -> headers.setContentType(MediaType.APPLICATION_CBOR))
+                            .build())
+                    : next.exchange(request);
+
+    private NngcHttpClients() {
+    }
+
+    /**
+     * Pool metrics (active/idle/pending connections and acquire time) are published as
+     * {@code reactor.netty.connection.provider.*} with {@code name=nngc-http-client}.
+     */
+    public static ConnectionProvider connectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    public static HttpClient httpClient(HttpClientProperties properties, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .compress(properties.isCompression())
+                .keepAlive(true);
+        HttpClientProperties.KeepAlive keepAlive = properties.getKeepAlive();
+        if (keepAlive.isEnabled()) {
+            httpClient = httpClient.option(ChannelOption.SO_KEEPALIVE, true);
+            // Reactor Netty runs on epoll where available; the probe timings are transport-specific
+            if (Epoll.isAvailable()) {
+                httpClient = httpClient
+                        .option(EpollChannelOption.TCP_KEEPIDLE, (int) keepAlive.getIdle().toSeconds())
+                        .option(EpollChannelOption.TCP_KEEPINTVL, (int) keepAlive.getInterval().toSeconds())
+                        .option(EpollChannelOption.TCP_KEEPCNT, keepAlive.getCount());
+            } else {
+                httpClient = httpClient
+                        .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPIDLE), (int) keepAlive.getIdle().toSeconds())
+                        .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPINTERVAL), (int) keepAlive.getInterval().toSeconds())
+                        .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPCOUNT), keepAlive.getCount());
+            }
+        }
+        if (properties.isHttp2()) {
+            // Prior knowledge: the HTTP/1.1 Upgrade route is refused for requests with a body
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+        return httpClient;
+    }
+
+    /**
+     * Spring Security's client-credentials token client, except that its {@code RestTemplate} gives
+     * up on the token endpoint after {@code connectTimeout} and {@code readTimeout}.
+     */
+    public static DefaultClientCredentialsTokenResponseClient tokenResponseClient(HttpClientProperties.OAuth2 properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        RestTemplate restTemplate = new RestTemplate(List.of(
+                new FormHttpMessageConverter(), new OAuth2AccessTokenResponseHttpMessageConverter()));
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        restTemplate.setRequestFactory(requestFactory);
+        DefaultClientCredentialsTokenResponseClient tokenResponseClient = new DefaultClientCredentialsTokenResponseClient();
+        tokenResponseClient.setRestOperations(restTemplate);
+        return tokenResponseClient;
+    }
+
+    /**
+     * Sends request bodies as CBOR and asks for CBOR responses, falling back to JSON when the
+     * other side does not offer it. Calls that set their own {@code Accept} or
+     * {@code Content-Type} keep them.
+     */
+    public static WebClient.Builder preferCbor(WebClient.Builder builder, ObjectMapper cborMapper) {
+        return builder
+                .codecs(codecs -> {
+                    codecs.customCodecs().register(new CborValueEncoder(cborMapper));
+                    codecs.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+                })
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE, MediaType.APPLICATION_JSON_VALUE)
+                .filter(CBOR_REQUEST_BODIES);
+    }
+}
@@ -0,0 +1,63 @@
+package org.nngc.http.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction;
+
+/**
+ * Client-credentials tokens on the shared {@code WebClient} for WebFlux services (registration).
+ * The token request itself is blocking but runs on {@link ClientCredentialsTokenCache}'s threads.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.security.oauth2.client.reactive.ReactiveOAuth2ClientAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnBean(ReactiveClientRegistrationRepository.class)
+@ConditionalOnProperty(prefix = "nngc.http-client.oauth2", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveOAuth2ClientCredentialsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientCredentialsTokenCache clientCredentialsTokenCache(HttpClientProperties properties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ClientCredentialsTokenCache(NngcHttpClients.tokenResponseClient(properties.getOauth2()),
+                properties.getOauth2().getRefreshBefore(), properties.getOauth2().getRetryInterval(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveOAuth2AuthorizedClientManager authorizedClientManager(
+            ReactiveClientRegistrationRepository clientRegistrationRepository,
+            ReactiveOAuth2AuthorizedClientService clientService,
+            ClientCredentialsTokenCache tokenCache,
+            HttpClientProperties properties) {
+        HttpClientProperties.OAuth2 oauth2 = properties.getOauth2();
+        return new CachingReactiveOAuth2AuthorizedClientManager(clientRegistrationRepository, tokenCache,
+                new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(clientRegistrationRepository, clientService),
+                oauth2.getConnectTimeout().plus(oauth2.getReadTimeout()));
+    }
+
+    @Bean
+    public WebClientCustomizer oauth2WebClientCustomizer(ReactiveOAuth2AuthorizedClientManager authorizedClientManager,
+                                                         HttpClientProperties properties) {
+        var oauth2Filter = new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+        oauth2Filter.setDefaultClientRegistrationId(properties.getOauth2().getClientRegistrationId());
+        return builder -> builder.filter(oauth2Filter);
+    }
+}
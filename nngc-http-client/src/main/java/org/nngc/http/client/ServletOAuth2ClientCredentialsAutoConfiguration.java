@@ -0,0 +1,65 @@
+package org.nngc.http.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
+
+/**
+ * Client-credentials tokens on the shared {@code WebClient} for servlet services. Kept as its own
+ * auto-configuration rather than a nested class: the services component-scan {@code org.nngc},
+ * which would pick a nested configuration up before Boot has registered the client registrations.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
+@ConditionalOnClass(ServletOAuth2AuthorizedClientExchangeFilterFunction.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(ClientRegistrationRepository.class)
+@ConditionalOnProperty(prefix = "nngc.http-client.oauth2", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ServletOAuth2ClientCredentialsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientCredentialsTokenCache clientCredentialsTokenCache(HttpClientProperties properties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ClientCredentialsTokenCache(NngcHttpClients.tokenResponseClient(properties.getOauth2()),
+                properties.getOauth2().getRefreshBefore(), properties.getOauth2().getRetryInterval(),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OAuth2AuthorizedClientManager authorizedClientManager(ClientRegistrationRepository clientRegistrationRepository,
+                                                                 OAuth2AuthorizedClientService clientService,
+                                                                 ClientCredentialsTokenCache tokenCache,
+                                                                 HttpClientProperties properties) {
+        HttpClientProperties.OAuth2 oauth2 = properties.getOauth2();
+        return new CachingOAuth2AuthorizedClientManager(clientRegistrationRepository, tokenCache,
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(clientRegistrationRepository, clientService),
+                oauth2.getConnectTimeout().plus(oauth2.getReadTimeout()));
+    }
+
+    @Bean
+    public WebClientCustomizer oauth2WebClientCustomizer(OAuth2AuthorizedClientManager authorizedClientManager,
+                                                         HttpClientProperties properties) {
+        var oauth2Filter = new ServletOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+        oauth2Filter.setDefaultClientRegistrationId(properties.getOauth2().getClientRegistrationId());
+        return builder -> builder.apply(oauth2Filter.oauth2Configuration());
+    }
+}
@@ -0,0 +1,148 @@
+package org.nngc.http.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientCredentialsTokenCacheTest {
+
+    private static final ClientRegistration KEYCLOAK = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("customer-service")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .tokenUri("http://keycloak/token")
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private ClientCredentialsTokenCache cache;
+
+    @AfterEach
+    void shutDown() {
+        cache.destroy();
+    }
+
+    @Test
+    void shouldCollapseConcurrentFetchesIntoOne() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        cache = cache(request -> {
+            await(release);
+            return token(Duration.ofMinutes(5));
+        }, Duration.ofSeconds(60));
+
+        List<CompletableFuture<OAuth2AuthorizedClient>> callers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callers.add(cache.get(KEYCLOAK));
+        }
+        release.countDown();
+
+        OAuth2AuthorizedClient first = callers.get(0).get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<OAuth2AuthorizedClient> caller : callers) {
+            assertSame(first, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertSame(first, cache.get(KEYCLOAK).get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, refreshes("on_demand"));
+        assertEquals(1, meterRegistry.get("oauth2.client.token.fetch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldRefreshBeforeExpiryWithoutACaller() throws Exception {
+        // A 2s token is renewed half-way through its life, well inside refreshBefore
+        cache = cache(request -> token(Duration.ofSeconds(2)), Duration.ofSeconds(60));
+        cache.get(KEYCLOAK).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(calls.get() >= 2, "no background refresh");
+        assertTrue(refreshes("proactive") >= 1.0);
+        assertEquals(1.0, refreshes("on_demand"));
+    }
+
+    @Test
+    void shouldStopWaitingOnASlowTokenEndpointWithoutFailingTheSharedFetch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        cache = cache(request -> {
+            await(release);
+            return token(Duration.ofMinutes(5));
+        }, Duration.ofSeconds(60));
+        var manager = new CachingOAuth2AuthorizedClientManager(new InMemoryClientRegistrationRepository(KEYCLOAK), cache,
+                null, Duration.ofMillis(100));
+        CompletableFuture<OAuth2AuthorizedClient> waiting = cache.get(KEYCLOAK);
+
+        IllegalStateException timeout = assertThrows(IllegalStateException.class, () -> manager.authorize(
+                OAuth2AuthorizeRequest.withClientRegistrationId("keycloak").principal("customer-service").build()));
+        release.countDown();
+
+        assertInstanceOf(TimeoutException.class, timeout.getCause());
+        assertEquals("token-1", waiting.get(5, TimeUnit.SECONDS).getAccessToken().getTokenValue());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldRecordFailedFetches() {
+        cache = cache(request -> {
+            throw new IllegalStateException("token endpoint down");
+        }, Duration.ofSeconds(60));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> cache.get(KEYCLOAK).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1, meterRegistry.get("oauth2.client.token.fetch").tag("outcome", "failure").timer().count());
+    }
+
+    private ClientCredentialsTokenCache cache(OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> endpoint,
+                                              Duration refreshBefore) {
+        return new ClientCredentialsTokenCache(request -> {
+            calls.incrementAndGet();
+            return endpoint.getTokenResponse(request);
+        }, refreshBefore, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    private OAuth2AccessTokenResponse token(Duration lifetime) {
+        return OAuth2AccessTokenResponse.withToken("token-" + calls.get())
+                .tokenType(OAuth2AccessToken.TokenType.BEARER)
+                .expiresIn(lifetime.toSeconds())
+                .build();
+    }
+
+    private double refreshes(String trigger) {
+        return meterRegistry.get("oauth2.client.token.refreshes").tag("trigger", trigger).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.nngc.http.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.security.oauth2.client.reactive.ReactiveOAuth2ClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientAutoConfigurationTest {
+
+    private static final String[] CLIENT_REGISTRATION = {
+            "spring.security.oauth2.client.registration.keycloak.client-id=customer-service",
+            "spring.security.oauth2.client.registration.keycloak.client-secret=secret",
+            "spring.security.oauth2.client.registration.keycloak.authorization-grant-type=client_credentials",
+            "spring.security.oauth2.client.provider.keycloak.token-uri=http://localhost:8080/realms/nngc-realm/protocol/openid-connect/token"
+    };
+
+    private final AutoConfigurations webClient = AutoConfigurations.of(
+            HttpClientAutoConfiguration.class,
+            ClientHttpConnectorAutoConfiguration.class,
+            WebClientAutoConfiguration.class);
+
+    @Test
+    void shouldBuildClientsOnTheSharedConnector() {
+        new WebApplicationContextRunner()
+                .withConfiguration(webClient)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(WebClient.Builder.class);
+                    assertThat(context).hasSingleBean(WebClient.class);
+                    assertThat(context.getBean(ClientHttpConnector.class)).isInstanceOf(ReactorClientHttpConnector.class);
+                    assertThat(context).hasBean("nngcHttpClientConnectionProvider");
+                    assertThat(filters(context.getBean(WebClient.Builder.class))).isEmpty();
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSpeakCborOnTheInternalClient() {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.post("/echo", (request, response) -> request.receive().aggregate().asByteArray()
+                        .flatMap(body -> {
+                            try {
+                                Map<String, Object> echoed = new HashMap<>(cbor.readValue(body, Map.class));
+                                echoed.put("contentType", request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE));
+                                echoed.put("accept", String.join(",", request.requestHeaders().getAll(HttpHeaderNames.ACCEPT)));
+                                return response.header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                                        .sendByteArray(Mono.just(cbor.writeValueAsBytes(echoed)))
+                                        .then();
+                            } catch (IOException e) {
+                                return Mono.error(e);
+                            }
+                        })))
+                .bindNow();
+        try {
+            new WebApplicationContextRunner()
+                    .withConfiguration(webClient)
+                    .run(context -> {
+                        Map<String, Object> echoed = context.getBean(WebClient.class).post()
+                                .uri("http://127.0.0.1:" + server.port() + "/echo")
+                                .bodyValue(Map.of("status", "SUCCESS"))
+                                .retrieve()
+                                .bodyToMono(Map.class)
+                                .block();
+
+                        assertThat(echoed).containsEntry("status", "SUCCESS")
+                                .containsEntry("contentType", MediaType.APPLICATION_CBOR_VALUE)
+                                .containsEntry("accept", MediaType.APPLICATION_CBOR_VALUE + "," + MediaType.APPLICATION_JSON_VALUE);
+                    });
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void shouldAddClientCredentialsOnServletServices() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SecurityAutoConfiguration.class, OAuth2ClientAutoConfiguration.class,
+                        ServletOAuth2ClientCredentialsAutoConfiguration.class))
+                .withConfiguration(webClient)
+                .withPropertyValues(CLIENT_REGISTRATION)
+                .run(context -> {
+                    assertThat(filters(context.getBean(WebClient.Builder.class)))
+                            .hasExactlyElementsOfTypes(ServletOAuth2AuthorizedClientExchangeFilterFunction.class);
+                    assertThat(context.getBean(OAuth2AuthorizedClientManager.class))
+                            .isInstanceOf(CachingOAuth2AuthorizedClientManager.class);
+                });
+    }
+
+    @Test
+    void shouldAddClientCredentialsOnReactiveServices() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveSecurityAutoConfiguration.class, ReactiveOAuth2ClientAutoConfiguration.class,
+                        ReactiveOAuth2ClientCredentialsAutoConfiguration.class))
+                .withConfiguration(webClient)
+                .withPropertyValues(CLIENT_REGISTRATION)
+                .run(context -> {
+                    assertThat(filters(context.getBean(WebClient.Builder.class)))
+                            .hasExactlyElementsOfTypes(ServerOAuth2AuthorizedClientExchangeFilterFunction.class);
+                    assertThat(context.getBean(ReactiveOAuth2AuthorizedClientManager.class))
+                            .isInstanceOf(CachingReactiveOAuth2AuthorizedClientManager.class);
+                });
+    }
+
+    @Test
+    void shouldLeaveOAuth2OffWhenDisabled() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(SecurityAutoConfiguration.class, OAuth2ClientAutoConfiguration.class,
+                        ServletOAuth2ClientCredentialsAutoConfiguration.class))
+                .withConfiguration(webClient)
+                .withPropertyValues(CLIENT_REGISTRATION)
+                .withPropertyValues("nngc.http-client.oauth2.enabled=false")
+                .run(context -> assertThat(filters(context.getBean(WebClient.Builder.class))).isEmpty());
+    }
+
+    private static List<ExchangeFilterFunction> filters(WebClient.Builder builder) {
+        List<ExchangeFilterFunction> filters = new ArrayList<>();
+        builder.clone().filters(filters::addAll);
+        return filters;
+    }
+}
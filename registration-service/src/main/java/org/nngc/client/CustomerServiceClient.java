@@ -1,43 +1,42 @@
 package org.nngc.client;
 
+import org.nngc.common.retry.RetryExchangeFilterFunction;
 import org.nngc.registration.ApiResponse;
 import org.nngc.registration.RegistrationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
-
 @Service
 public class CustomerServiceClient {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomerServiceClient.class);
     
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+    private final CustomerServiceClientProperties.Timeouts timeouts;
     private static final String FAILED="FAILED";
 
-    public CustomerServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
-    }
-    
-    private WebClient getCustomerServiceClient() {
-        return webClientBuilder.baseUrl("http://customer-service").build();
+    public CustomerServiceClient(@Qualifier("customerServiceWebClient") WebClient webClient,
+                                 CustomerServiceClientProperties properties) {
+        this.webClient = webClient;
+        this.timeouts = properties.getTimeouts();
     }
     
     
     public Mono<ApiResponse> registerCustomer(RegistrationRequest request) {
         logger.info("Registering customer via Customer Service: {}", request.getEmail());
         
-        return getCustomerServiceClient()
+        return webClient
                 .post()
-                .uri("/api/customers/claude calauregister")
+                .uri("/api/customers/register")
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(ApiResponse.class)
-                .timeout(Duration.ofSeconds(30))
+                .timeout(timeouts.getRegister())
                 .doOnSuccess(response -> logger.info("Customer registration completed successfully"))
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     logger.error("Failed to register customer with status: {}", ex.getStatusCode());
@@ -58,12 +57,12 @@ public class CustomerServiceClient {
     public Mono<ApiResponse> confirmEmailToken(String token) {
         logger.info("Confirming email token via Customer Service");
         
-        return getCustomerServiceClient()
+        return webClient
                 .post()
                 .uri("/api/customers/confirm-email?token={token}", token)
                 .retrieve()
                 .bodyToMono(ApiResponse.class)
-                .timeout(Duration.ofSeconds(30))
+                .timeout(timeouts.getConfirmEmail())
                 .doOnSuccess(response -> logger.info("Token confirmation completed"))
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     logger.error("Token confirmation failed with status: {}", ex.getStatusCode());
@@ -84,12 +83,12 @@ public class CustomerServiceClient {
     public Mono<ApiResponse> resendVerificationEmail(String email) {
         logger.info("Resending verification email for: {}", email);
         
-        return getCustomerServiceClient()
+        return webClient
                 .post()
                 .uri("/api/customers/resend-verification?email={email}", email)
                 .retrieve()
                 .bodyToMono(ApiResponse.class)
-                .timeout(Duration.ofSeconds(30))
+                .timeout(timeouts.getResendVerification())
                 .doOnSuccess(response -> logger.info("Resend verification successful for: {}", email))
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     logger.error("Resend verification failed with status: {} for: {}", ex.getStatusCode(), email);
@@ -110,12 +109,14 @@ public class CustomerServiceClient {
     public Mono<ApiResponse> getTokenStatus(String token) {
         logger.info("Checking token status via Customer Service");
         
-        return getCustomerServiceClient()
+        return webClient
                 .get()
                 .uri("/api/customers/token-status?token={token}", token)
+                // Confirms the token in token-service: a repeat would find it already confirmed
+                .attribute(RetryExchangeFilterFunction.NON_IDEMPOTENT, true)
                 .retrieve()
                 .bodyToMono(ApiResponse.class)
-                .timeout(Duration.ofSeconds(30))
+                .timeout(timeouts.getTokenStatus())
                 .doOnSuccess(response -> logger.info("Token status check completed"))
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     logger.error("Token status check failed with status: {}", ex.getStatusCode());
@@ -0,0 +1,40 @@
+package org.nngc.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-operation timeouts for the calls registration-service makes to customer-service. The
+ * connection pool is shared with every other client and configured under {@code nngc.http-client}.
+ */
+@ConfigurationProperties(prefix = "registration.customer-service")
+public class CustomerServiceClientProperties {
+
+    private String baseUrl = "http://customer-service";
+    private final Timeouts timeouts = new Timeouts();
+
+    public String getBaseUrl() { return baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+    public Timeouts getTimeouts() { return timeouts; }
+
+    public static class Timeouts {
+        private Duration register = Duration.ofSeconds(10);
+        private Duration confirmEmail = Duration.ofSeconds(5);
+        private Duration resendVerification = Duration.ofSeconds(10);
+        private Duration tokenStatus = Duration.ofSeconds(3);
+
+        public Duration getRegister() { return register; }
+        public void setRegister(Duration register) { this.register = register; }
+
+        public Duration getConfirmEmail() { return confirmEmail; }
+        public void setConfirmEmail(Duration confirmEmail) { this.confirmEmail = confirmEmail; }
+
+        public Duration getResendVerification() { return resendVerification; }
+        public void setResendVerification(Duration resendVerification) { this.resendVerification = resendVerification; }
+
+        public Duration getTokenStatus() { return tokenStatus; }
+        public void setTokenStatus(Duration tokenStatus) { this.tokenStatus = tokenStatus; }
+    }
+}
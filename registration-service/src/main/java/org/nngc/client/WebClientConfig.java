@@ -1,21 +1,27 @@
 package org.nngc.client;
 
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
+/**
+ * The load-balanced builder, its pooled transport and the OAuth2 filter come from
+ * nngc-http-client; this only points a client at customer-service.
+ */
 @Configuration
+@EnableConfigurationProperties(CustomerServiceClientProperties.class)
 public class WebClientConfig {
 
+    /**
+     * Built once and shared; the builder is cloned so the base URL does not leak into other
+     * clients built from it.
+     */
     @Bean
-    @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient customerServiceWebClient(WebClient.Builder webClientBuilder,
+                                              CustomerServiceClientProperties properties) {
+        return webClientBuilder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .build();
     }
-    
-    @Bean
-    public WebClient webClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder.build();
-    }
-}
\ No newline at end of file
+}
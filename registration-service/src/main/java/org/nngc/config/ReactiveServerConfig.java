@@ -0,0 +1,18 @@
+package org.nngc.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReactiveServerConfig {
+
+    /**
+     * tomcat-embed-core comes in through the parent pom, and Boot prefers Tomcat over Netty
+     * whenever it is on the classpath; declaring the factory pins the server to Reactor Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
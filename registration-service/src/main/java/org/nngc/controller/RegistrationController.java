@@ -1,6 +1,5 @@
 package org.nngc.controller;
 
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.nngc.registration.ApiResponse;
@@ -19,7 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
+import java.net.URI;
 
 @Slf4j
 @RestController
@@ -72,32 +71,19 @@ public class RegistrationController {
     }
     
     @GetMapping("/confirm")
-    public void confirmMail(@RequestParam("token") String token, HttpServletResponse response) 
-            throws IOException {
+    public Mono<ResponseEntity<Void>> confirmMail(@RequestParam("token") String token) {
         log.info("Email confirmation request received");
         
-        registrationService.confirmEmail(token)
-                .subscribe(
-                    result -> {
-                        try {
-                            String redirectUrl = getRedirectUrl(result.getStatus());
-                            response.sendRedirect(redirectUrl);
-                        } catch (IOException e) {
-                            log.error("Error redirecting after email confirmation: ", e);
-                        }
-                    },
-                    error -> {
-                        try {
-                            log.error("Email confirmation failed: ", error);
-                            String errorUrl = isProduction() ? 
-                                prodFrontendUrl + "/email-verification-failed" :
-                                frontendUrl + "/email-verification-failed";
-                            response.sendRedirect(errorUrl);
-                        } catch (IOException e) {
-                            log.error("Error redirecting after email confirmation error: ", e);
-                        }
-                    }
-                );
+        return registrationService.confirmEmail(token)
+                .map(result -> getRedirectUrl(result.getStatus()))
+                .onErrorResume(error -> {
+                    log.error("Email confirmation failed: ", error);
+                    String errorUrl = isProduction() ? 
+                        prodFrontendUrl + "/email-verification-failed" :
+                        frontendUrl + "/email-verification-failed";
+                    return Mono.just(errorUrl);
+                })
+                .map(url -> ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url)).<Void>build());
     }
     
     @GetMapping("/token_status")
@@ -0,0 +1,55 @@
+package org.nngc.client;
+
+import io.grpc.StatusRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.grpc.GrpcChannels;
+import org.nngc.grpc.api.Customer;
+import org.nngc.grpc.api.CustomerId;
+import org.nngc.grpc.api.CustomerServiceGrpc;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * customer-service over its internal gRPC API, with the same blocking contract as the REST client.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "nngc.grpc.client", name = "enabled", matchIfMissing = true)
+public class GrpcCustomerServiceClient implements CustomerServiceClient {
+
+    private final CustomerServiceGrpc.CustomerServiceBlockingStub stub;
+
+    public GrpcCustomerServiceClient(GrpcChannels channels) {
+        // A lookup, and enabling an enabled customer changes nothing, so both calls may be retried
+        this.stub = CustomerServiceGrpc.newBlockingStub(channels.channel("customer-service",
+                List.of(CustomerServiceGrpc.getGetCustomerMethod(), CustomerServiceGrpc.getEnableCustomerMethod())));
+    }
+
+    @Override
+    public CustomerDTO getCustomerById(Long customerId) {
+        try {
+            return toDto(stub.getCustomer(CustomerId.newBuilder().setId(customerId).build()));
+        } catch (StatusRuntimeException e) {
+            log.error("Error calling customer service for customer ID: {}, Error: {}", customerId, e.getStatus());
+            throw new RuntimeException("Failed to fetch customer with ID: " + customerId, e);
+        }
+    }
+
+    @Override
+    public CustomerDTO enableCustomer(Long customerId) {
+        try {
+            return toDto(stub.enableCustomer(CustomerId.newBuilder().setId(customerId).build()));
+        } catch (StatusRuntimeException e) {
+            log.error("Error enabling customer with ID: {}, Error: {}", customerId, e.getStatus());
+            throw new RuntimeException("Failed to enable customer with ID: " + customerId, e);
+        }
+    }
+
+    private static CustomerDTO toDto(Customer customer) {
+        return new CustomerDTO(customer.getId(), customer.getEmail(), customer.getFirstName(),
+                customer.getLastName(), customer.getEnabled());
+    }
+}
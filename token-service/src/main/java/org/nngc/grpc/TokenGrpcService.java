@@ -0,0 +1,101 @@
+package org.nngc.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.grpc.api.ConfirmTokenReply;
+import org.nngc.grpc.api.ConfirmTokenRequest;
+import org.nngc.grpc.api.Customer;
+import org.nngc.grpc.api.GenerateTokenRequest;
+import org.nngc.grpc.api.RevokeAllTokensReply;
+import org.nngc.grpc.api.RevokeAllTokensRequest;
+import org.nngc.grpc.api.SaveTokenRequest;
+import org.nngc.grpc.api.SaveTokensReply;
+import org.nngc.grpc.api.TokenReply;
+import org.nngc.grpc.api.TokenServiceGrpc;
+import org.nngc.token.TokenService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Internal gRPC API for token operations, served by nngc-grpc-api.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenGrpcService extends TokenServiceGrpc.TokenServiceImplBase {
+
+    private final TokenService tokenService;
+
+    @Override
+    public void generateToken(GenerateTokenRequest request, StreamObserver<TokenReply> responseObserver) {
+        String token = tokenService.generateEmailVerificationToken(request.getCustomerId());
+        responseObserver.onNext(TokenReply.newBuilder().setToken(token).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void saveToken(SaveTokenRequest request, StreamObserver<SaveTokensReply> responseObserver) {
+        boolean saved = tokenService.saveEmailVerificationToken(request.getCustomerId(), request.getToken());
+        responseObserver.onNext(SaveTokensReply.newBuilder().setSaved(saved ? 1 : 0).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<SaveTokenRequest> saveTokens(StreamObserver<SaveTokensReply> responseObserver) {
+        return new StreamObserver<>() {
+            private int saved;
+
+            @Override
+            public void onNext(SaveTokenRequest request) {
+                if (tokenService.saveEmailVerificationToken(request.getCustomerId(), request.getToken())) {
+                    saved++;
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                log.warn("Token batch aborted by the caller after {} saved: {}", saved, error.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(SaveTokensReply.newBuilder().setSaved(saved).build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void confirmToken(ConfirmTokenRequest request, StreamObserver<ConfirmTokenReply> responseObserver) {
+        CustomerDTO customer;
+        try {
+            customer = tokenService.confirmEmailVerificationToken(request.getToken());
+        } catch (RuntimeException e) {
+            responseObserver.onError(Status.FAILED_PRECONDITION.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(ConfirmTokenReply.newBuilder()
+                .setCustomer(Customer.newBuilder()
+                        .setId(customer.id())
+                        .setEmail(orEmpty(customer.email()))
+                        .setFirstName(orEmpty(customer.firstName()))
+                        .setLastName(orEmpty(customer.lastName()))
+                        .setFullName(orEmpty(customer.firstName()) + " " + orEmpty(customer.lastName()))
+                        .setEnabled(customer.enabled()))
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void revokeAllTokens(RevokeAllTokensRequest request, StreamObserver<RevokeAllTokensReply> responseObserver) {
+        int revoked = tokenService.revokeAllTokens(request.getCustomerId());
+        responseObserver.onNext(RevokeAllTokensReply.newBuilder().setRevoked(revoked).build());
+        responseObserver.onCompleted();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -3,6 +3,7 @@ package org.nngc.token;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
@@ -14,4 +15,10 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
             and t.expired = false and t.revoked = false
             """)
     Optional<Token> findValidTokenByCustomerId(Long customerId);
-}
\ No newline at end of file
+
+    @Query(value = """
+            select t from Token t where t.customerId = :customerId
+            and t.expired = false and t.revoked = false
+            """)
+    List<Token> findAllValidTokensByCustomerId(Long customerId);
+}
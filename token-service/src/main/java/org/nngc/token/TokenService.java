@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -20,7 +21,34 @@ public class TokenService {
 
     public String generateEmailVerificationToken(Long customerId) {
         var verificationToken = java.util.UUID.randomUUID().toString();
-        var token = Token.builder()
+        tokenRepository.save(newToken(customerId, verificationToken));
+        return verificationToken;
+    }
+
+    /**
+     * Stores a token generated elsewhere. Saving one that is already stored (such as a token
+     * from {@link #generateEmailVerificationToken}) changes nothing and returns {@code false}.
+     */
+    public boolean saveEmailVerificationToken(Long customerId, String verificationToken) {
+        if (tokenRepository.findByToken(verificationToken).isPresent()) {
+            return false;
+        }
+        tokenRepository.save(newToken(customerId, verificationToken));
+        return true;
+    }
+
+    public int revokeAllTokens(Long customerId) {
+        List<Token> tokens = tokenRepository.findAllValidTokensByCustomerId(customerId);
+        tokens.forEach(token -> {
+            token.setExpired(true);
+            token.setRevoked(true);
+        });
+        tokenRepository.saveAll(tokens);
+        return tokens.size();
+    }
+
+    private static Token newToken(Long customerId, String verificationToken) {
+        return Token.builder()
                 .customerId(customerId)
                 .token(verificationToken)
                 .tokenType(TokenType.EMAIL_VERIFICATION)
@@ -29,8 +57,6 @@ public class TokenService {
                 .expiresAt(LocalDateTime.now().plusMinutes(45))
                 .revoked(false)
                 .build();
-        tokenRepository.save(token);
-        return verificationToken;
     }
 
 
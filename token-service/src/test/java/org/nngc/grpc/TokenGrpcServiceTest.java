@@ -0,0 +1,127 @@
+package org.nngc.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Test;
+import org.nngc.dto.CustomerDTO;
+import org.nngc.grpc.api.ConfirmTokenReply;
+import org.nngc.grpc.api.ConfirmTokenRequest;
+import org.nngc.grpc.api.RevokeAllTokensReply;
+import org.nngc.grpc.api.RevokeAllTokensRequest;
+import org.nngc.grpc.api.SaveTokenRequest;
+import org.nngc.grpc.api.SaveTokensReply;
+import org.nngc.token.TokenService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenGrpcServiceTest {
+
+    private final TokenService tokenService = mock(TokenService.class);
+    private final TokenGrpcService grpcService = new TokenGrpcService(tokenService);
+
+    @Test
+    void shouldReportWhetherTheTokenWasSaved() {
+        when(tokenService.saveEmailVerificationToken(7L, "new")).thenReturn(true);
+        when(tokenService.saveEmailVerificationToken(7L, "stored")).thenReturn(false);
+        Recorder<SaveTokensReply> saved = new Recorder<>();
+        Recorder<SaveTokensReply> repeated = new Recorder<>();
+
+        grpcService.saveToken(saveRequest(7L, "new"), saved);
+        grpcService.saveToken(saveRequest(7L, "stored"), repeated);
+
+        assertEquals(1, saved.single().getSaved());
+        assertEquals(0, repeated.single().getSaved());
+    }
+
+    @Test
+    void shouldCountTheTokensSavedFromAStream() {
+        when(tokenService.saveEmailVerificationToken(1L, "a")).thenReturn(true);
+        when(tokenService.saveEmailVerificationToken(2L, "b")).thenReturn(false);
+        when(tokenService.saveEmailVerificationToken(3L, "c")).thenReturn(true);
+        Recorder<SaveTokensReply> reply = new Recorder<>();
+
+        StreamObserver<SaveTokenRequest> requests = grpcService.saveTokens(reply);
+        requests.onNext(saveRequest(1L, "a"));
+        requests.onNext(saveRequest(2L, "b"));
+        requests.onNext(saveRequest(3L, "c"));
+        requests.onCompleted();
+
+        assertEquals(2, reply.single().getSaved());
+    }
+
+    @Test
+    void shouldReturnTheNumberOfRevokedTokens() {
+        when(tokenService.revokeAllTokens(7L)).thenReturn(3);
+        Recorder<RevokeAllTokensReply> reply = new Recorder<>();
+
+        grpcService.revokeAllTokens(RevokeAllTokensRequest.newBuilder().setCustomerId(7L).build(), reply);
+
+        assertEquals(3, reply.single().getRevoked());
+    }
+
+    @Test
+    void shouldConfirmAndReturnTheCustomer() {
+        when(tokenService.confirmEmailVerificationToken("t-1"))
+                .thenReturn(new CustomerDTO(7L, "ada@example.com", "Ada", null, true));
+        Recorder<ConfirmTokenReply> reply = new Recorder<>();
+
+        grpcService.confirmToken(ConfirmTokenRequest.newBuilder().setToken("t-1").build(), reply);
+
+        assertEquals("ada@example.com", reply.single().getCustomer().getEmail());
+        assertEquals("Ada ", reply.single().getCustomer().getFullName());
+        assertTrue(reply.single().getCustomer().getEnabled());
+    }
+
+    @Test
+    void shouldFailConfirmationOfAnUnusableToken() {
+        when(tokenService.confirmEmailVerificationToken("t-1")).thenThrow(new RuntimeException("Token already confirmed"));
+        Recorder<ConfirmTokenReply> reply = new Recorder<>();
+
+        grpcService.confirmToken(ConfirmTokenRequest.newBuilder().setToken("t-1").build(), reply);
+
+        assertTrue(reply.values.isEmpty());
+        Status status = Status.fromThrowable(reply.error);
+        assertEquals(Status.Code.FAILED_PRECONDITION, status.getCode());
+        assertEquals("Token already confirmed", status.getDescription());
+    }
+
+    private static SaveTokenRequest saveRequest(long customerId, String token) {
+        return SaveTokenRequest.newBuilder().setCustomerId(customerId).setToken(token).build();
+    }
+
+    private static class Recorder<T> implements StreamObserver<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        T single() {
+            assertNull(error);
+            assertTrue(completed);
+            assertEquals(1, values.size());
+            return values.get(0);
+        }
+    }
+}
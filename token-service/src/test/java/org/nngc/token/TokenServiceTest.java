@@ -0,0 +1,68 @@
+package org.nngc.token;
+
+import org.junit.jupiter.api.Test;
+import org.nngc.client.CustomerServiceClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTest {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final TokenService tokenService = new TokenService(tokenRepository, mock(CustomerServiceClient.class));
+
+    @Test
+    void shouldSaveANewToken() {
+        when(tokenRepository.findByToken("t-1")).thenReturn(Optional.empty());
+
+        assertTrue(tokenService.saveEmailVerificationToken(7L, "t-1"));
+
+        verify(tokenRepository).save(any(Token.class));
+    }
+
+    @Test
+    void shouldLeaveAnAlreadyStoredTokenAlone() {
+        when(tokenRepository.findByToken("t-1")).thenReturn(Optional.of(token(7L, "t-1")));
+
+        assertFalse(tokenService.saveEmailVerificationToken(7L, "t-1"));
+
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    @Test
+    void shouldRevokeAndExpireAllValidTokens() {
+        List<Token> tokens = List.of(token(7L, "t-1"), token(7L, "t-2"));
+        when(tokenRepository.findAllValidTokensByCustomerId(7L)).thenReturn(tokens);
+
+        assertEquals(2, tokenService.revokeAllTokens(7L));
+
+        assertTrue(tokens.stream().allMatch(token -> token.isRevoked() && token.isExpired()));
+        verify(tokenRepository).saveAll(tokens);
+    }
+
+    @Test
+    void shouldRevokeNothingTwice() {
+        when(tokenRepository.findAllValidTokensByCustomerId(7L)).thenReturn(List.of());
+
+        assertEquals(0, tokenService.revokeAllTokens(7L));
+    }
+
+    private static Token token(Long customerId, String value) {
+        return Token.builder()
+                .customerId(customerId)
+                .token(value)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(45))
+                .build();
+    }
+}